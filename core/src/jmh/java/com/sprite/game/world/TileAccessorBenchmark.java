@@ -0,0 +1,103 @@
+package com.sprite.game.world;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessFiles;
+import com.sprite.game.world.gen.SmoothRollingHillsGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nanoseconds per AABB scan of an entity-sized box (2x3 tiles) just above the surface of generated
+ * rolling hills, the query {@code Entity} physics and the pathfinder probes run per tile:
+ * through {@link World#getTileId}, through a {@link TileAccessor} reset before every scan as the
+ * physics step does, and through the accessor's solidity bitsets. Chunks are generated during
+ * setup. Run with {@code ./gradlew :core:jmh -Pjmh=TileAccessor}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TileAccessorBenchmark {
+
+    private static final String WORLD = "jmh-tile-accessor";
+    private static final int BOXES = 1024;
+    private static final int WIDTH = 2;
+    private static final int HEIGHT = 3;
+
+    private World world;
+    private final TileAccessor tiles = new TileAccessor();
+    private int[] boxX;
+    private int[] boxY;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Gdx.files = new HeadlessFiles();
+        world = new World.Builder(WORLD).generator(new SmoothRollingHillsGenerator()).chunkCacheBudget(64L << 20).build();
+        world.setSaveDirectory(null);
+        Random random = new Random(3);
+        boxX = new int[BOXES];
+        boxY = new int[BOXES];
+        for (int i = 0; i < BOXES; i++) {
+            int x = random.nextInt(512) - 256;
+            int top = world.surfaceHeight(x);
+            if (top == Integer.MIN_VALUE) top = 64;
+            boxX[i] = x;
+            boxY[i] = top + 1 + random.nextInt(3);
+            world.getTileId(x, boxY[i]); // generate the chunks up front
+            world.getTileId(x + WIDTH, boxY[i] + HEIGHT);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        world.dispose();
+        Gdx.files.local("saves/" + WORLD).deleteDirectory();
+    }
+
+    @Benchmark
+    public boolean worldGetTileId() {
+        int i = next++ & (BOXES - 1);
+        int x0 = boxX[i], y0 = boxY[i];
+        for (int x = x0; x < x0 + WIDTH; x++) {
+            for (int y = y0; y < y0 + HEIGHT; y++) {
+                if (world.isSolid(world.getTileId(x, y))) return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean accessorId() {
+        int i = next++ & (BOXES - 1);
+        int x0 = boxX[i], y0 = boxY[i];
+        tiles.reset(world);
+        for (int x = x0; x < x0 + WIDTH; x++) {
+            for (int y = y0; y < y0 + HEIGHT; y++) {
+                if (tiles.solid(x, y)) return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean accessorAnySolid() {
+        int i = next++ & (BOXES - 1);
+        tiles.reset(world);
+        return tiles.anySolid(boxX[i], boxY[i], boxX[i] + WIDTH - 1, boxY[i] + HEIGHT - 1);
+    }
+}
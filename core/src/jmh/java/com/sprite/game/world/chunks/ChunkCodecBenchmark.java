@@ -0,0 +1,77 @@
+package com.sprite.game.world.chunks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chunk encoding and decoding per chunk: {@code terrain} is a hillside of a few layered tiles,
+ * {@code noisy} holds a random id in every tile (the palette's worst case), against writing the
+ * raw ids as version 1 does. The encoded sizes are printed once per fork. Run with
+ * {@code ./gradlew :core:jmh -Pjmh=ChunkCodec}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkCodecBenchmark {
+
+    @Param({"8", "32", "128"})
+    public int size;
+
+    @Param({"terrain", "noisy"})
+    public String kind;
+
+    private ChunkSnapshot snapshot;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        int[] ids = new int[size * size];
+        Random random = new Random(7);
+        for (int x = 0; x < size; x++) {
+            int surface = size / 2 + (int) (Math.sin(x * 0.3) * size / 8);
+            for (int y = 0; y < size; y++) {
+                ids[x * size + y] = kind.equals("noisy") ? 1 + random.nextInt(size * size)
+                        : y > surface ? 0 : y == surface ? 1 : y > surface - 4 ? 2 : 3;
+            }
+        }
+        snapshot = new ChunkSnapshot(0, 0, size, ids);
+        encoded = ChunkCodec.encode(snapshot);
+        System.out.printf("%n%s %dx%d: %d bytes encoded, %d bytes raw%n", kind, size, size, encoded.length,
+                16 + 4 * ids.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return ChunkCodec.encode(snapshot);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return ChunkCodec.decode(encoded, 0, 0, size);
+    }
+
+    @Benchmark
+    public byte[] encodeRaw() {
+        int[] ids = snapshot.ids();
+        ByteBuffer buffer = ByteBuffer.allocate(16 + ids.length * 4);
+        buffer.putInt(ChunkCodec.MAGIC).putInt(ChunkCodec.VERSION_1).putInt(0).putInt(0);
+        for (int id : ids) buffer.putInt(id);
+        return buffer.array();
+    }
+}
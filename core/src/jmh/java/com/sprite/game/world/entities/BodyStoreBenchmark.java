@@ -0,0 +1,72 @@
+package com.sprite.game.world.entities;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microseconds per integration pass over every body: {@link BodyStore#integrate(float, float)}
+ * looping over the store's arrays, against integrating slot by slot while walking the entity
+ * list, as a per-entity update does. The list is shuffled, as spawn and removal order leave it.
+ * Run with {@code ./gradlew :core:jmh -Pjmh=BodyStore}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BodyStoreBenchmark {
+
+    private static final float GRAVITY = -0.75f;
+    private static final float DAMPING = 0.98f;
+
+    @Param({"10000", "100000"})
+    public int bodies;
+
+    private BodyStore store;
+    private List<Entity> entities;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(13);
+        store = new BodyStore(bodies);
+        entities = new ArrayList<>(bodies);
+        for (int i = 0; i < bodies; i++) {
+            Entity e = new Entity(random.nextFloat() * 1000f, random.nextFloat() * 1000f, 1f, 2f);
+            store.attach(e);
+            e.setVelocity(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f);
+            entities.add(e);
+        }
+        Collections.shuffle(entities, random);
+    }
+
+    @Benchmark
+    public BodyStore store() {
+        store.integrate(GRAVITY, DAMPING);
+        return store;
+    }
+
+    @Benchmark
+    public BodyStore perEntity() {
+        for (int i = 0, n = entities.size(); i < n; i++) {
+            Entity e = entities.get(i);
+            e.bodies.integrate(e.bodySlot, GRAVITY, DAMPING);
+        }
+        return store;
+    }
+}
@@ -0,0 +1,86 @@
+package com.sprite.game.world.entities;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessFiles;
+import com.sprite.game.world.World;
+import com.sprite.game.world.gen.SmoothRollingHillsGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entities simulated per millisecond by {@link World#tick()} at different simulation thread
+ * counts; {@code threads = 0} is the single-threaded step. Bodies patrol left and right over
+ * generated rolling hills, jumping now and then, so every tick sweeps moving boxes against
+ * terrain; the patrol range is generated during setup. Run with
+ * {@code ./gradlew :core:jmh -Pjmh=WorldStep}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldStepBenchmark {
+
+    private static final String WORLD = "jmh-world-step";
+    private static final int ENTITIES = 4096;
+    private static final int PATROL_TICKS = 120;
+
+    @Param({"0", "1", "2", "4", "8"})
+    public int threads;
+
+    private World world;
+    private Entity[] bodies;
+    private int tick;
+
+    @Setup
+    public void setup() {
+        Gdx.files = new HeadlessFiles();
+        world = new World.Builder(WORLD).generator(new SmoothRollingHillsGenerator())
+                .chunkCacheBudget(64L << 20).simulationThreads(threads).build();
+        world.setSaveDirectory(null);
+        int ts = world.tileSize();
+        Random random = new Random(11);
+        bodies = new Entity[ENTITIES];
+        for (int i = 0; i < ENTITIES; i++) {
+            int tx = random.nextInt(512) - 256;
+            int top = world.surfaceHeight(tx);
+            if (top == Integer.MIN_VALUE) top = 64;
+            bodies[i] = new Entity(tx * ts, (top + 2) * ts, ts * 0.8f, ts * 1.6f);
+            world.add(bodies[i]);
+        }
+        for (int t = 0; t < 2 * PATROL_TICKS; t++) step();
+    }
+
+    @TearDown
+    public void tearDown() {
+        world.dispose();
+        Gdx.files.local("saves/" + WORLD).deleteDirectory();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTITIES)
+    public void step() {
+        float speed = (tick++ / PATROL_TICKS & 1) == 0 ? 12f : -12f;
+        for (int i = 0; i < ENTITIES; i++) {
+            Entity e = bodies[i];
+            e.setVelocity(speed, e.getVelY());
+            if (((tick + i) & 63) == 0) e.jump(15f);
+        }
+        world.tick();
+    }
+}
@@ -0,0 +1,80 @@
+package com.sprite.game.world.gen;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar vs batch fBm over the runs the generators actually request: a 64-column terrain
+ * region and a 64x64 cave mask. Run with {@code ./gradlew :core:jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueNoiseBenchmark {
+
+    private static final int REGION = 64;
+
+    @Param({"4", "8"})
+    public int octaves;
+
+    private ValueNoise noise;
+    private final double[] column = new double[REGION];
+    private final double[] block = new double[REGION * REGION];
+    private int x0;
+
+    @Setup
+    public void setup() {
+        noise = new ValueNoise(1337L, octaves, 1.0 / 48.0, 2.0, 0.5);
+    }
+
+    @Benchmark
+    public void scalarColumns(Blackhole bh) {
+        int x = nextRegion();
+        for (int i = 0; i < REGION; i++) column[i] = noise.fbm((double) (x + i));
+        bh.consume(column);
+    }
+
+    @Benchmark
+    public void batchColumns(Blackhole bh) {
+        noise.fbm(nextRegion(), REGION, column);
+        bh.consume(column);
+    }
+
+    @Benchmark
+    public void scalarRegion(Blackhole bh) {
+        int x = nextRegion();
+        for (int i = 0; i < REGION; i++) {
+            for (int j = 0; j < REGION; j++) block[i * REGION + j] = noise.fbm((double) (x + i), (double) (-x + j));
+        }
+        bh.consume(block);
+    }
+
+    @Benchmark
+    public void batchRegion(Blackhole bh) {
+        int x = nextRegion();
+        noise.fbm(x, -x, REGION, REGION, block);
+        bh.consume(block);
+    }
+
+    // Walk across regions so neither path benefits from repeating the same coordinates
+    private int nextRegion() {
+        x0 += REGION;
+        if (x0 > 1 << 20) x0 = -(1 << 20);
+        return x0;
+    }
+}
@@ -0,0 +1,104 @@
+package com.sprite.game.world.path;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessFiles;
+import com.sprite.game.world.TileAccessor;
+import com.sprite.game.world.World;
+import com.sprite.game.world.gen.SmoothRollingHillsGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches per second on generated rolling hills: {@link TileSearch} for the short paths it
+ * answers directly, and {@link NavGraph} for long paths across many chunks. The queries are
+ * fixed, walkable start and goal cells; chunks are generated and the graph warmed during setup,
+ * so only the searches are measured. Run with {@code ./gradlew :core:jmh -Pjmh=Pathfinding}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathfindingBenchmark {
+
+    private static final String WORLD = "jmh-pathfinding";
+    private static final int QUERIES = 256;
+
+    private World world;
+    private NavRules rules;
+    private final TileAccessor tiles = new TileAccessor();
+    private final TileSearch search = new TileSearch();
+    private NavGraph graph;
+    private int[][] shortQueries;
+    private int[][] longQueries;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Gdx.files = new HeadlessFiles();
+        world = new World.Builder(WORLD).generator(new SmoothRollingHillsGenerator()).chunkCacheBudget(64L << 20).build();
+        world.setSaveDirectory(null);
+        rules = NavRules.of(0.5f * world.tileSize(), 0.8f * world.tileSize(), Float.POSITIVE_INFINITY, world.tileSize());
+        tiles.reset(world);
+        graph = new NavGraph(world, rules);
+
+        Random random = new Random(5);
+        shortQueries = queries(random, 12);
+        longQueries = queries(random, 160);
+        for (int[] q : longQueries) graph.findPath(q[0], q[1], q[2], q[3]);
+    }
+
+    @TearDown
+    public void tearDown() {
+        world.dispose();
+        Gdx.files.local("saves/" + WORLD).deleteDirectory();
+    }
+
+    @Benchmark
+    public long[] tileSearch() {
+        int[] q = shortQueries[next++ & (QUERIES - 1)];
+        tiles.reset(world);
+        return search.find(tiles, rules, q[0], q[1], q[2], q[3], TileSearch.Bounds.UNBOUNDED, NavGraph.MAX_TILE_EXPANSIONS);
+    }
+
+    @Benchmark
+    public long[] navGraph() {
+        int[] q = longQueries[next++ & (QUERIES - 1)];
+        return graph.findPath(q[0], q[1], q[2], q[3]);
+    }
+
+    /**
+     * Start and goal cells standing on the surface, up to {@code range} columns apart.
+     */
+    private int[][] queries(Random random, int range) {
+        int[][] queries = new int[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            int sx = random.nextInt(2000) - 1000;
+            int gx = sx + random.nextInt(2 * range + 1) - range;
+            queries[i] = new int[]{sx, standingY(sx), gx, standingY(gx)};
+        }
+        return queries;
+    }
+
+    private int standingY(int x) {
+        int top = world.surfaceHeight(x);
+        if (top == Integer.MIN_VALUE) top = 64;
+        for (int y = top + 4; y > top - 64; y--) {
+            if (rules.standable(tiles, x, y)) return y;
+        }
+        return top + 1;
+    }
+}
@@ -9,6 +9,7 @@ import com.sprite.render.screen.WorldScreen;
 import com.sprite.data.utils.Utils;
 import com.sprite.tools.EntityEditor;
 import com.sprite.tools.UIEditor;
+import com.sprite.tools.WorldPreGenerator;
 
 import java.util.Map;
 
@@ -85,6 +86,9 @@ public class Main extends Game {
             case "inventoryEditor":
                 setScreen(UIEditor.screen());
                 break;
+            case "pregen":
+                WorldPreGenerator.start(LAUNCH_ARGS);
+                break;
             default:
                 throw new IllegalArgumentException("Unknown debug tool: " + toolName);
         }
@@ -8,6 +8,7 @@ import com.sprite.data.utils.audio.AudioChannel;
 import com.sprite.data.utils.audio.Sounds;
 import com.sprite.data.utils.resources.Resources;
 import com.sprite.data.utils.resources.Texts;
+import com.sprite.game.world.chunks.ChunkWriter;
 import com.sprite.resource.magic.elements.Elements;
 import com.sprite.resource.magic.spells.Spells;
 
@@ -72,6 +73,12 @@ public class Utils {
     public static void shutdown() {
         if (shutdown) return;
         shutdown = true;
+        try {
+            // Make sure chunk saves still queued in the background reach disk
+            ChunkWriter.shutdownAll();
+        } catch (Throwable t) {
+            Gdx.app.error("Shutdown", "Error flushing chunk writers", t);
+        }
         try {
             // Stop any playing/queued audio first
             try {
@@ -0,0 +1,375 @@
+package com.sprite.game.world;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import org.json.JSONObject;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generates and saves an area of a world ahead of time, so players walking into it load chunks
+ * instead of waiting for the generator.
+ * <p>
+ * Chunks are visited in square rings around the centre of the {@link Area}, nearest first, by
+ * one worker thread per core. Each one is generated through the world's configured generator
+ * and handed to its chunk writer; chunks that are already saved, for example because a player
+ * explored them, are skipped. Progress and an ETA are logged periodically.
+ * <p>
+ * At every report the writer is flushed and the position up to which every chunk is on disk is
+ * recorded in {@code pregen.json} in the save directory. A run that is interrupted resumes from
+ * there when started again with the same area (or with {@code resume}); the file is deleted once
+ * the area is complete. A chunk whose generation fails holds the recorded position at its own,
+ * so the run ends incomplete and resuming retries it (chunks saved after it are skipped). The
+ * world must not be played while pre-generating.
+ */
+public class PreGenerator {
+
+    private static final String PROGRESS_FILE = "pregen.json";
+
+    private final World world;
+    private final Area area;
+    private final int threads;
+    private final float reportSeconds;
+    private final long positions;
+    private final long startPosition;
+    private final long total;
+    private final long doneBefore;
+
+    private final AtomicLong next = new AtomicLong();
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicLong firstFailed = new AtomicLong(Long.MAX_VALUE); // lowest failed position
+    private volatile boolean stopped = false;
+
+    /**
+     * @param threads       worker threads; 0 uses one per core
+     * @param reportSeconds seconds between progress reports and checkpoints
+     */
+    public PreGenerator(World world, Area area, int threads, float reportSeconds) {
+        this.world = world;
+        this.area = area;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.reportSeconds = Math.max(0.1f, reportSeconds);
+        long side = 2L * area.rings() + 1;
+        this.positions = side * side;
+        this.total = area.count();
+
+        long start = 0;
+        JSONObject saved = readProgress(world);
+        if (saved != null && area.equals(Area.fromJson(saved.getJSONObject("area")))) {
+            start = Math.min(positions, saved.optLong("done", 0));
+        }
+        this.startPosition = start;
+        long before = 0;
+        for (long p = 0; p < start; p++) {
+            long cell = position(p);
+            if (area.contains(area.centerX + (int) (cell >> 32), area.centerY + (int) cell)) before++;
+        }
+        this.doneBefore = before;
+    }
+
+    /**
+     * Builds a pre-generator from launch arguments: {@code pregen} is an {@link Area#parse area}
+     * or {@code resume} to continue the last interrupted run, {@code threads} the worker count
+     * (0 = one per core) and {@code report} the seconds between progress reports.
+     *
+     * @throws IllegalArgumentException if the area is missing or malformed, or there is nothing
+     *                                  to resume
+     */
+    public static PreGenerator fromArgs(World world, Map<String, String> args) {
+        String spec = args.get("pregen");
+        if (spec == null || spec.isEmpty()) throw new IllegalArgumentException("Missing pregen area");
+        Area area;
+        if (spec.equals("resume")) {
+            area = resumableArea(world);
+            if (area == null) throw new IllegalArgumentException("No interrupted pre-generation to resume");
+        } else {
+            area = Area.parse(spec);
+        }
+        return new PreGenerator(world, area,
+                Integer.parseInt(args.getOrDefault("threads", "0")),
+                Float.parseFloat(args.getOrDefault("report", "2")));
+    }
+
+    /**
+     * Area of the world's interrupted pre-generation run, or null if there is none.
+     */
+    public static Area resumableArea(World world) {
+        JSONObject saved = readProgress(world);
+        return saved == null ? null : Area.fromJson(saved.getJSONObject("area"));
+    }
+
+    /**
+     * Generates the remaining chunks of the area and blocks until they are on disk or the run is
+     * {@link #stop() stopped}.
+     */
+    public Result run() {
+        long startNanos = System.nanoTime();
+        next.set(startPosition);
+        AtomicLongArray current = new AtomicLongArray(threads);
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            final int index = i;
+            current.set(i, startPosition);
+            Thread t = new Thread(() -> work(index, current), "pregen-worker-" + i);
+            t.setDaemon(true);
+            t.start();
+            workers[i] = t;
+        }
+        log(String.format("Pre-generating %d chunks, %s, on %d threads%s", total, area, threads,
+                doneBefore > 0 ? ", resuming after " + doneBefore : ""));
+
+        long lastNanos = startNanos;
+        long lastDone = doneBefore;
+        for (Thread t : workers) {
+            while (t.isAlive()) {
+                try {
+                    t.join((long) (reportSeconds * 1000));
+                } catch (InterruptedException e) {
+                    stop();
+                    Thread.currentThread().interrupt();
+                }
+                long now = System.nanoTime();
+                if (t.isAlive() && now - lastNanos >= (long) (reportSeconds * 1e9)) {
+                    checkpoint(current);
+                    long done = processed();
+                    report(done, (done - lastDone) / ((now - lastNanos) / 1e9), (now - startNanos) / 1e9);
+                    lastNanos = now;
+                    lastDone = done;
+                }
+            }
+        }
+
+        boolean complete = !stopped && next.get() >= positions && failed.sum() == 0;
+        world.flushSaves();
+        if (complete) {
+            FileHandle file = world.getSaveDirectory().child(PROGRESS_FILE);
+            if (file.exists()) file.delete();
+        } else {
+            checkpoint(current);
+        }
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        Result result = new Result(total, doneBefore, generated.sum(), skipped.sum(), failed.sum(), seconds, complete);
+        log(String.format("Pre-generation %s: %d generated, %d already saved, %d failed in %.1f s (%.0f chunks/s)",
+                complete ? "finished" : stopped ? "stopped" : "incomplete", result.generated, result.skipped, result.failed,
+                seconds, seconds > 0 ? result.generated / seconds : 0));
+        if (result.failed > 0) log("Failed chunks are retried by resuming the run");
+        return result;
+    }
+
+    /**
+     * Asks the workers to stop after their current chunk; {@link #run()} then records progress and
+     * returns. Safe to call from any thread.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Chunks of the area handled so far, including those finished by earlier runs.
+     */
+    public long processed() {
+        return doneBefore + generated.sum() + skipped.sum() + failed.sum();
+    }
+
+    public long total() {
+        return total;
+    }
+
+    private void work(int index, AtomicLongArray current) {
+        while (!stopped) {
+            long p = next.getAndIncrement();
+            if (p >= positions) break;
+            current.set(index, p);
+            long cell = position(p);
+            int cx = area.centerX + (int) (cell >> 32);
+            int cy = area.centerY + (int) cell;
+            if (!area.contains(cx, cy)) continue;
+            try {
+                if (world.pregenerate(cx, cy)) generated.increment();
+                else skipped.increment();
+            } catch (Throwable t) {
+                failed.increment();
+                firstFailed.accumulateAndGet(p, Math::min);
+                if (Gdx.app != null) Gdx.app.error("PreGenerator", "Failed to generate chunk " + cx + "," + cy, t);
+            }
+        }
+        current.set(index, Long.MAX_VALUE);
+    }
+
+    /**
+     * Records the position below which every chunk has been saved. A worker's slot holds the
+     * position it is working on or an earlier, finished one, so the minimum never overtakes an
+     * unfinished chunk, and it stops at the first chunk that failed.
+     */
+    private void checkpoint(AtomicLongArray current) {
+        long done = Math.min(Math.min(next.get(), positions), firstFailed.get());
+        for (int i = 0; i < current.length(); i++) done = Math.min(done, current.get(i));
+        // Everything below the watermark has been submitted; make sure it reached disk first
+        world.flushSaves();
+        JSONObject data = new JSONObject()
+            .put("area", area.toJson())
+            .put("done", done);
+        try {
+            world.getSaveDirectory().child(PROGRESS_FILE).writeString(data.toString(), false);
+        } catch (Exception e) {
+            if (Gdx.app != null) Gdx.app.error("PreGenerator", "Failed to record progress", e);
+        }
+    }
+
+    private void report(long done, double rate, double elapsed) {
+        long remaining = Math.max(0, total - done);
+        double average = (done - doneBefore) / Math.max(1e-3, elapsed);
+        long eta = average > 0 ? Math.round(remaining / average) : -1;
+        log(String.format("%d/%d chunks (%.1f%%), %.0f chunks/s, ETA %s", done, total,
+                total == 0 ? 100.0 : done * 100.0 / total, rate,
+                eta < 0 ? "unknown" : String.format("%d:%02d:%02d", eta / 3600, eta / 60 % 60, eta % 60)));
+    }
+
+    private static JSONObject readProgress(World world) {
+        FileHandle file = world.getSaveDirectory().child(PROGRESS_FILE);
+        if (!file.exists()) return null;
+        try {
+            JSONObject data = new JSONObject(file.readString());
+            return data.has("area") ? data : null;
+        } catch (Exception e) {
+            if (Gdx.app != null) Gdx.app.error("PreGenerator", "Ignoring unreadable " + PROGRESS_FILE, e);
+            return null;
+        }
+    }
+
+    private static void log(String message) {
+        if (Gdx.app != null) Gdx.app.log("PreGenerator", message);
+    }
+
+    /**
+     * Offset from the centre of the p-th chunk in ring order, packed as (dx << 32) | dy. Ring k
+     * holds the 8k chunks at Chebyshev distance k and starts at position (2k - 1)^2.
+     */
+    static long position(long p) {
+        if (p == 0) return 0;
+        long k = (long) ((Math.sqrt((double) p) + 1) / 2);
+        while ((2 * k + 1) * (2 * k + 1) <= p) k++;
+        while ((2 * k - 1) * (2 * k - 1) > p) k--;
+        long o = p - (2 * k - 1) * (2 * k - 1);
+        long side = 2 * k;
+        long dx, dy;
+        if (o < side) {
+            dx = -k + o;
+            dy = -k;
+        } else if (o < 2 * side) {
+            dx = k;
+            dy = -k + (o - side);
+        } else if (o < 3 * side) {
+            dx = k - (o - 2 * side);
+            dy = k;
+        } else {
+            dx = -k;
+            dy = k - (o - 3 * side);
+        }
+        return (dx << 32) | (dy & 0xffffffffL);
+    }
+
+    /**
+     * Chunks to pre-generate: an inclusive rectangle, optionally narrowed to the disc of the given
+     * radius around its centre.
+     *
+     * @param radius disc radius in chunks, or -1 for the whole rectangle
+     */
+    public record Area(int centerX, int centerY, int radius, int minX, int minY, int maxX, int maxY) {
+
+        public static Area disc(int centerX, int centerY, int radius) {
+            if (radius < 0) throw new IllegalArgumentException("Radius must not be negative: " + radius);
+            return new Area(centerX, centerY, radius, centerX - radius, centerY - radius, centerX + radius, centerY + radius);
+        }
+
+        public static Area rect(int minX, int minY, int maxX, int maxY) {
+            if (minX > maxX || minY > maxY) throw new IllegalArgumentException("Empty rectangle");
+            return new Area(Math.floorDiv(minX + maxX, 2), Math.floorDiv(minY + maxY, 2), -1, minX, minY, maxX, maxY);
+        }
+
+        /**
+         * Parses {@code <radius>} (around chunk 0,0), {@code <cx>,<cy>,<radius>} or
+         * {@code <minX>,<minY>,<maxX>,<maxY>}, all in chunk coordinates.
+         */
+        public static Area parse(String spec) {
+            String[] parts = spec.split(",");
+            int[] v = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) v[i] = Integer.parseInt(parts[i].trim());
+            return switch (v.length) {
+                case 1 -> disc(0, 0, v[0]);
+                case 3 -> disc(v[0], v[1], v[2]);
+                case 4 -> rect(v[0], v[1], v[2], v[3]);
+                default -> throw new IllegalArgumentException("Expected <radius>, <cx>,<cy>,<radius> or <minX>,<minY>,<maxX>,<maxY>: " + spec);
+            };
+        }
+
+        public boolean contains(int cx, int cy) {
+            if (cx < minX || cx > maxX || cy < minY || cy > maxY) return false;
+            if (radius < 0) return true;
+            long dx = cx - centerX, dy = cy - centerY;
+            return dx * dx + dy * dy <= (long) radius * radius;
+        }
+
+        /**
+         * Rings around the centre needed to cover the area.
+         */
+        int rings() {
+            return Math.max(Math.max(centerX - minX, maxX - centerX), Math.max(centerY - minY, maxY - centerY));
+        }
+
+        /**
+         * Number of chunks in the area.
+         */
+        public long count() {
+            long w = (long) maxX - minX + 1;
+            if (radius < 0) return w * ((long) maxY - minY + 1);
+            long r2 = (long) radius * radius;
+            long n = 0;
+            for (long dx = -radius; dx <= radius; dx++) {
+                long h = (long) Math.sqrt((double) (r2 - dx * dx));
+                while (h * h + dx * dx > r2) h--;
+                while ((h + 1) * (h + 1) + dx * dx <= r2) h++;
+                n += 2 * h + 1;
+            }
+            return n;
+        }
+
+        JSONObject toJson() {
+            return new JSONObject()
+                .put("centerX", centerX).put("centerY", centerY).put("radius", radius)
+                .put("minX", minX).put("minY", minY).put("maxX", maxX).put("maxY", maxY);
+        }
+
+        static Area fromJson(JSONObject o) {
+            return new Area(o.getInt("centerX"), o.getInt("centerY"), o.getInt("radius"),
+                    o.getInt("minX"), o.getInt("minY"), o.getInt("maxX"), o.getInt("maxY"));
+        }
+
+        @Override
+        public String toString() {
+            return radius < 0
+                    ? "chunks " + minX + "," + minY + " to " + maxX + "," + maxY
+                    : "radius " + radius + " around chunk " + centerX + "," + centerY;
+        }
+    }
+
+    /**
+     * Outcome of a pre-generation run.
+     *
+     * @param total       chunks in the area
+     * @param resumed     chunks finished by earlier, interrupted runs
+     * @param generated   chunks generated and saved by this run
+     * @param skipped     chunks that were already saved
+     * @param failed      chunks whose generation threw
+     * @param seconds     wall time of this run
+     * @param complete    true if the whole area is done and no chunk failed
+     */
+    public record Result(long total, long resumed, long generated, long skipped, long failed, double seconds,
+                         boolean complete) {
+    }
+}
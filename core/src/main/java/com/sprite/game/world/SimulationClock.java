@@ -0,0 +1,117 @@
+package com.sprite.game.world;
+
+/**
+ * Fixed-timestep clock that decouples simulation ticks from rendered frames.
+ * <p>
+ * Each frame adds its real duration to an accumulator and {@link #advance(float)} returns how
+ * many whole ticks fit into it. At most {@code maxTicksPerFrame} ticks are run per frame; if a
+ * slow frame owes more, the surplus is dropped (the game slows down instead of spiralling into
+ * ever longer catch-up frames). The leftover fraction of a tick is exposed as {@link #alpha()}
+ * so renderers can interpolate between the previous and current tick.
+ * <p>
+ * Also keeps tick and frame timing statistics so tick cost can be measured apart from frame
+ * cost. Not thread-safe; owned by the world.
+ */
+public class SimulationClock {
+
+    private final float tickRate;
+    private final double tickSeconds;
+    private final int maxTicksPerFrame;
+    private double accumulator = 0;
+
+    private long ticks;
+    private long droppedTicks;
+    private long tickNanos;
+    private long maxTickNanos;
+    private long frames;
+    private long frameNanos;
+    private long maxFrameNanos;
+
+    /**
+     * @param tickRate         simulation ticks per second
+     * @param maxTicksPerFrame catch-up budget: ticks run at most per {@link #advance} call
+     */
+    public SimulationClock(float tickRate, int maxTicksPerFrame) {
+        if (tickRate <= 0) throw new IllegalArgumentException("Tick rate must be positive: " + tickRate);
+        this.tickRate = tickRate;
+        this.tickSeconds = 1.0 / tickRate;
+        this.maxTicksPerFrame = Math.max(1, maxTicksPerFrame);
+    }
+
+    /**
+     * Adds the frame's duration and returns the number of ticks to run for it.
+     */
+    public int advance(float frameSeconds) {
+        if (frameSeconds > 0) accumulator += frameSeconds;
+        int due = (int) (accumulator / tickSeconds);
+        accumulator -= due * tickSeconds;
+        if (due > maxTicksPerFrame) {
+            droppedTicks += due - maxTicksPerFrame;
+            due = maxTicksPerFrame;
+        }
+        return due;
+    }
+
+    /**
+     * Fraction of a tick accumulated since the last tick, in [0, 1).
+     */
+    public float alpha() {
+        return (float) (accumulator / tickSeconds);
+    }
+
+    /**
+     * Forgets accumulated time, e.g. after loading or pausing.
+     */
+    public void reset() {
+        accumulator = 0;
+    }
+
+    public void recordTick(long nanos) {
+        ticks++;
+        tickNanos += nanos;
+        if (nanos > maxTickNanos) maxTickNanos = nanos;
+    }
+
+    public void recordFrame(long nanos) {
+        frames++;
+        frameNanos += nanos;
+        if (nanos > maxFrameNanos) maxFrameNanos = nanos;
+    }
+
+    public float tickRate() {
+        return tickRate;
+    }
+
+    public int maxTicksPerFrame() {
+        return maxTicksPerFrame;
+    }
+
+    /**
+     * Returns timing statistics since creation or the last {@link #resetStats()}.
+     */
+    public Stats stats() {
+        return new Stats(ticks, droppedTicks,
+                ticks == 0 ? 0 : tickNanos / 1e6 / ticks, maxTickNanos / 1e6,
+                frames, frames == 0 ? 0 : frameNanos / 1e6 / frames, maxFrameNanos / 1e6);
+    }
+
+    public void resetStats() {
+        ticks = droppedTicks = tickNanos = maxTickNanos = 0;
+        frames = frameNanos = maxFrameNanos = 0;
+    }
+
+    /**
+     * Simulation timing counters.
+     *
+     * @param ticks        ticks run
+     * @param droppedTicks ticks skipped because a frame exceeded the catch-up budget
+     * @param avgTickMs    mean simulation cost per tick
+     * @param maxTickMs    slowest tick
+     * @param frames       frames recorded
+     * @param avgFrameMs   mean cost per frame, including its ticks
+     * @param maxFrameMs   slowest frame
+     */
+    public record Stats(long ticks, long droppedTicks, double avgTickMs, double maxTickMs,
+                        long frames, double avgFrameMs, double maxFrameMs) {
+    }
+}
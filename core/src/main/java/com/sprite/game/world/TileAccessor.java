@@ -0,0 +1,141 @@
+package com.sprite.game.world;
+
+import com.sprite.game.world.tiles.TileChunk;
+
+/**
+ * Cursor for hot tile queries that remembers the last chunk it resolved.
+ * <p>
+ * Neighbouring lookups (AABB scans, pathfinding probes) usually land in the same chunk, so
+ * {@link #id(int, int)} first checks the cached chunk bounds and only falls back to the
+ * world's chunk map (key packing, hashing, possible generation) when the tile lies elsewhere.
+ * <p>
+ * The cached chunk is only guaranteed to be the live one until the world next evicts chunks,
+ * so callers {@link #reset(World) reset} the accessor at the start of each step or search.
+ * When bound to a {@link TileView} the accessor only reads the captured chunks and may be used
+ * off the world's thread. Bound {@link #resetLoaded loaded-only}, it reads the world's loaded
+ * chunks without loading or generating others. Not thread-safe; keep one accessor per thread
+ * or per entity.
+ */
+public class TileAccessor {
+
+    private World world;
+    private TileView view; // if set, chunks come from here instead of the world's cache
+    private boolean loadedOnly; // if set, chunks that are not loaded read as air
+    private TileChunk empty;
+    private TileChunk chunk;
+    private int size;
+    private int minX, minY; // tile coordinates of the cached chunk's origin
+
+    public TileAccessor() {
+    }
+
+    public TileAccessor(World world) {
+        reset(world);
+    }
+
+    /**
+     * Binds the accessor to a world and forgets the cached chunk.
+     */
+    public TileAccessor reset(World world) {
+        return reset(world, null);
+    }
+
+    /**
+     * Binds the accessor to a world whose chunks are read from the given view, or from the
+     * world's cache if the view is null, and forgets the cached chunk.
+     */
+    public TileAccessor reset(World world, TileView view) {
+        this.world = world;
+        this.view = view;
+        this.loadedOnly = false;
+        this.chunk = null;
+        this.size = world.chunkSize();
+        return this;
+    }
+
+    /**
+     * Binds the accessor to the world's loaded chunks only: chunks that are not loaded read as
+     * air instead of being loaded or generated. Forgets the cached chunk.
+     */
+    public TileAccessor resetLoaded(World world) {
+        reset(world, null);
+        this.loadedOnly = true;
+        if (empty == null || empty.size() != size) empty = new TileChunk(0, 0, size);
+        return this;
+    }
+
+    /**
+     * Returns the tile id at tile coordinates, generating the chunk if necessary.
+     */
+    public int id(int tx, int ty) {
+        int lx = tx - minX;
+        int ly = ty - minY;
+        TileChunk c = chunk;
+        if (c == null || lx < 0 || ly < 0 || lx >= size || ly >= size) {
+            c = resolve(tx, ty);
+            lx = tx - minX;
+            ly = ty - minY;
+        }
+        return c.get(lx, ly);
+    }
+
+    /**
+     * True if the tile at tile coordinates is solid.
+     */
+    public boolean solid(int tx, int ty) {
+        return world.isSolid(id(tx, ty));
+    }
+
+    /**
+     * True if any tile in the inclusive tile rectangle is solid, answered from the per-chunk
+     * solidity bitsets of every covered chunk (generating chunks if necessary).
+     */
+    public boolean anySolid(int minTx, int minTy, int maxTx, int maxTy) {
+        if (minTx > maxTx || minTy > maxTy) return false;
+        int minCx = Math.floorDiv(minTx, size), maxCx = Math.floorDiv(maxTx, size);
+        int minCy = Math.floorDiv(minTy, size), maxCy = Math.floorDiv(maxTy, size);
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cy = minCy; cy <= maxCy; cy++) {
+                TileChunk c = chunk(cx, cy);
+                if (c.anySolid(minTx - minX, minTy - minY, maxTx - minX, maxTy - minY)) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * True if the world-space position is inside a solid tile.
+     */
+    public boolean solidAtWorld(float wx, float wy) {
+        int ts = world.tileSize();
+        return solid((int) Math.floor(wx / ts), (int) Math.floor(wy / ts));
+    }
+
+    public World world() {
+        return world;
+    }
+
+    private TileChunk resolve(int tx, int ty) {
+        return chunk(Math.floorDiv(tx, size), Math.floorDiv(ty, size));
+    }
+
+    /**
+     * Returns the chunk at chunk coordinates, caching it and its origin in minX/minY.
+     */
+    private TileChunk chunk(int cx, int cy) {
+        int ox = cx * size;
+        int oy = cy * size;
+        if (chunk != null && ox == minX && oy == minY) return chunk;
+        if (view != null) {
+            chunk = view.chunk(cx, cy);
+        } else if (loadedOnly) {
+            TileChunk loaded = world.peekLoaded(cx, cy);
+            chunk = loaded != null ? loaded : empty;
+        } else {
+            chunk = world.getOrCreate(cx, cy);
+        }
+        minX = ox;
+        minY = oy;
+        return chunk;
+    }
+}
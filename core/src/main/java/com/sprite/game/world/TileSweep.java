@@ -0,0 +1,166 @@
+package com.sprite.game.world;
+
+/**
+ * Swept AABB test against the solid tiles of a world.
+ * <p>
+ * {@link #sweep} walks the tile grid along the motion of a box (a DDA over the columns and rows
+ * its leading edges cross) and stops at the first column or row that contains a solid tile
+ * within the box's extent at that moment. One call yields the time of impact, the contact
+ * normal and the snapped contact position, however far the box moves, so fast bodies cannot
+ * tunnel through thin walls. Tiles the box already overlaps at the start are ignored, which
+ * lets a box that was pushed into the ground move out of it.
+ * <p>
+ * The instance holds the result of the last sweep and is meant to be reused; like
+ * {@link TileAccessor} it is not thread-safe.
+ */
+public class TileSweep {
+
+    // Boxes resting exactly on a tile edge do not overlap the tile beyond it
+    private static final float EPSILON = 0.001f;
+
+    /**
+     * Fraction of the motion completed before contact, in [0, 1]; 1 if nothing was hit.
+     */
+    public float time;
+    /**
+     * Contact normal pointing out of the hit tile (one of the axes, or 0, 0 without a hit).
+     */
+    public int normalX, normalY;
+    /**
+     * Box position at the time of impact, snapped to the tile edge along the normal; the
+     * end position if nothing was hit.
+     */
+    public float x, y;
+    // Hit column or row and the tiles it was tested against, for the lazy tile lookup
+    private TileAccessor tiles;
+    private int hitLine, hitMin, hitMax;
+    private boolean hitColumn;
+
+    /**
+     * Sweeps the box at (x, y) with size (width, height) by (dx, dy) world units.
+     *
+     * @return true if the box hit a solid tile before completing the motion
+     */
+    public boolean sweep(TileAccessor tiles, float x, float y, float width, float height, float dx, float dy) {
+        final int ts = tiles.world().tileSize();
+        time = 1f;
+        normalX = normalY = 0;
+        this.x = x + dx;
+        this.y = y + dy;
+        if (dx == 0f && dy == 0f) return false;
+
+        // Next column/row the leading edge enters and the time it gets there
+        int stepX = dx > 0 ? 1 : -1;
+        int stepY = dy > 0 ? 1 : -1;
+        int col = dx > 0 ? floor(x + width - EPSILON, ts) + 1 : floor(x + EPSILON, ts) - 1;
+        int row = dy > 0 ? floor(y + height - EPSILON, ts) + 1 : floor(y + EPSILON, ts) - 1;
+        float tx = dx == 0f ? Float.POSITIVE_INFINITY : Math.max(0f, (edge(col, stepX, ts) - (dx > 0 ? x + width : x)) / dx);
+        float ty = dy == 0f ? Float.POSITIVE_INFINITY : Math.max(0f, (edge(row, stepY, ts) - (dy > 0 ? y + height : y)) / dy);
+        float dtx = dx == 0f ? Float.POSITIVE_INFINITY : ts / Math.abs(dx);
+        float dty = dy == 0f ? Float.POSITIVE_INFINITY : ts / Math.abs(dy);
+
+        while (tx <= 1f || ty <= 1f) {
+            if (tx < ty) {
+                if (column(tiles, col, y + dy * tx, height, ts)) return hitX(tiles, col, stepX, x, y, width, height, dx, dy, tx, ts);
+                col += stepX;
+                tx += dtx;
+            } else if (ty < tx) {
+                if (row(tiles, row, x + dx * ty, width, ts)) return hitY(tiles, row, stepY, x, y, width, height, dx, dy, ty, ts);
+                row += stepY;
+                ty += dty;
+            } else {
+                // Exact corner crossing: the column and row, then the diagonal tile between them
+                float t = tx;
+                if (row(tiles, row, x + dx * t, width, ts)) return hitY(tiles, row, stepY, x, y, width, height, dx, dy, t, ts);
+                if (column(tiles, col, y + dy * t, height, ts)) return hitX(tiles, col, stepX, x, y, width, height, dx, dy, t, ts);
+                if (tiles.solid(col, row)) {
+                    hitY(tiles, row, stepY, x, y, width, height, dx, dy, t, ts);
+                    hitMin = hitMax = col;
+                    return true;
+                }
+                col += stepX;
+                row += stepY;
+                tx += dtx;
+                ty += dty;
+            }
+        }
+        return false;
+    }
+
+    private boolean hitX(TileAccessor tiles, int col, int step, float x, float y, float width, float height,
+                         float dx, float dy, float t, int ts) {
+        time = t;
+        normalX = -step;
+        this.x = step > 0 ? col * ts - width : (col + 1) * ts;
+        this.y = y + dy * t;
+        this.tiles = tiles;
+        hitColumn = true;
+        hitLine = col;
+        hitMin = floor(this.y + EPSILON, ts);
+        hitMax = floor(this.y + height - EPSILON, ts);
+        return true;
+    }
+
+    private boolean hitY(TileAccessor tiles, int row, int step, float x, float y, float width, float height,
+                         float dx, float dy, float t, int ts) {
+        time = t;
+        normalY = -step;
+        this.x = x + dx * t;
+        this.y = step > 0 ? row * ts - height : (row + 1) * ts;
+        this.tiles = tiles;
+        hitColumn = false;
+        hitLine = row;
+        hitMin = floor(this.x + EPSILON, ts);
+        hitMax = floor(this.x + width - EPSILON, ts);
+        return true;
+    }
+
+    /**
+     * Tile x of a solid tile that stopped the box; valid only after a hit.
+     */
+    public int tileX() {
+        return hitColumn ? hitLine : firstSolid();
+    }
+
+    /**
+     * Tile y of a solid tile that stopped the box; valid only after a hit.
+     */
+    public int tileY() {
+        return hitColumn ? firstSolid() : hitLine;
+    }
+
+    /**
+     * First solid tile along the hit column or row, looked up only when asked for.
+     */
+    private int firstSolid() {
+        for (int i = hitMin; i <= hitMax; i++) {
+            if (hitColumn ? tiles.solid(hitLine, i) : tiles.solid(i, hitLine)) return i;
+        }
+        return hitMin;
+    }
+
+    /**
+     * True if the column holds a solid tile within the vertical extent [y, y + height].
+     */
+    private static boolean column(TileAccessor tiles, int col, float y, float height, int ts) {
+        return tiles.anySolid(col, floor(y + EPSILON, ts), col, floor(y + height - EPSILON, ts));
+    }
+
+    /**
+     * True if the row holds a solid tile within the horizontal extent [x, x + width].
+     */
+    private static boolean row(TileAccessor tiles, int row, float x, float width, int ts) {
+        return tiles.anySolid(floor(x + EPSILON, ts), row, floor(x + width - EPSILON, ts), row);
+    }
+
+    /**
+     * World coordinate of the edge through which a box moving in {@code step} enters the tile.
+     */
+    private static float edge(int tile, int step, int ts) {
+        return step > 0 ? tile * ts : (tile + 1) * ts;
+    }
+
+    private static int floor(float v, int ts) {
+        return (int) Math.floor(v / ts);
+    }
+}
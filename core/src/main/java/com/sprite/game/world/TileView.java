@@ -0,0 +1,78 @@
+package com.sprite.game.world;
+
+import com.sprite.game.world.tiles.TileChunk;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read-only set of chunks captured on the world's thread for use by parallel workers.
+ * <p>
+ * The world's chunk cache reorders itself on every lookup and may generate or evict chunks, so
+ * it cannot be touched from worker threads. Before a parallel step the world {@link #capture
+ * captures} every chunk the step can reach into this plain map; workers then only read it.
+ * Chunks outside the captured area resolve to a shared all-air chunk, so a lookup never loads,
+ * generates or mutates anything. Refilled each step; not safe to capture while workers read.
+ * <p>
+ * Views may also be filled with {@link #put private copies} of chunks, which stay consistent
+ * while the world keeps changing; the path service hands such views to its workers.
+ */
+public class TileView {
+
+    private final Map<Long, TileChunk> chunks = new HashMap<>();
+    private final TileChunk empty;
+
+    public TileView(int chunkSize) {
+        this.empty = new TileChunk(0, 0, chunkSize);
+    }
+
+    /**
+     * Forgets all captured chunks.
+     */
+    public void clear() {
+        chunks.clear();
+    }
+
+    /**
+     * Captures the inclusive chunk rectangle from the world, generating chunks if necessary.
+     * Must be called on the thread that owns the world.
+     */
+    public void capture(World world, int minCx, int minCy, int maxCx, int maxCy) {
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cy = minCy; cy <= maxCy; cy++) {
+                long key = key(cx, cy);
+                if (!chunks.containsKey(key)) chunks.put(key, world.getOrCreate(cx, cy));
+            }
+        }
+    }
+
+    /**
+     * Adds a chunk under its own coordinates, replacing any captured one.
+     */
+    public void put(TileChunk chunk) {
+        chunks.put(key(chunk.chunkX(), chunk.chunkY()), chunk);
+    }
+
+    /**
+     * Returns the captured chunk, or null if it was not captured.
+     */
+    public TileChunk captured(int chunkX, int chunkY) {
+        return chunks.get(key(chunkX, chunkY));
+    }
+
+    /**
+     * Returns the captured chunk, or an empty (all-air) chunk if it was not captured.
+     */
+    public TileChunk chunk(int chunkX, int chunkY) {
+        TileChunk chunk = chunks.get(key(chunkX, chunkY));
+        return chunk != null ? chunk : empty;
+    }
+
+    public int size() {
+        return chunks.size();
+    }
+
+    private static long key(int x, int y) {
+        return (((long) x) << 32) ^ (y & 0xffffffffL);
+    }
+}
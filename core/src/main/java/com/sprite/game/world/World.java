@@ -4,10 +4,23 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.sprite.data.utils.Utils;
+import com.sprite.game.world.chunks.ChunkCache;
+import com.sprite.game.world.chunks.ChunkCodec;
+import com.sprite.game.world.chunks.ChunkPipeline;
+import com.sprite.game.world.chunks.ChunkSnapshot;
+import com.sprite.game.world.chunks.ChunkWriter;
+import com.sprite.game.world.chunks.RegionStorage;
+import com.sprite.game.world.entities.BodyStore;
 import com.sprite.game.world.entities.Entity;
+import com.sprite.game.world.entities.SpatialIndex;
 import com.sprite.game.world.gen.ChunkGenerator;
 import com.sprite.game.world.gen.ChunkGeneratorFactory;
 import com.sprite.game.world.gen.FlatBottomGenerator;
+import com.sprite.game.world.path.FlowFields;
+import com.sprite.game.world.path.NavGraph;
+import com.sprite.game.world.path.NavRules;
+import com.sprite.game.world.path.PathService;
+import com.sprite.game.world.tiles.ChunkMesh;
 import com.sprite.game.world.tiles.Tile;
 import com.sprite.game.world.tiles.TileChunk;
 import com.sprite.render.camera.GameCamera;
@@ -16,19 +29,35 @@ import com.sprite.resource.entities.EntityType;
 import com.sprite.resource.tiles.TileType;
 import org.json.JSONObject;
 
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class World {
 
 
+    // Simulated entities; add and remove them through add/spawn and remove
     public final List<Entity> entities = new ArrayList<>();
-
-    private final Map<Long, TileChunk> chunks = new HashMap<>();
+    // Broadphase over entity positions; kept in sync by add/remove/step
+    private final SpatialIndex entityIndex;
+    // Chunk-level navigation graphs, one per distinct entity movement rules
+    private final Map<NavRules, NavGraph> navigation = new HashMap<>();
+    // Background path searches for entities, dispatched under a per-tick budget
+    private final PathService paths;
+    // Shared pursuit fields, one per chased entity and movement rules
+    private final FlowFields flowFields = new FlowFields(this);
+    // Physics bodies of spawned entities, integrated in one pass per step
+    private final BodyStore bodies = new BodyStore(64);
+
+    private final ChunkCache chunks;
+    // Chunks within this many chunks of the camera view are never evicted from the cache
+    private final int keepAliveMargin;
+    // Chunks holding render data (mesh, resolved types); released once they leave the view margin
+    private final List<TileChunk> rendered = new ArrayList<>();
     private final ChunkGenerator generator;
     private final int tileSize; // world units per tile
+    private final int chunkSize; // tiles per chunk edge, fixed for the lifetime of a world
     private final long seed;
     private final String name;
     // Physics parameters
@@ -41,9 +70,22 @@ public class World {
     private final Map<Integer, TileType> tilePalette = new HashMap<>();
     // Persistence configuration
     private String saveDirectory = null; // if set, chunks will be saved/loaded to/from this directory (local storage)
+    private volatile RegionStorage regions = null; // region files under saveDirectory/regions
     // Loading state: becomes true once a 5x5 chunk radius around the camera is cached
     private boolean loaded = false;
-    private boolean step = false;
+    // Fixed-rate simulation clock; ticks are decoupled from rendered frames
+    private final SimulationClock clock;
+    // Background loading/generation; completed chunks are handed off at the start of each render
+    private final ChunkPipeline pipeline = new ChunkPipeline(this::produceChunk);
+    // Background persistence; evicted chunks are snapshotted and written off the render thread
+    private final ChunkWriter writer;
+    private long savesSubmitted = 0;
+    private long savesSkipped = 0;
+    // Parallel entity step: 0 keeps the single-threaded step, otherwise the fork/join pool size
+    private int simulationThreads;
+    private ForkJoinPool simulationPool = null;
+    // Chunks reachable by entities this step, captured for the parallel workers
+    private final TileView stepView;
 
     public World(Builder builder) {
         // Default to a pleasant rolling hills demo; caller can switch generators later
@@ -51,22 +93,39 @@ public class World {
         this.seed = builder.seed();
         this.name = builder.name();
         this.tileSize = builder.tileSize();
+        this.chunkSize = builder.chunkSize();
+        this.entityIndex = new SpatialIndex(tileSize * chunkSize);
         this.gravity = builder.gravity();
         this.linearDamping = builder.linearDamping();
         this.groundFriction = builder.groundFriction();
         this.restitution = builder.restitution();
         this.worldFloorY = builder.floor();
+        this.chunks = new ChunkCache(builder.chunkCacheBudget(), chunkSize);
+        this.keepAliveMargin = builder.keepAliveMargin();
+        this.simulationThreads = builder.simulationThreads();
+        this.clock = new SimulationClock(builder.tickRate(), builder.maxTicksPerFrame());
+        this.paths = new PathService(this, builder.pathThreads(), builder.pathBudget());
+        this.stepView = new TileView(chunkSize);
+        this.writer = new ChunkWriter(name, this::writeChunk);
         setSaveDirectory("saves/" + builder.name());
 
         JSONObject data = new JSONObject();
         data.put("seed", seed)
             .put("name", name)
             .put("tileSize", tileSize)
+            .put("chunkSize", chunkSize)
             .put("gravity", gravity)
             .put("linearDamping", linearDamping)
             .put("groundFriction", groundFriction)
             .put("restitution", restitution)
             .put("worldFloorY", worldFloorY)
+            .put("chunkCacheBytes", chunks.budget())
+            .put("keepAliveChunks", keepAliveMargin)
+            .put("simulationThreads", simulationThreads)
+            .put("tickRate", clock.tickRate())
+            .put("maxTicksPerFrame", clock.maxTicksPerFrame())
+            .put("pathThreads", paths.threads())
+            .put("pathBudget", paths.budget())
             .put("generator", generator.data());
 
         FileHandle options = Gdx.files.local(saveDirectory + "/options.json");
@@ -78,12 +137,24 @@ public class World {
         this.seed = data.getLong("seed");
         this.name = data.getString("name");
         this.tileSize = data.getInt("tileSize");
+        // Worlds saved before chunk size was configurable used 8x8 chunks
+        this.chunkSize = data.optInt("chunkSize", TileChunk.DEFAULT_SIZE);
+        this.entityIndex = new SpatialIndex(tileSize * chunkSize);
         this.gravity = data.getFloat("gravity");
         this.linearDamping = data.getFloat("linearDamping");
         this.groundFriction = data.getFloat("groundFriction");
         this.restitution = data.getFloat("restitution");
         this.worldFloorY = data.getInt("worldFloorY");
         this.generator = ChunkGeneratorFactory.create(data.getJSONObject("generator"));
+        this.chunks = new ChunkCache(data.optLong("chunkCacheBytes", Builder.DEFAULT_CHUNK_CACHE_BYTES), chunkSize);
+        this.keepAliveMargin = data.optInt("keepAliveChunks", Builder.DEFAULT_KEEP_ALIVE_CHUNKS);
+        this.simulationThreads = Math.max(0, data.optInt("simulationThreads", 0));
+        this.clock = new SimulationClock(data.optFloat("tickRate", Builder.DEFAULT_TICK_RATE),
+                data.optInt("maxTicksPerFrame", Builder.DEFAULT_MAX_TICKS_PER_FRAME));
+        this.paths = new PathService(this, data.optInt("pathThreads", Builder.DEFAULT_PATH_THREADS),
+                data.optInt("pathBudget", Builder.DEFAULT_PATH_BUDGET));
+        this.stepView = new TileView(chunkSize);
+        this.writer = new ChunkWriter(name, this::writeChunk);
         setSaveDirectory("saves/" + name);
     }
 
@@ -108,11 +179,62 @@ public class World {
     }
 
     public Entity spawn(EntityType type, int x, int y) {
-        Entity entity = new Entity(type, x, y);
+        return add(new Entity(type, x, y));
+    }
+
+    /**
+     * Adds an entity to the world: registers it for simulation, moves its body into the world's
+     * body store and indexes its position. Entities must be added through here or
+     * {@link #spawn} rather than to {@link #entities} directly.
+     *
+     * @return the entity
+     */
+    public Entity add(Entity entity) {
         entities.add(entity);
+        entityIndex.add(entity);
+        bodies.attach(entity);
         return entity;
     }
 
+    /**
+     * Removes an entity from the world.
+     *
+     * @return true if the entity was part of this world
+     */
+    public boolean remove(Entity entity) {
+        entityIndex.remove(entity);
+        bodies.detach(entity);
+        return entities.remove(entity);
+    }
+
+    /**
+     * Spatial index over entity positions for range, nearest and overlap queries.
+     */
+    public SpatialIndex entityIndex() {
+        return entityIndex;
+    }
+
+    /**
+     * Navigation graph shared by all entities moving by the given rules, created on first use.
+     */
+    public NavGraph navigation(NavRules rules) {
+        return navigation.computeIfAbsent(rules, r -> new NavGraph(this, r));
+    }
+
+    /**
+     * Asynchronous path searches; results are delivered at the start of a later tick.
+     */
+    public PathService paths() {
+        return paths;
+    }
+
+    /**
+     * Pursuit fields towards chased entities, shared by all their chasers.
+     */
+    public FlowFields flowFields() {
+        return flowFields;
+    }
+
     /**
      * Returns true once a 5x5 chunk radius has been loaded into cache at least once.
      */
@@ -149,50 +271,194 @@ public class World {
 
     private void step(float dt) {
         if (dt <= 0) return;
+        bodies.integrate(gravity, linearDamping);
+        if (simulationThreads > 0 && entities.size() >= PARALLEL_STEP_MIN) {
+            stepParallel();
+            return;
+        }
+        for (Entity e : entities) {
+            e.collide(this, null);
+            e.commit();
+            entityIndex.update(e);
+        }
+    }
+
+    // Below this many entities the fork/join overhead outweighs the gain
+    private static final int PARALLEL_STEP_MIN = 64;
+
+    /**
+     * Resolves the integrated bodies' tile collisions on the fork/join pool against a captured
+     * {@link TileView}, then commits their positions on this thread. Entities only touch their
+     * own body slot and read the view while colliding, so the result is identical to the
+     * sequential step for any thread count.
+     */
+    private void stepParallel() {
+        captureStepView();
+        simulationPool().invoke(new StepTask(entities, 0, entities.size(), this, stepView));
         for (Entity e : entities) {
-            e.update(this, dt);
+            e.commit();
+            entityIndex.update(e);
+        }
+        stepView.clear();
+    }
 
+    /**
+     * Captures every chunk an entity could touch this step: its box grown by its step reach
+     * and one tile for the collision probes. Called after integration, when the reach is a
+     * slight overestimate.
+     */
+    private void captureStepView() {
+        stepView.clear();
+        int ts = tileSize;
+        for (Entity e : entities) {
+            float reach = e.stepReach(this) + ts;
+            float x = e.position().x, y = e.position().y;
+            int minCx = Math.floorDiv((int) Math.floor((x - reach) / ts), chunkSize);
+            int maxCx = Math.floorDiv((int) Math.floor((x + e.width() + reach) / ts), chunkSize);
+            int minCy = Math.floorDiv((int) Math.floor((y - reach) / ts), chunkSize);
+            int maxCy = Math.floorDiv((int) Math.floor((y + e.height() + reach) / ts), chunkSize);
+            stepView.capture(this, minCx, minCy, maxCx, maxCy);
         }
     }
 
-    public void render(GameScreen screen) {
-        // Use a fixed per-frame step to remove dependency on real-time delta
-        if (step) {
-            step(1f);
+    private ForkJoinPool simulationPool() {
+        if (simulationPool == null) simulationPool = new ForkJoinPool(simulationThreads);
+        return simulationPool;
+    }
+
+    /**
+     * Number of worker threads used to simulate entities; 0 means single-threaded.
+     */
+    public int simulationThreads() {
+        return simulationThreads;
+    }
+
+    public void simulationThreads(int threads) {
+        threads = Math.max(0, threads);
+        if (threads == simulationThreads) return;
+        simulationThreads = threads;
+        if (simulationPool != null) {
+            simulationPool.shutdown();
+            simulationPool = null;
+        }
+    }
+
+    /**
+     * Splits a range of entities until it is small enough to simulate directly.
+     */
+    private static class StepTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private static final int GRAIN = 32;
+
+        private final List<Entity> entities;
+        private final int from, to;
+        private final World world;
+        private final TileView view;
+
+        StepTask(List<Entity> entities, int from, int to, World world, TileView view) {
+            this.entities = entities;
+            this.from = from;
+            this.to = to;
+            this.world = world;
+            this.view = view;
         }
-        if (loaded) {
-            step = true;
-            // Step physics before rendering this frame
 
-        } else step(0);
-//
-//        step(1);
+        @Override
+        protected void compute() {
+            if (to - from <= GRAIN) {
+                for (int i = from; i < to; i++) entities.get(i).collide(world, view);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new StepTask(entities, from, mid, world, view),
+                    new StepTask(entities, mid, to, world, view));
+        }
+    }
+
+    /**
+     * Advances the simulation by one fixed tick and records its cost.
+     */
+    public void tick() {
+        long start = System.nanoTime();
+        paths.tick();
+        flowFields.tick();
+        // Physics constants are tuned per tick, so each tick is one unit step
+        step(1f);
+        clock.recordTick(System.nanoTime() - start);
+    }
+
+    /**
+     * The fixed-timestep clock driving {@link #tick()}, with tick and frame timing statistics.
+     */
+    public SimulationClock clock() {
+        return clock;
+    }
+
+    /**
+     * Simulation half of a frame, usable without a graphics context: moves finished background
+     * chunks into the cache and runs the ticks the clock owes for {@code delta} seconds.
+     *
+     * @return number of ticks run
+     */
+    public int update(float delta) {
+        acceptCompletedChunks();
+        int ticks = clock.advance(delta);
+        for (int i = 0; i < ticks; i++) tick();
+        return ticks;
+    }
+
+    public void render(GameScreen screen) {
+        render(screen, Gdx.graphics.getDeltaTime());
+    }
+
+    /**
+     * Runs the simulation ticks owed for this frame, then draws terrain and entities with
+     * entity positions interpolated between the last two ticks.
+     *
+     * @param delta real time since the previous frame in seconds
+     */
+    public void render(GameScreen screen, float delta) {
+        long frameStart = System.nanoTime();
+        // Simulate only once the area around the camera is present
+        if (loaded) update(delta);
+        else acceptCompletedChunks();
         // Ensure a 5x5 chunk area (radius 2) around the camera center is present in cache,
         // and flip the loaded flag once this condition is met at least once.
         int ts = tileSize();
         int tx = (int) Math.floor(screen.camera().position.x / ts);
         int ty = (int) Math.floor(screen.camera().position.y / ts);
-        int cx = Math.floorDiv(tx, TileChunk.SIZE);
-        int cy = Math.floorDiv(ty, TileChunk.SIZE);
+        int cx = Math.floorDiv(tx, chunkSize);
+        int cy = Math.floorDiv(ty, chunkSize);
         int radius = 2; // 5x5
-        // Preload ensures presence before render potentially evicts off-screen chunks
+        // Queue the loading square; chunks arrive over the next frames without blocking this one
         preloadSquare(cx, cy, radius);
         if (!loaded && hasSquareLoaded(cx, cy, radius)) {
             loaded = true;
+            clock.reset();
         }
 
         // Draw generated tile chunks first (background terrain)
         render(screen.camera(), screen.sprite());
 
+        float alpha = clock.alpha();
         for (Entity entity : entities) {
-            entity.render(screen);
+            entity.render(screen, alpha);
         }
+        clock.recordFrame(System.nanoTime() - frameStart);
     }
 
     public int tileSize() {
         return tileSize;
     }
 
+    /**
+     * Edge length of this world's chunks in tiles.
+     */
+    public int chunkSize() {
+        return chunkSize;
+    }
+
     public FileHandle getSaveDirectory() {
         return Gdx.files.local(saveDirectory);
     }
@@ -203,6 +469,9 @@ public class World {
      * no longer needed in memory. Uses Gdx.files.local(saveDirectory).
      */
     public void setSaveDirectory(String saveDirectory) {
+        // Pending saves belong to the previous directory
+        writer.flush();
+        closeRegions();
         this.saveDirectory = saveDirectory;
         // Ensure directory exists
         if (saveDirectory != null) {
@@ -211,38 +480,175 @@ public class World {
                 if (!dir.exists()) dir.mkdirs();
             } catch (Throwable ignored) {
             }
+            RegionStorage storage = new RegionStorage(Gdx.files.local(saveDirectory + "/regions").file().toPath());
+            migrateLegacyChunks(storage);
+            this.regions = storage;
+        }
+    }
+
+    /**
+     * Moves chunks saved by older versions as one file per chunk into region files.
+     */
+    private void migrateLegacyChunks(RegionStorage storage) {
+        FileHandle legacy = Gdx.files.local(saveDirectory + "/chunks");
+        if (!legacy.isDirectory()) return;
+        try {
+            int migrated = storage.migrateLegacy(legacy.file(), chunkSize);
+            Gdx.app.log("World", "Migrated " + migrated + " legacy chunk files into regions");
+        } catch (IOException e) {
+            Gdx.app.error("World", "Failed to migrate legacy chunk files", e);
         }
     }
 
+    private void closeRegions() {
+        if (regions == null) return;
+        try {
+            regions.close();
+        } catch (IOException ignored) {
+        }
+        regions = null;
+    }
+
+    /**
+     * Returns the chunk at the given chunk coordinates, loading or generating it synchronously
+     * if it is not cached. Prefer {@link #getIfLoaded(int, int)} plus {@link #requestChunk} on
+     * the render path so missing chunks are produced in the background instead.
+     */
     public TileChunk getOrCreate(int chunkX, int chunkY) {
         long key = packKey(chunkX, chunkY);
         TileChunk chunk = chunks.get(key);
         if (chunk == null) {
-            // Try to load from disk first if persistence is enabled
-            if (saveDirectory != null) {
-                TileChunk loaded = loadChunk(chunkX, chunkY);
-                if (loaded != null) {
-                    chunks.put(key, loaded);
-                    return loaded;
-                }
-            }
-            // Otherwise generate new
-            chunk = new TileChunk(chunkX, chunkY);
-            if (generator != null) generator.generate(chunkX, chunkY, chunk);
+            // Produced here instead; any in-flight background result would be stale
+            pipeline.cancel(key);
+            chunk = produceChunk(chunkX, chunkY);
             chunks.put(key, chunk);
         }
         return chunk;
     }
 
+    /**
+     * Returns the cached chunk at the given chunk coordinates, or null if it is not loaded
+     * (including chunks that are still pending in the background pipeline).
+     */
+    public TileChunk getIfLoaded(int chunkX, int chunkY) {
+        return chunks.get(packKey(chunkX, chunkY));
+    }
+
+    /**
+     * Like {@link #getIfLoaded(int, int)}, but leaves the cache's recency order and hit/miss
+     * counters alone. Use it for background reads, such as path snapshots, that should neither
+     * keep distant chunks cached nor count as player demand.
+     */
+    public TileChunk peekLoaded(int chunkX, int chunkY) {
+        return chunks.peek(packKey(chunkX, chunkY));
+    }
+
+    /**
+     * Queues a missing chunk for background loading/generation. Lower priority values are
+     * served first. Does nothing if the chunk is already cached or pending.
+     */
+    public void requestChunk(int chunkX, int chunkY, int priority) {
+        long key = packKey(chunkX, chunkY);
+        if (chunks.contains(key)) return;
+        pipeline.request(chunkX, chunkY, key, priority);
+    }
+
+    /**
+     * True if the chunk has been requested from the background pipeline and is not yet cached.
+     */
+    public boolean isPending(int chunkX, int chunkY) {
+        return pipeline.isPending(packKey(chunkX, chunkY));
+    }
+
+    /**
+     * Loads the chunk from disk if persisted, otherwise generates it. Safe to call from
+     * pipeline worker threads: it only reads the save directory and the generator.
+     */
+    private TileChunk produceChunk(int chunkX, int chunkY) {
+        // Try to load from disk first if persistence is enabled
+        if (saveDirectory != null) {
+            TileChunk loaded = loadChunk(chunkX, chunkY);
+            if (loaded != null) {
+                loaded.markClean();
+                return loaded;
+            }
+        }
+        // Otherwise generate new; generated content can be regenerated, so it starts clean
+        TileChunk chunk = new TileChunk(chunkX, chunkY, chunkSize);
+        if (generator != null) generator.generate(chunkX, chunkY, chunk);
+        chunk.markClean();
+        return chunk;
+    }
+
+    /**
+     * Generates the chunk and queues it for writing unless it is already saved, so later visits
+     * load it instead of generating it. Safe to call from several threads at once, but meant for
+     * a world that is not being played; see {@link PreGenerator}.
+     *
+     * @return true if the chunk was generated, false if it was already saved or persistence is off
+     */
+    public boolean pregenerate(int chunkX, int chunkY) {
+        RegionStorage storage = regions;
+        if (storage == null || generator == null) return false;
+        long key = packKey(chunkX, chunkY);
+        try {
+            if (writer.pending(key) != null || storage.contains(chunkX, chunkY)) return false;
+        } catch (IOException e) {
+            return false;
+        }
+        TileChunk chunk = new TileChunk(chunkX, chunkY, chunkSize);
+        generator.generate(chunkX, chunkY, chunk);
+        // Generated chunks start clean and would never be saved, so bypass saveChunk
+        writer.submit(key, ChunkSnapshot.of(chunk));
+        return true;
+    }
+
+    /**
+     * Blocks until every chunk save submitted so far has reached disk.
+     */
+    public void flushSaves() {
+        writer.flush();
+    }
+
+    /**
+     * Moves chunks finished by the background pipeline into the cache. Must be called on the
+     * thread that owns this world.
+     */
+    private void acceptCompletedChunks() {
+        pipeline.drain(chunk -> chunks.putIfAbsent(packKey(chunk.chunkX(), chunk.chunkY()), chunk));
+    }
+
+    /**
+     * Saves every loaded chunk, waits for pending writes to reach disk and stops background
+     * chunk workers. Call when the world is no longer used.
+     */
+    public void dispose() {
+        pipeline.shutdown();
+        paths.shutdown();
+        simulationThreads(0);
+        for (TileChunk chunk : chunks.values()) saveChunk(chunk);
+        writer.shutdown();
+        closeRegions();
+    }
+
+    /**
+     * Tile y of the generated surface in the column, answered by the generator without loading
+     * or generating chunks; {@link Integer#MIN_VALUE} if the generator cannot tell. Useful for
+     * spawning and AI, but blind to edits made since generation.
+     */
+    public int surfaceHeight(int tileX) {
+        return generator == null ? Integer.MIN_VALUE : generator.surfaceHeight(tileX);
+    }
+
     /**
      * Returns the tile id at tile coordinates (tx, ty), generating the chunk if necessary.
      */
     public int getTileId(int tx, int ty) {
-        int cx = floorDiv(tx, TileChunk.SIZE);
-        int cy = floorDiv(ty, TileChunk.SIZE);
+        int cx = floorDiv(tx, chunkSize);
+        int cy = floorDiv(ty, chunkSize);
         TileChunk chunk = getOrCreate(cx, cy);
-        int lx = mod(tx, TileChunk.SIZE);
-        int ly = mod(ty, TileChunk.SIZE);
+        int lx = mod(tx, chunkSize);
+        int ly = mod(ty, chunkSize);
         return chunk.get(lx, ly);
     }
 
@@ -250,11 +656,11 @@ public class World {
      * Returns the Tile instance at tile coordinates (tx, ty), generating the chunk if necessary.
      */
     public Tile getTile(int tx, int ty) {
-        int cx = floorDiv(tx, TileChunk.SIZE);
-        int cy = floorDiv(ty, TileChunk.SIZE);
+        int cx = floorDiv(tx, chunkSize);
+        int cy = floorDiv(ty, chunkSize);
         TileChunk chunk = getOrCreate(cx, cy);
-        int lx = mod(tx, TileChunk.SIZE);
-        int ly = mod(ty, TileChunk.SIZE);
+        int lx = mod(tx, chunkSize);
+        int ly = mod(ty, chunkSize);
         return chunk.getTile(lx, ly);
     }
 
@@ -285,6 +691,14 @@ public class World {
         return id != 0; // by convention, 0 is air
     }
 
+    /**
+     * True if any tile in the inclusive tile rectangle is solid, using per-chunk solidity
+     * bitsets. Generates covered chunks if necessary.
+     */
+    public boolean anySolid(int minTx, int minTy, int maxTx, int maxTy) {
+        return new TileAccessor(this).anySolid(minTx, minTy, maxTx, maxTy);
+    }
+
     /**
      * True if the world-space position is inside a solid tile.
      */
@@ -304,43 +718,92 @@ public class World {
         float top = camera.position.y + camera.viewportHeight / 2f;
 
         int ts = tileSize;
-        int minTileX = (int) Math.floor(left / ts) - TileChunk.SIZE;
-        int maxTileX = (int) Math.ceil(right / ts) + TileChunk.SIZE;
-        int minTileY = (int) Math.floor(bottom / ts) - TileChunk.SIZE;
-        int maxTileY = (int) Math.ceil(top / ts) + TileChunk.SIZE;
-
-        int minChunkX = floorDiv(minTileX, TileChunk.SIZE);
-        int maxChunkX = floorDiv(maxTileX, TileChunk.SIZE);
-        int minChunkY = floorDiv(minTileY, TileChunk.SIZE);
-        int maxChunkY = floorDiv(maxTileY, TileChunk.SIZE);
-
-        // Track which chunks should be retained in memory after this render call
-        Set<Long> retain = new HashSet<>();
+        int minTileX = (int) Math.floor(left / ts) - chunkSize;
+        int maxTileX = (int) Math.ceil(right / ts) + chunkSize;
+        int minTileY = (int) Math.floor(bottom / ts) - chunkSize;
+        int maxTileY = (int) Math.ceil(top / ts) + chunkSize;
+
+        int minChunkX = floorDiv(minTileX, chunkSize);
+        int maxChunkX = floorDiv(maxTileX, chunkSize);
+        int minChunkY = floorDiv(minTileY, chunkSize);
+        int maxChunkY = floorDiv(maxTileY, chunkSize);
+
+        int centerChunkX = floorDiv((int) Math.floor(camera.position.x / ts), chunkSize);
+        int centerChunkY = floorDiv((int) Math.floor(camera.position.y / ts), chunkSize);
+
         for (int cx = minChunkX; cx <= maxChunkX; cx++) {
             for (int cy = minChunkY; cy <= maxChunkY; cy++) {
-                TileChunk chunk = getOrCreate(cx, cy);
+                long key = packKey(cx, cy);
+                // Lookup also marks the chunk as recently used
+                TileChunk chunk = chunks.get(key);
+                if (chunk == null) {
+                    // Not ready yet: queue it (nearest first) and skip drawing this frame
+                    int dx = cx - centerChunkX;
+                    int dy = cy - centerChunkY;
+                    pipeline.request(cx, cy, key, dx * dx + dy * dy);
+                    continue;
+                }
                 drawChunk(chunk, batch, ts);
-                retain.add(packKey(cx, cy));
             }
         }
 
-        // Persist and evict chunks that are not in the visible set
-        if (saveDirectory != null && !chunks.isEmpty()) {
-            // Copy keys to avoid concurrent modification
-            Set<Long> keys = new HashSet<>(chunks.keySet());
-            for (Long key : keys) {
-                if (!retain.contains(key)) {
-                    persistAndRemove(key);
-                }
-            }
-        }
+        releaseRenderData(minChunkX, minChunkY, maxChunkX, maxChunkY);
+        trimChunks(minChunkX, minChunkY, maxChunkX, maxChunkY);
+    }
+
+    /**
+     * Drops the meshes and resolved types of chunks outside the given inclusive chunk rectangle
+     * grown by the keep-alive margin. Render data is many times larger than the tile ids, so it
+     * is kept for the chunks around the view only and the cache budget charges the ids alone.
+     */
+    private void releaseRenderData(int minChunkX, int minChunkY, int maxChunkX, int maxChunkY) {
+        int keepMinX = minChunkX - keepAliveMargin, keepMaxX = maxChunkX + keepAliveMargin;
+        int keepMinY = minChunkY - keepAliveMargin, keepMaxY = maxChunkY + keepAliveMargin;
+        rendered.removeIf(chunk -> {
+            int cx = chunk.chunkX(), cy = chunk.chunkY();
+            if (cx >= keepMinX && cx <= keepMaxX && cy >= keepMinY && cy <= keepMaxY) return false;
+            chunk.releaseRenderData();
+            return true;
+        });
     }
 
     /**
-     * Preloads (generates or loads from disk) all chunks within a square radius around the
-     * provided center chunk coordinates. This only ensures they are present in the in-memory
-     * cache at the time of the call; subsequent renders with persistence enabled may evict
-     * non-visible chunks again. Intended for bootstrapping/loading checks.
+     * Once the chunk cache is over budget, persists and evicts least-recently-used chunks
+     * outside the given inclusive chunk rectangle grown by the keep-alive margin. Does nothing
+     * without a save directory, since evicted chunks could not be restored.
+     *
+     * @return number of chunks evicted
+     */
+    public int trimChunks(int minChunkX, int minChunkY, int maxChunkX, int maxChunkY) {
+        if (saveDirectory == null) return 0;
+        int keepMinX = minChunkX - keepAliveMargin, keepMaxX = maxChunkX + keepAliveMargin;
+        int keepMinY = minChunkY - keepAliveMargin, keepMaxY = maxChunkY + keepAliveMargin;
+        return chunks.trim(key -> {
+            int cx = (int) (key >> 32);
+            int cy = (int) key;
+            return cx >= keepMinX && cx <= keepMaxX && cy >= keepMinY && cy <= keepMaxY;
+        }, this::saveChunk);
+    }
+
+    /**
+     * Number of chunks queued or in progress in the background pipeline.
+     */
+    public int pendingChunks() {
+        return pipeline.pendingCount();
+    }
+
+    /**
+     * The in-memory chunk cache, exposing hit/miss/load/eviction counters.
+     */
+    public ChunkCache chunkCache() {
+        return chunks;
+    }
+
+    /**
+     * Queues background loading/generation of all chunks within a square radius around the
+     * provided center chunk coordinates, nearest first. Does not block; use
+     * {@link #hasSquareLoaded(int, int, int)} to find out when the square is present. With
+     * persistence enabled, subsequent renders may evict non-visible chunks again.
      *
      * @param centerCx center chunk x
      * @param centerCy center chunk y
@@ -350,7 +813,9 @@ public class World {
         if (radius < 0) return;
         for (int cx = centerCx - radius; cx <= centerCx + radius; cx++) {
             for (int cy = centerCy - radius; cy <= centerCy + radius; cy++) {
-                getOrCreate(cx, cy);
+                int dx = cx - centerCx;
+                int dy = cy - centerCy;
+                requestChunk(cx, cy, dx * dx + dy * dy);
             }
         }
     }
@@ -364,31 +829,24 @@ public class World {
         for (int cx = centerCx - radius; cx <= centerCx + radius; cx++) {
             for (int cy = centerCy - radius; cy <= centerCy + radius; cy++) {
                 long key = packKey(cx, cy);
-                if (!chunks.containsKey(key)) return false;
+                if (!chunks.contains(key)) return false;
             }
         }
         return true;
     }
 
+    /**
+     * Draws the chunk from its baked mesh, re-baking only when its tiles changed.
+     */
     private void drawChunk(TileChunk chunk, SpriteBatch batch, int ts) {
-        int baseX = chunk.chunkX() * TileChunk.SIZE * ts;
-        int baseY = chunk.chunkY() * TileChunk.SIZE * ts;
-        for (int x = 0; x < TileChunk.SIZE; x++) {
-            for (int y = 0; y < TileChunk.SIZE; y++) {
-                Tile tile = chunk.getTile(x, y);
-                int id = tile.id();
-                if (id == 0) continue; // air
-                // Resolve and cache the TileType if missing
-                TileType type = tile.type();
-                if (type == null) {
-                    type = tilePalette.get(id);
-                    if (type != null) tile.type(type);
-                }
-                if (type != null && type.texture() != null) {
-                    batch.draw(type.texture().sprite(), baseX + x * ts, baseY + y * ts, ts, ts);
-                }
-            }
+        float color = batch.getPackedColor();
+        ChunkMesh mesh = chunk.mesh();
+        if (mesh == null || !mesh.isCurrent(chunk, color)) {
+            if (mesh == null) rendered.add(chunk);
+            mesh = ChunkMesh.bake(chunk, ts, color, tilePalette::get);
+            chunk.mesh(mesh);
         }
+        mesh.draw(batch);
     }
 
     private void ensurePalette() {
@@ -433,91 +891,91 @@ public class World {
 
     // -------------------- Persistence helpers --------------------
 
-    private void persistAndRemove(Long key) {
-        TileChunk chunk = chunks.get(key);
-        if (chunk == null) return;
-        try {
-            saveChunk(chunk);
-        } catch (Throwable ignored) {
+    /**
+     * Hands an immutable copy of the chunk to the background writer if it changed since it was
+     * loaded, generated or last saved. Repeated saves of the same chunk before it reaches disk
+     * are coalesced into one write.
+     */
+    private void saveChunk(TileChunk chunk) {
+        if (saveDirectory == null) return;
+        if (!chunk.isDirty()) {
+            savesSkipped++;
+            return;
         }
-        chunks.remove(key);
+        writer.submit(packKey(chunk.chunkX(), chunk.chunkY()), ChunkSnapshot.of(chunk));
+        chunk.markClean();
+        savesSubmitted++;
     }
 
-    private FileHandle chunkFile(int cx, int cy) {
-        String name = cx + "_" + cy + ".bin";
-        return Gdx.files.local(saveDirectory + "/chunks/" + name);
+    /**
+     * Returns chunk persistence counters for this world.
+     */
+    public SaveStats saveStats() {
+        return new SaveStats(savesSubmitted, savesSkipped, writer.coalesced(), writer.written(), writer.failed());
     }
 
-    private void saveChunk(TileChunk chunk) {
-        if (saveDirectory == null) return;
-        FileHandle fh = chunkFile(chunk.chunkX(), chunk.chunkY());
-        DataOutputStream out = null;
-        try {
-            out = new DataOutputStream(fh.write(false));
-            // Simple header
-            out.writeInt(0x54434831); // 'TCH1'
-            out.writeInt(1); // version
-            out.writeInt(chunk.chunkX());
-            out.writeInt(chunk.chunkY());
-            // Tiles, x-major then y
-            for (int x = 0; x < TileChunk.SIZE; x++) {
-                for (int y = 0; y < TileChunk.SIZE; y++) {
-                    out.writeInt(chunk.get(x, y));
-                }
-            }
-        } catch (IOException ignored) {
-        } finally {
-            if (out != null) try {
-                out.close();
-            } catch (IOException ignored) {
-            }
-        }
+    /**
+     * Chunk persistence counters.
+     *
+     * @param submitted modified chunks handed to the writer
+     * @param skipped   save requests dropped because the chunk was unchanged
+     * @param coalesced submitted snapshots that replaced a queued one for the same chunk
+     * @param written   snapshots written to disk
+     * @param failed    snapshots that could not be written
+     */
+    public record SaveStats(long submitted, long skipped, long coalesced, long written, long failed) {
+    }
+
+    /**
+     * Writes a snapshot into its region file. Runs on the writer thread.
+     */
+    private void writeChunk(ChunkSnapshot snapshot) throws IOException {
+        RegionStorage storage = regions;
+        if (storage == null) return;
+        storage.write(snapshot.chunkX(), snapshot.chunkY(), ChunkCodec.encode(snapshot));
     }
 
     private TileChunk loadChunk(int cx, int cy) {
-        if (saveDirectory == null) return null;
-        FileHandle fh = chunkFile(cx, cy);
-        if (!fh.exists()) return null;
-        DataInputStream in = null;
+        RegionStorage storage = regions;
+        if (storage == null) return null;
+        // A save that has not reached disk yet is newer than the file
+        ChunkSnapshot unsaved = writer.pending(packKey(cx, cy));
+        if (unsaved != null) return unsaved.toChunk();
         try {
-            in = new DataInputStream(fh.read());
-            int magic = in.readInt();
-            int version = in.readInt();
-            int fileCx = in.readInt();
-            int fileCy = in.readInt();
-            if (magic != 0x54434831 || version != 1 || fileCx != cx || fileCy != cy) {
-                return null; // invalid
-            }
-            TileChunk chunk = new TileChunk(cx, cy);
-            for (int x = 0; x < TileChunk.SIZE; x++) {
-                for (int y = 0; y < TileChunk.SIZE; y++) {
-                    int id = in.readInt();
-                    chunk.set(x, y, id);
-                }
-            }
-            return chunk;
+            byte[] data = storage.read(cx, cy);
+            return data == null ? null : ChunkCodec.decode(data, cx, cy, chunkSize);
         } catch (IOException ignored) {
             return null;
-        } finally {
-            if (in != null) try {
-                in.close();
-            } catch (IOException ignored) {
-            }
         }
     }
 
     public static class Builder {
 
+        static final long DEFAULT_CHUNK_CACHE_BYTES = 1024L * 1024L; // ~2000 chunks of 8x8
+        static final int DEFAULT_KEEP_ALIVE_CHUNKS = 2;
+        static final float DEFAULT_TICK_RATE = 60f;
+        static final int DEFAULT_MAX_TICKS_PER_FRAME = 5;
+        static final int DEFAULT_PATH_THREADS = 1;
+        static final int DEFAULT_PATH_BUDGET = 16;
+
         String name;
         private long seed;
         private ChunkGenerator generator = new FlatBottomGenerator();
         private int tileSize = 128;
+        private int chunkSize = TileChunk.DEFAULT_SIZE;
 
         private float gravity = -0.75f; // units per sec^2 (stronger gravity for snappier feel)
         private float linearDamping = 1; // air drag each step (per-frame factor)
         private float groundFriction = 0.85f; // applied to vx when on ground
         private float restitution = 0.0f; // bounce factor on ground
         private float worldFloorY = 0f; // simple ground plane at y=0
+        private long chunkCacheBudget = DEFAULT_CHUNK_CACHE_BYTES; // heap budget for cached chunks
+        private int keepAliveMargin = DEFAULT_KEEP_ALIVE_CHUNKS; // chunks around the view never evicted
+        private int simulationThreads = 0; // 0 = single-threaded entity step
+        private float tickRate = DEFAULT_TICK_RATE; // simulation ticks per second
+        private int maxTicksPerFrame = DEFAULT_MAX_TICKS_PER_FRAME; // catch-up budget per frame
+        private int pathThreads = DEFAULT_PATH_THREADS; // 0 = path searches on the world's thread
+        private int pathBudget = DEFAULT_PATH_BUDGET; // path searches dispatched per tick
 
         public Builder(String name) {
             this.name = name;
@@ -534,6 +992,16 @@ public class World {
             return this;
         }
 
+        /**
+         * Sets the chunk edge length in tiles. Larger chunks mean fewer map entries, region
+         * slots and generator calls per visible area at the cost of coarser streaming.
+         */
+        public Builder chunkSize(int chunkSize) {
+            if (chunkSize <= 0) throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
         public Builder gravity(float gravity) {
             this.gravity = gravity;
             return this;
@@ -544,6 +1012,60 @@ public class World {
             return this;
         }
 
+        public Builder chunkCacheBudget(long bytes) {
+            this.chunkCacheBudget = bytes;
+            return this;
+        }
+
+        public Builder keepAliveMargin(int chunks) {
+            this.keepAliveMargin = Math.max(0, chunks);
+            return this;
+        }
+
+        /**
+         * Opts into the parallel entity step with the given number of worker threads; 0 keeps
+         * the single-threaded step.
+         */
+        public Builder simulationThreads(int threads) {
+            this.simulationThreads = Math.max(0, threads);
+            return this;
+        }
+
+        /**
+         * Sets the fixed simulation rate in ticks per second. Physics constants are per tick, so
+         * changing the rate also changes how fast the game plays.
+         */
+        public Builder tickRate(float ticksPerSecond) {
+            if (ticksPerSecond <= 0) throw new IllegalArgumentException("Tick rate must be positive: " + ticksPerSecond);
+            this.tickRate = ticksPerSecond;
+            return this;
+        }
+
+        /**
+         * Caps the ticks run in one frame; time owed beyond it is dropped.
+         */
+        public Builder maxTicksPerFrame(int ticks) {
+            this.maxTicksPerFrame = Math.max(1, ticks);
+            return this;
+        }
+
+        /**
+         * Sets the number of background path search threads; 0 runs searches on the world's
+         * thread, still spread over ticks by the path budget.
+         */
+        public Builder pathThreads(int threads) {
+            this.pathThreads = Math.max(0, threads);
+            return this;
+        }
+
+        /**
+         * Caps the path searches dispatched per tick; further requests wait for later ticks.
+         */
+        public Builder pathBudget(int searches) {
+            this.pathBudget = Math.max(1, searches);
+            return this;
+        }
+
         public World build() {
             return new World(this);
         }
@@ -556,6 +1078,10 @@ public class World {
             return tileSize;
         }
 
+        public int chunkSize() {
+            return chunkSize;
+        }
+
         public float gravity() {
             return gravity;
         }
@@ -580,6 +1106,34 @@ public class World {
             return seed;
         }
 
+        public long chunkCacheBudget() {
+            return chunkCacheBudget;
+        }
+
+        public int keepAliveMargin() {
+            return keepAliveMargin;
+        }
+
+        public int simulationThreads() {
+            return simulationThreads;
+        }
+
+        public float tickRate() {
+            return tickRate;
+        }
+
+        public int maxTicksPerFrame() {
+            return maxTicksPerFrame;
+        }
+
+        public int pathThreads() {
+            return pathThreads;
+        }
+
+        public int pathBudget() {
+            return pathBudget;
+        }
+
         public String name() {
             return name;
         }
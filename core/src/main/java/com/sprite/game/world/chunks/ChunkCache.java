@@ -0,0 +1,165 @@
+package com.sprite.game.world.chunks;
+
+import com.sprite.game.world.tiles.TileChunk;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+
+/**
+ * Bounded in-memory chunk cache with least-recently-used eviction.
+ * <p>
+ * Lookups through {@link #get(long)} mark a chunk as recently used. Nothing is evicted
+ * implicitly: the owner calls {@link #trim} once per frame with a keep-alive predicate (typically
+ * "inside the camera view plus a margin"), and only chunks outside it are evicted, oldest first,
+ * until the cache fits its budget again. Chunks that drift just out of view therefore stay
+ * cached until memory is actually needed, which avoids save/load churn at chunk borders.
+ * Not thread-safe; owned by the world's render thread.
+ */
+public class ChunkCache {
+
+    private final LinkedHashMap<Long, TileChunk> chunks = new LinkedHashMap<>(256, 0.75f, true);
+    // Same entries without access ordering, so peek() can read without reordering
+    private final HashMap<Long, TileChunk> index = new HashMap<>(256);
+    private final int bytesPerChunk;
+    private long budgetBytes;
+
+    private long hits;
+    private long misses;
+    private long loads;
+    private long evictions;
+
+    public ChunkCache(long budgetBytes, int chunkSize) {
+        this.bytesPerChunk = bytesPerChunk(chunkSize);
+        budget(budgetBytes);
+    }
+
+    /**
+     * Rough heap cost of one cached chunk: packed ids, the solidity bitset, and object and map
+     * entry overhead. Render data (baked mesh, resolved types) is not charged; the world only
+     * keeps it for chunks around the view and releases it as they leave.
+     */
+    public static int bytesPerChunk(int chunkSize) {
+        int solidWords = chunkSize * ((chunkSize + 63) >>> 6);
+        return chunkSize * chunkSize * 4 + solidWords * 8 + 192;
+    }
+
+    /**
+     * Returns the chunk and marks it as recently used, or null if it is not cached.
+     */
+    public TileChunk get(long key) {
+        TileChunk chunk = chunks.get(key);
+        if (chunk != null) hits++;
+        else misses++;
+        return chunk;
+    }
+
+    /**
+     * Returns the chunk without marking it as recently used or counting a hit or miss, or null
+     * if it is not cached. For background readers such as pathfinding that must not keep chunks
+     * alive or skew the statistics.
+     */
+    public TileChunk peek(long key) {
+        return index.get(key);
+    }
+
+    public boolean contains(long key) {
+        return chunks.containsKey(key);
+    }
+
+    /**
+     * Adds a freshly loaded or generated chunk.
+     */
+    public void put(long key, TileChunk chunk) {
+        chunks.put(key, chunk);
+        index.put(key, chunk);
+        loads++;
+    }
+
+    /**
+     * Adds the chunk unless one is already cached under the key.
+     *
+     * @return true if the chunk was added
+     */
+    public boolean putIfAbsent(long key, TileChunk chunk) {
+        if (chunks.containsKey(key)) return false;
+        put(key, chunk);
+        return true;
+    }
+
+    public TileChunk remove(long key) {
+        index.remove(key);
+        return chunks.remove(key);
+    }
+
+    public Collection<TileChunk> values() {
+        return chunks.values();
+    }
+
+    public boolean isEmpty() {
+        return chunks.isEmpty();
+    }
+
+    public int size() {
+        return chunks.size();
+    }
+
+    /**
+     * Evicts least-recently-used chunks that are not kept alive until the cache fits its budget.
+     *
+     * @param keepAlive chunks whose key matches are never evicted by this call
+     * @param evicted   receives each evicted chunk, e.g. to persist it
+     * @return number of chunks evicted
+     */
+    public int trim(LongPredicate keepAlive, Consumer<TileChunk> evicted) {
+        int capacity = capacity();
+        if (chunks.size() <= capacity) return 0;
+        int count = 0;
+        Iterator<Map.Entry<Long, TileChunk>> it = chunks.entrySet().iterator();
+        while (chunks.size() > capacity && it.hasNext()) {
+            Map.Entry<Long, TileChunk> entry = it.next();
+            if (keepAlive.test(entry.getKey())) continue;
+            it.remove();
+            index.remove(entry.getKey());
+            evicted.accept(entry.getValue());
+            count++;
+        }
+        evictions += count;
+        return count;
+    }
+
+    /**
+     * Maximum number of chunks the budget allows (at least one).
+     */
+    public int capacity() {
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, budgetBytes / bytesPerChunk));
+    }
+
+    public long budget() {
+        return budgetBytes;
+    }
+
+    public void budget(long budgetBytes) {
+        this.budgetBytes = Math.max(bytesPerChunk, budgetBytes);
+    }
+
+    public long hits() {
+        return hits;
+    }
+
+    public long misses() {
+        return misses;
+    }
+
+    public long loads() {
+        return loads;
+    }
+
+    public long evictions() {
+        return evictions;
+    }
+}
@@ -0,0 +1,246 @@
+package com.sprite.game.world.chunks;
+
+import com.badlogic.gdx.utils.IntIntMap;
+import com.sprite.game.world.tiles.TileChunk;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary encoding of a single chunk, used by region storage and the legacy per-chunk files.
+ * <p>
+ * Every payload starts with (big-endian) magic 'TCH1', version, chunkX, chunkY.
+ * <ul>
+ *   <li>Version 1: size * size tile ids as raw ints in x-major order. Worlds saved before version 2
+ *   only had 8x8 chunks; it is still written for chunks with more distinct ids than a version 2
+ *   palette can hold.</li>
+ *   <li>Version 2 (written by default): an unsigned short palette size and the palette ids
+ *   as ints, a column mask with one bit per x column whose tiles all share one palette entry,
+ *   then a bit stream of palette indices using the fewest bits that fit the palette: one index
+ *   for each uniform column and size indices (bottom to top) for every other column. A chunk
+ *   made of a single tile id needs no index bits at all.</li>
+ * </ul>
+ * The chunk size is not stored: it is a world setting and the caller passes it when decoding.
+ * Both versions are decoded so worlds saved before version 2 keep loading.
+ */
+public final class ChunkCodec {
+
+    public static final int MAGIC = 0x54434831; // 'TCH1'
+    public static final int VERSION_1 = 1;
+    public static final int VERSION_2 = 2;
+
+    private static final int HEADER_BYTES = 16;
+    private static final int MAX_PALETTE = 0xFFFF; // version 2 stores the palette size as an unsigned short
+
+    private ChunkCodec() {
+        throw new IllegalAccessError("Utility class");
+    }
+
+    /**
+     * Encodes the snapshot using the current format (version 2), or raw (version 1) if its
+     * palette would not fit.
+     */
+    public static byte[] encode(ChunkSnapshot snapshot) {
+        final int size = snapshot.size();
+        int[] ids = snapshot.ids();
+
+        // Build palette in order of first appearance. Runs of one id are common, so the last
+        // lookup is checked before the id -> index map
+        int[] palette = new int[Math.min(ids.length, MAX_PALETTE)];
+        int paletteSize = 0;
+        IntIntMap paletteIndex = new IntIntMap();
+        int[] indices = new int[ids.length];
+        int lastId = 0, lastIndex = -1;
+        for (int i = 0; i < ids.length; i++) {
+            int id = ids[i];
+            if (id != lastId || lastIndex < 0) {
+                int p = paletteIndex.get(id, -1);
+                if (p < 0) {
+                    if (paletteSize == MAX_PALETTE) return encodeRaw(snapshot);
+                    p = paletteSize;
+                    palette[paletteSize++] = id;
+                    paletteIndex.put(id, p);
+                }
+                lastId = id;
+                lastIndex = p;
+            }
+            indices[i] = lastIndex;
+        }
+        int bits = bitsFor(paletteSize);
+
+        byte[] mask = new byte[(size + 7) / 8];
+        int uniformColumns = 0;
+        for (int x = 0; x < size; x++) {
+            if (isUniform(indices, x, size)) {
+                mask[x >> 3] |= (byte) (1 << (x & 7));
+                uniformColumns++;
+            }
+        }
+        long indexBits = (long) bits * (uniformColumns + (long) (size - uniformColumns) * size);
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 2 + paletteSize * 4 + mask.length + (int) ((indexBits + 7) / 8));
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION_2);
+        buffer.putInt(snapshot.chunkX());
+        buffer.putInt(snapshot.chunkY());
+        buffer.putShort((short) paletteSize);
+        for (int p = 0; p < paletteSize; p++) buffer.putInt(palette[p]);
+        buffer.put(mask);
+        BitWriter out = new BitWriter(buffer, bits);
+        for (int x = 0; x < size; x++) {
+            if ((mask[x >> 3] & (1 << (x & 7))) != 0) {
+                out.put(indices[x * size]);
+            } else {
+                for (int y = 0; y < size; y++) out.put(indices[x * size + y]);
+            }
+        }
+        out.flush();
+        return buffer.array();
+    }
+
+    private static byte[] encodeRaw(ChunkSnapshot snapshot) {
+        int[] ids = snapshot.ids();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + ids.length * 4);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION_1);
+        buffer.putInt(snapshot.chunkX());
+        buffer.putInt(snapshot.chunkY());
+        for (int id : ids) buffer.putInt(id);
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a chunk of the given size, returning null if the data is malformed, uses an
+     * unknown version or belongs to other coordinates.
+     */
+    public static TileChunk decode(byte[] data, int chunkX, int chunkY, int size) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            int magic = buffer.getInt();
+            int version = buffer.getInt();
+            int fileCx = buffer.getInt();
+            int fileCy = buffer.getInt();
+            if (magic != MAGIC || fileCx != chunkX || fileCy != chunkY) {
+                return null; // invalid
+            }
+            int[] ids;
+            switch (version) {
+                case VERSION_1:
+                    ids = decodeV1(buffer, size);
+                    break;
+                case VERSION_2:
+                    ids = decodeV2(buffer, size);
+                    break;
+                default:
+                    return null;
+            }
+            if (ids == null) return null;
+            TileChunk chunk = new TileChunk(chunkX, chunkY, size);
+            chunk.ids(ids);
+            return chunk;
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    private static int[] decodeV1(ByteBuffer buffer, int size) {
+        // Raw ids of exactly this size; an 8x8 chunk from an old world does not fit any other size
+        if (buffer.remaining() != size * size * 4) return null;
+        int[] ids = new int[size * size];
+        for (int i = 0; i < ids.length; i++) ids[i] = buffer.getInt();
+        return ids;
+    }
+
+    private static int[] decodeV2(ByteBuffer buffer, int size) {
+        int paletteSize = buffer.getShort() & 0xffff;
+        if (paletteSize == 0) return null;
+        int[] palette = new int[paletteSize];
+        for (int p = 0; p < paletteSize; p++) palette[p] = buffer.getInt();
+        byte[] mask = new byte[(size + 7) / 8];
+        buffer.get(mask);
+        BitReader in = new BitReader(buffer, bitsFor(paletteSize));
+        int[] ids = new int[size * size];
+        for (int x = 0; x < size; x++) {
+            if ((mask[x >> 3] & (1 << (x & 7))) != 0) {
+                int index = in.get();
+                if (index >= paletteSize) return null;
+                java.util.Arrays.fill(ids, x * size, (x + 1) * size, palette[index]);
+            } else {
+                for (int y = 0; y < size; y++) {
+                    int index = in.get();
+                    if (index >= paletteSize) return null;
+                    ids[x * size + y] = palette[index];
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static boolean isUniform(int[] indices, int x, int size) {
+        int first = indices[x * size];
+        for (int y = 1; y < size; y++) {
+            if (indices[x * size + y] != first) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Bits needed to address a palette of the given size (0 for a single entry).
+     */
+    private static int bitsFor(int paletteSize) {
+        return paletteSize <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(paletteSize - 1);
+    }
+
+    /**
+     * MSB-first fixed-width bit packer.
+     */
+    private static final class BitWriter {
+        private final ByteBuffer buffer;
+        private final int bits;
+        private long acc;
+        private int accBits;
+
+        BitWriter(ByteBuffer buffer, int bits) {
+            this.buffer = buffer;
+            this.bits = bits;
+        }
+
+        void put(int value) {
+            if (bits == 0) return;
+            acc = (acc << bits) | value;
+            accBits += bits;
+            while (accBits >= 8) {
+                buffer.put((byte) (acc >>> (accBits - 8)));
+                accBits -= 8;
+            }
+        }
+
+        void flush() {
+            if (accBits > 0) buffer.put((byte) (acc << (8 - accBits)));
+            accBits = 0;
+        }
+    }
+
+    private static final class BitReader {
+        private final ByteBuffer buffer;
+        private final int bits;
+        private long acc;
+        private int accBits;
+
+        BitReader(ByteBuffer buffer, int bits) {
+            this.buffer = buffer;
+            this.bits = bits;
+        }
+
+        int get() {
+            if (bits == 0) return 0;
+            while (accBits < bits) {
+                acc = (acc << 8) | (buffer.get() & 0xff);
+                accBits += 8;
+            }
+            int value = (int) ((acc >>> (accBits - bits)) & ((1L << bits) - 1));
+            accBits -= bits;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.sprite.game.world.chunks;
+
+import com.badlogic.gdx.Gdx;
+import com.sprite.game.world.tiles.TileChunk;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Background chunk loading/generation pipeline.
+ * <p>
+ * Requests are queued by distance to the requesting center and served by a small pool of
+ * daemon worker threads that run the supplied {@link Source} (disk load, then generation).
+ * Finished chunks are parked in a hand-off queue and only become visible to the world when
+ * the owning thread calls {@link #drain(Consumer)}, so the world's chunk map is never touched
+ * off the render thread. A chunk is "pending" from {@link #request} until it is drained or
+ * {@link #cancel cancelled}.
+ */
+public class ChunkPipeline {
+
+    /**
+     * Produces a chunk for the given coordinates. Called on worker threads; implementations
+     * must not touch render-thread state.
+     */
+    @FunctionalInterface
+    public interface Source {
+        TileChunk produce(int chunkX, int chunkY);
+    }
+
+    private final Source source;
+    private final Thread[] workers;
+    private final PriorityBlockingQueue<Request> queue = new PriorityBlockingQueue<>();
+    private final Map<Long, Request> pending = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Request> completed = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean running = true;
+
+    public ChunkPipeline(Source source) {
+        this(source, Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)));
+    }
+
+    public ChunkPipeline(Source source, int threads) {
+        this.source = source;
+        this.workers = new Thread[Math.max(1, threads)];
+        for (int i = 0; i < workers.length; i++) {
+            Thread t = new Thread(this::work, "chunk-worker-" + i);
+            t.setDaemon(true);
+            t.start();
+            workers[i] = t;
+        }
+    }
+
+    /**
+     * Queues a chunk for background production if it is not already pending.
+     *
+     * @param priority lower values are served first (typically squared chunk distance to the camera)
+     */
+    public void request(int chunkX, int chunkY, long key, int priority) {
+        if (!running) return;
+        if (pending.containsKey(key)) return;
+        Request r = new Request(chunkX, chunkY, key, priority, sequence.getAndIncrement());
+        if (pending.putIfAbsent(key, r) == null) queue.add(r);
+    }
+
+    /**
+     * True if the chunk has been requested and not yet drained or cancelled.
+     */
+    public boolean isPending(long key) {
+        return pending.containsKey(key);
+    }
+
+    /**
+     * Drops a pending request, e.g. because the chunk was produced synchronously in the meantime.
+     * A result already computed for it is discarded on the next drain.
+     */
+    public void cancel(long key) {
+        Request r = pending.remove(key);
+        if (r != null) {
+            r.cancelled = true;
+            queue.remove(r);
+        }
+    }
+
+    /**
+     * Hands completed chunks to the consumer on the calling thread.
+     *
+     * @return number of chunks handed off
+     */
+    public int drain(Consumer<TileChunk> consumer) {
+        int count = 0;
+        Request r;
+        while ((r = completed.poll()) != null) {
+            if (r.cancelled || !pending.remove(r.key, r)) continue;
+            if (r.result != null) {
+                consumer.accept(r.result);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Stops the workers. Pending requests are abandoned.
+     */
+    public void shutdown() {
+        running = false;
+        for (Thread t : workers) t.interrupt();
+        queue.clear();
+        pending.clear();
+        completed.clear();
+    }
+
+    private void work() {
+        while (running) {
+            Request r;
+            try {
+                r = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (r.cancelled) continue;
+            try {
+                r.result = source.produce(r.chunkX, r.chunkY);
+            } catch (Throwable t) {
+                if (Gdx.app != null) Gdx.app.error("ChunkPipeline", "Failed to produce chunk " + r.chunkX + "," + r.chunkY, t);
+            }
+            // Failed requests are still handed back so they leave the pending set and can be retried
+            completed.add(r);
+        }
+    }
+
+    private static final class Request implements Comparable<Request> {
+        final int chunkX, chunkY;
+        final long key;
+        final int priority;
+        final long order;
+        volatile boolean cancelled;
+        volatile TileChunk result;
+
+        Request(int chunkX, int chunkY, long key, int priority, long order) {
+            this.chunkX = chunkX;
+            this.chunkY = chunkY;
+            this.key = key;
+            this.priority = priority;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Request o) {
+            int c = Integer.compare(priority, o.priority);
+            return c != 0 ? c : Long.compare(order, o.order);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.sprite.game.world.chunks;
+
+import com.sprite.game.world.tiles.TileChunk;
+
+/**
+ * Immutable copy of a chunk's tile ids, safe to hand to other threads for persistence.
+ *
+ * @param size chunk edge length in tiles
+ * @param ids  tile ids in x-major order (index = x * size + y); never mutated after creation
+ */
+public record ChunkSnapshot(int chunkX, int chunkY, int size, int[] ids) {
+
+    public static ChunkSnapshot of(TileChunk chunk) {
+        return new ChunkSnapshot(chunk.chunkX(), chunk.chunkY(), chunk.size(), chunk.ids());
+    }
+
+    /**
+     * Materializes a fresh, mutable chunk holding this snapshot's tiles.
+     */
+    public TileChunk toChunk() {
+        TileChunk chunk = new TileChunk(chunkX, chunkY, size);
+        chunk.ids(ids);
+        return chunk;
+    }
+}
@@ -0,0 +1,212 @@
+package com.sprite.game.world.chunks;
+
+import com.badlogic.gdx.Gdx;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Background chunk persistence stage.
+ * <p>
+ * Chunks are submitted as immutable {@link ChunkSnapshot}s and written by a single daemon
+ * thread through a {@link Sink}. Saves of a chunk that is still queued replace the queued
+ * snapshot instead of adding a second write (coalescing). The queue is bounded: once
+ * {@code capacity} distinct chunks are waiting, {@link #submit} blocks until the writer
+ * catches up. Snapshots stay visible through {@link #pending(long)} until they are on disk,
+ * so loaders never read a stale file while a newer save is in flight.
+ * <p>
+ * Every live writer is tracked so {@link #shutdownAll()} can flush them during global shutdown.
+ */
+public class ChunkWriter {
+
+    /**
+     * Destination for snapshots. Called on the writer thread only.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void write(ChunkSnapshot snapshot) throws IOException;
+    }
+
+    private static final Set<ChunkWriter> ACTIVE = ConcurrentHashMap.newKeySet();
+
+    private final Sink sink;
+    private final int capacity;
+    private final Object lock = new Object();
+    private final LinkedHashMap<Long, ChunkSnapshot> queued = new LinkedHashMap<>();
+    private final Thread thread;
+    // Snapshot currently being written, still readable through pending()
+    private long inFlightKey;
+    private ChunkSnapshot inFlight = null;
+    private boolean running = true;
+
+    // Statistics, guarded by lock
+    private long submitted;
+    private long coalesced;
+    private long written;
+    private long failed;
+
+    public ChunkWriter(String name, Sink sink) {
+        this(name, sink, 256);
+    }
+
+    public ChunkWriter(String name, Sink sink, int capacity) {
+        this.sink = sink;
+        this.capacity = Math.max(1, capacity);
+        this.thread = new Thread(this::work, "chunk-writer-" + name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+        ACTIVE.add(this);
+    }
+
+    /**
+     * Queues a snapshot for writing, replacing any queued snapshot of the same chunk.
+     * Blocks while the queue is full. After shutdown the snapshot is written synchronously.
+     */
+    public void submit(long key, ChunkSnapshot snapshot) {
+        synchronized (lock) {
+            if (running) {
+                submitted++;
+                if (queued.containsKey(key)) {
+                    queued.put(key, snapshot);
+                    coalesced++;
+                    return;
+                }
+                while (running && queued.size() >= capacity) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+                if (running) {
+                    queued.put(key, snapshot);
+                    lock.notifyAll();
+                    return;
+                }
+            }
+        }
+        writeNow(snapshot);
+    }
+
+    /**
+     * Returns the newest snapshot of the chunk that has not reached the sink yet, or null.
+     */
+    public ChunkSnapshot pending(long key) {
+        synchronized (lock) {
+            ChunkSnapshot s = queued.get(key);
+            if (s != null) return s;
+            if (inFlight != null && inFlightKey == key) return inFlight;
+            return null;
+        }
+    }
+
+    /**
+     * Blocks until every snapshot submitted so far has been handed to the sink.
+     */
+    public void flush() {
+        synchronized (lock) {
+            while (!queued.isEmpty() || inFlight != null) {
+                if (!thread.isAlive()) break;
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Flushes outstanding writes and stops the writer thread. Safe to call multiple times.
+     */
+    public void shutdown() {
+        flush();
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        ACTIVE.remove(this);
+    }
+
+    /**
+     * Flushes and stops every live writer. Used by global shutdown.
+     */
+    public static void shutdownAll() {
+        for (ChunkWriter writer : ACTIVE.toArray(new ChunkWriter[0])) {
+            writer.shutdown();
+        }
+    }
+
+    public long submitted() {
+        synchronized (lock) { return submitted; }
+    }
+
+    public long coalesced() {
+        synchronized (lock) { return coalesced; }
+    }
+
+    public long written() {
+        synchronized (lock) { return written; }
+    }
+
+    public long failed() {
+        synchronized (lock) { return failed; }
+    }
+
+    public int queued() {
+        synchronized (lock) { return queued.size(); }
+    }
+
+    private void work() {
+        while (true) {
+            ChunkSnapshot next;
+            synchronized (lock) {
+                while (queued.isEmpty() && running) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (queued.isEmpty()) return;
+                Iterator<Map.Entry<Long, ChunkSnapshot>> it = queued.entrySet().iterator();
+                Map.Entry<Long, ChunkSnapshot> first = it.next();
+                it.remove();
+                inFlightKey = first.getKey();
+                inFlight = first.getValue();
+                next = inFlight;
+                // Space freed for blocked submitters
+                lock.notifyAll();
+            }
+            boolean ok = write(next);
+            synchronized (lock) {
+                if (ok) written++; else failed++;
+                inFlight = null;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void writeNow(ChunkSnapshot snapshot) {
+        boolean ok = write(snapshot);
+        synchronized (lock) {
+            if (ok) written++; else failed++;
+        }
+    }
+
+    private boolean write(ChunkSnapshot snapshot) {
+        try {
+            sink.write(snapshot);
+            return true;
+        } catch (Throwable t) {
+            if (Gdx.app != null) Gdx.app.error("ChunkWriter", "Failed to save chunk " + snapshot.chunkX() + "," + snapshot.chunkY(), t);
+            return false;
+        }
+    }
+}
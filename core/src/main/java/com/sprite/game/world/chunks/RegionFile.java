@@ -0,0 +1,195 @@
+package com.sprite.game.world.chunks;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A single region file holding up to {@link RegionStorage#REGION_SIZE}² encoded chunks.
+ * <p>
+ * Layout (big-endian): magic 'RGN1', version, then a table with one (offset, length) int pair
+ * per chunk slot, followed by chunk payloads. An offset of 0 marks an empty slot. All access goes
+ * through positional {@link FileChannel} reads/writes; the table is mirrored in memory so lookups
+ * never touch the disk.
+ * <p>
+ * A payload is never overwritten while its table entry points at it: a new payload goes to free
+ * space first and the entry is switched afterwards, so if the process dies mid-write the entry
+ * still points at the complete old payload. The space of replaced payloads is tracked as free
+ * runs (rebuilt from the table on open) and reused first-fit; a free run at the end of the file
+ * is truncated away. Durability against power loss needs {@link #force()}.
+ */
+public class RegionFile implements Closeable {
+
+    public static final int MAGIC = 0x52474E31; // 'RGN1'
+    public static final int VERSION = 1;
+
+    private static final int SLOTS = RegionStorage.REGION_SIZE * RegionStorage.REGION_SIZE;
+    private static final int TABLE_OFFSET = 8;
+    private static final int HEADER_BYTES = TABLE_OFFSET + SLOTS * 8;
+
+    private final FileChannel channel;
+    private final int[] offsets = new int[SLOTS];
+    private final int[] lengths = new int[SLOTS];
+    private final TreeMap<Long, Long> free = new TreeMap<>(); // unused runs between payloads: offset -> length
+    private long end = HEADER_BYTES; // end of the last payload
+
+    public RegionFile(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() < HEADER_BYTES) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION);
+            header.rewind();
+            writeFully(header, 0);
+            return;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            channel.close();
+            throw new IOException("Not a region file: " + path);
+        }
+        for (int i = 0; i < SLOTS; i++) {
+            offsets[i] = header.getInt();
+            lengths[i] = header.getInt();
+        }
+        findFreeRuns();
+    }
+
+    /**
+     * Returns the payload stored in the slot, or null if the slot is empty.
+     */
+    public synchronized byte[] read(int slot) throws IOException {
+        if (offsets[slot] == 0) return null;
+        ByteBuffer data = ByteBuffer.allocate(lengths[slot]);
+        readFully(data, offsets[slot]);
+        return data.array();
+    }
+
+    /**
+     * Stores the payload in the slot, replacing any previous one.
+     */
+    public synchronized void write(int slot, byte[] payload) throws IOException {
+        long position = allocate(payload.length);
+        if (position + payload.length > Integer.MAX_VALUE) {
+            release(position, payload.length);
+            throw new IOException("Region file too large");
+        }
+        writeFully(ByteBuffer.wrap(payload), position);
+        // Payload first, then the table entry; the old payload stays intact until the entry moves
+        ByteBuffer entry = ByteBuffer.allocate(8);
+        entry.putInt((int) position).putInt(payload.length);
+        entry.flip();
+        writeFully(entry, TABLE_OFFSET + slot * 8L);
+        int oldOffset = offsets[slot], oldLength = lengths[slot];
+        offsets[slot] = (int) position;
+        lengths[slot] = payload.length;
+        if (oldOffset != 0) release(oldOffset, oldLength);
+    }
+
+    /**
+     * Bytes in the file not used by the header or a payload.
+     */
+    public synchronized long freeBytes() throws IOException {
+        long sum = channel.size() - end;
+        for (long length : free.values()) sum += length;
+        return sum;
+    }
+
+    /**
+     * Forces written payloads and table entries to the storage device.
+     */
+    public synchronized void force() throws IOException {
+        channel.force(true);
+    }
+
+    public synchronized boolean contains(int slot) {
+        return offsets[slot] != 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Rebuilds the free runs from the gaps between the payloads in the table, and drops any
+     * bytes after the last payload (e.g. an append interrupted by a crash).
+     */
+    private void findFreeRuns() throws IOException {
+        long[] runs = new long[SLOTS];
+        int n = 0;
+        for (int i = 0; i < SLOTS; i++) {
+            if (offsets[i] != 0) runs[n++] = (long) offsets[i] << 32 | lengths[i];
+        }
+        Arrays.sort(runs, 0, n);
+        long cursor = HEADER_BYTES;
+        for (int i = 0; i < n; i++) {
+            long offset = runs[i] >>> 32, length = runs[i] & 0xffffffffL;
+            if (offset > cursor) free.put(cursor, offset - cursor);
+            cursor = Math.max(cursor, offset + length);
+        }
+        end = cursor;
+        if (channel.size() > end) channel.truncate(end);
+    }
+
+    /**
+     * Position for a new payload: the first free run it fits in, or the end of the file.
+     */
+    private long allocate(int length) {
+        for (Iterator<Map.Entry<Long, Long>> it = free.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, Long> run = it.next();
+            if (run.getValue() < length) continue;
+            long position = run.getKey();
+            it.remove();
+            if (run.getValue() > length) free.put(position + length, run.getValue() - length);
+            return position;
+        }
+        long position = end;
+        end += length;
+        return position;
+    }
+
+    /**
+     * Returns a run to the free space, merging it with its neighbours and truncating the file
+     * if it ends the file.
+     */
+    private void release(long offset, long length) throws IOException {
+        if (length <= 0) return;
+        Map.Entry<Long, Long> before = free.floorEntry(offset);
+        if (before != null && before.getKey() + before.getValue() == offset) {
+            free.remove(before.getKey());
+            offset = before.getKey();
+            length += before.getValue();
+        }
+        Long after = free.remove(offset + length);
+        if (after != null) length += after;
+        if (offset + length >= end) {
+            end = offset;
+            channel.truncate(end);
+        } else {
+            free.put(offset, length);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position);
+            if (n < 0) throw new IOException("Unexpected end of region file");
+            position += n;
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
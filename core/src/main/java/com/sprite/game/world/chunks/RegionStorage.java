@@ -0,0 +1,131 @@
+package com.sprite.game.world.chunks;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chunk storage that packs {@value #REGION_SIZE}x{@value #REGION_SIZE} chunks into each
+ * {@link RegionFile} ({@code r.<rx>.<ry>.bin}) instead of one file per chunk. Region files are
+ * opened lazily and kept open until {@link #close()}. Safe for concurrent readers and a writer.
+ */
+public class RegionStorage implements Closeable {
+
+    public static final int REGION_SIZE = 32;
+    private static final int SHIFT = 5; // log2(REGION_SIZE)
+
+    private final Path directory;
+    private final Map<Long, RegionFile> regions = new HashMap<>();
+    private boolean closed = false;
+
+    public RegionStorage(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the encoded chunk, or null if it has never been stored.
+     */
+    public byte[] read(int chunkX, int chunkY) throws IOException {
+        RegionFile region = region(chunkX, chunkY, false);
+        return region == null ? null : region.read(slot(chunkX, chunkY));
+    }
+
+    /**
+     * True if the chunk has been stored, without reading it.
+     */
+    public boolean contains(int chunkX, int chunkY) throws IOException {
+        RegionFile region = region(chunkX, chunkY, false);
+        return region != null && region.contains(slot(chunkX, chunkY));
+    }
+
+    public void write(int chunkX, int chunkY, byte[] payload) throws IOException {
+        region(chunkX, chunkY, true).write(slot(chunkX, chunkY), payload);
+    }
+
+    /**
+     * One-shot migration of legacy per-chunk files ({@code <cx>_<cy>.bin}) from the given
+     * directory into region files. The files are removed once the region files are forced to
+     * disk; the directory is deleted when empty. Files that do not decode as chunks are left
+     * untouched.
+     *
+     * @return number of chunks migrated
+     */
+    public int migrateLegacy(File legacyDirectory, int chunkSize) throws IOException {
+        File[] files = legacyDirectory.listFiles((dir, name) -> name.endsWith(".bin"));
+        if (files == null) return 0;
+        List<Path> stored = new ArrayList<>();
+        for (File file : files) {
+            String name = file.getName();
+            String[] parts = name.substring(0, name.length() - 4).split("_");
+            if (parts.length != 2) continue;
+            int cx, cy;
+            try {
+                cx = Integer.parseInt(parts[0]);
+                cy = Integer.parseInt(parts[1]);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            byte[] payload = Files.readAllBytes(file.toPath());
+            if (ChunkCodec.decode(payload, cx, cy, chunkSize) == null) continue;
+            // Never clobber a chunk already saved in the new format
+            if (read(cx, cy) == null) write(cx, cy, payload);
+            stored.add(file.toPath());
+        }
+        // The legacy copies go only once the region files are on disk
+        force();
+        for (Path path : stored) Files.delete(path);
+        String[] remaining = legacyDirectory.list();
+        if (remaining != null && remaining.length == 0) Files.delete(legacyDirectory.toPath());
+        return stored.size();
+    }
+
+    /**
+     * Forces every open region file to the storage device.
+     */
+    public synchronized void force() throws IOException {
+        for (RegionFile region : regions.values()) region.force();
+    }
+
+    /**
+     * Closes all region files. Reads and writes fail afterwards.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        IOException failure = null;
+        for (RegionFile region : regions.values()) {
+            try {
+                region.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        regions.clear();
+        if (failure != null) throw failure;
+    }
+
+    private synchronized RegionFile region(int chunkX, int chunkY, boolean create) throws IOException {
+        int rx = chunkX >> SHIFT;
+        int ry = chunkY >> SHIFT;
+        long key = (((long) rx) << 32) ^ (ry & 0xffffffffL);
+        if (closed) throw new IOException("Region storage is closed");
+        RegionFile region = regions.get(key);
+        if (region != null) return region;
+        Path path = directory.resolve("r." + rx + "." + ry + ".bin");
+        if (!create && !Files.exists(path)) return null;
+        Files.createDirectories(directory);
+        region = new RegionFile(path);
+        regions.put(key, region);
+        return region;
+    }
+
+    private static int slot(int chunkX, int chunkY) {
+        return (chunkX & (REGION_SIZE - 1)) * REGION_SIZE + (chunkY & (REGION_SIZE - 1));
+    }
+}
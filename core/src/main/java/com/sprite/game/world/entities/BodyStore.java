@@ -0,0 +1,155 @@
+package com.sprite.game.world.entities;
+
+import java.util.Arrays;
+
+/**
+ * Structure-of-arrays storage for entity physics bodies.
+ * <p>
+ * Every body field lives in its own array indexed by slot, so the integration part of a step
+ * ({@link #integrate(float, float)}) is a tight loop over contiguous floats instead of a walk
+ * over entity objects. Slots are kept dense: removing a body moves the last one into its slot
+ * and updates that entity's slot index. Each {@link Entity} delegates its body state to the
+ * store it is attached to; entities outside a world park their velocity on themselves and only
+ * get a private single-slot store if they are simulated on their own.
+ * Not thread-safe, but distinct slots may be written concurrently.
+ */
+public class BodyStore {
+
+    float[] x, y;
+    float[] vx, vy;
+    float[] ax, ay;
+    float[] width, height;
+    boolean[] onGround;
+    private Entity[] owners;
+    private int count = 0;
+
+    public BodyStore(int capacity) {
+        capacity = Math.max(1, capacity);
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        ax = new float[capacity];
+        ay = new float[capacity];
+        width = new float[capacity];
+        height = new float[capacity];
+        onGround = new boolean[capacity];
+        owners = new Entity[capacity];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Moves the entity's body into this store, from the store it is attached to or from the
+     * state parked on the entity, keeping its state.
+     */
+    public void attach(Entity entity) {
+        BodyStore from = entity.bodies;
+        if (from == this) return;
+        int slot;
+        if (from == null) {
+            slot = add(entity, entity.position().x, entity.position().y, entity.width(), entity.height());
+            vx[slot] = entity.parkedVx;
+            vy[slot] = entity.parkedVy;
+            onGround[slot] = entity.parkedOnGround;
+        } else {
+            int src = entity.bodySlot;
+            slot = add(entity, from.x[src], from.y[src], from.width[src], from.height[src]);
+            vx[slot] = from.vx[src];
+            vy[slot] = from.vy[src];
+            ax[slot] = from.ax[src];
+            ay[slot] = from.ay[src];
+            onGround[slot] = from.onGround[src];
+            from.remove(src);
+        }
+        entity.bodies = this;
+        entity.bodySlot = slot;
+    }
+
+    /**
+     * Removes the entity's body from this store, parking its velocity on the entity. Its
+     * position stays the last committed one and pending forces are dropped.
+     */
+    public void detach(Entity entity) {
+        if (entity.bodies != this) return;
+        int slot = entity.bodySlot;
+        entity.parkedVx = vx[slot];
+        entity.parkedVy = vy[slot];
+        entity.parkedOnGround = onGround[slot];
+        remove(slot);
+        entity.bodies = null;
+    }
+
+    /**
+     * Applies gravity and per-step acceleration to every body's velocity, damps horizontal
+     * velocity and clears the accelerations.
+     */
+    public void integrate(float gravity, float damping) {
+        final float[] vx = this.vx, vy = this.vy, ax = this.ax, ay = this.ay;
+        for (int i = 0, n = count; i < n; i++) {
+            vx[i] = (vx[i] + ax[i]) * damping;
+            vy[i] = vy[i] + (ay[i] + gravity);
+            ax[i] = 0f;
+            ay[i] = 0f;
+        }
+    }
+
+    /**
+     * Single-slot form of {@link #integrate(float, float)}, producing identical results.
+     */
+    void integrate(int slot, float gravity, float damping) {
+        vx[slot] = (vx[slot] + ax[slot]) * damping;
+        vy[slot] = vy[slot] + (ay[slot] + gravity);
+        ax[slot] = 0f;
+        ay[slot] = 0f;
+    }
+
+    int add(Entity owner, float x, float y, float width, float height) {
+        if (count == owners.length) grow(count * 2);
+        int slot = count++;
+        this.x[slot] = x;
+        this.y[slot] = y;
+        this.vx[slot] = 0f;
+        this.vy[slot] = 0f;
+        this.ax[slot] = 0f;
+        this.ay[slot] = 0f;
+        this.width[slot] = width;
+        this.height[slot] = height;
+        this.onGround[slot] = false;
+        owners[slot] = owner;
+        return slot;
+    }
+
+    private void remove(int slot) {
+        int last = --count;
+        if (slot != last) {
+            x[slot] = x[last];
+            y[slot] = y[last];
+            vx[slot] = vx[last];
+            vy[slot] = vy[last];
+            ax[slot] = ax[last];
+            ay[slot] = ay[last];
+            width[slot] = width[last];
+            height[slot] = height[last];
+            onGround[slot] = onGround[last];
+            owners[slot] = owners[last];
+            owners[slot].bodySlot = slot;
+        }
+        owners[last] = null;
+    }
+
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        ax = Arrays.copyOf(ax, capacity);
+        ay = Arrays.copyOf(ay, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        onGround = Arrays.copyOf(onGround, capacity);
+        owners = Arrays.copyOf(owners, capacity);
+    }
+}
@@ -16,7 +16,13 @@ import com.sprite.resource.controllers.Controller;
 import com.sprite.resource.entities.EntityType;
 import com.sprite.resource.models.Model;
 import com.sprite.data.utils.Utils;
+import com.sprite.game.world.TileAccessor;
+import com.sprite.game.world.TileSweep;
+import com.sprite.game.world.TileView;
 import com.sprite.game.world.World;
+import com.sprite.game.world.path.FlowField;
+import com.sprite.game.world.path.NavRules;
+import com.sprite.game.world.path.PathService;
 import com.sprite.resource.ui.UIType;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -38,8 +44,24 @@ public class Entity {
     private TranslatableString name;
     private Entity target = null;
     private Pathfinder.Path path = null;
-    private Body body;
+    // Physics state lives in a structure-of-arrays store; position() is the published copy.
+    // Outside a world there is no store: the velocity is parked in the fields below until the
+    // entity is attached, or a private store is created if it is simulated on its own
+    BodyStore bodies;
+    int bodySlot;
+    float parkedVx, parkedVy;
+    boolean parkedOnGround;
+    // Position before the last commit, for interpolating between ticks
+    private float prevX, prevY;
     private final Inventory inventory;
+    // Cached tile lookups for physics; reset at the start of each step
+    private final TileAccessor tiles = new TileAccessor();
+    private final TileSweep sweep = new TileSweep();
+    // Contacts resolved per step; a box can touch at most a wall and a floor or ceiling
+    private static final int MAX_SLIDES = 3;
+    // Broadphase bookkeeping owned by SpatialIndex
+    long indexCell;
+    boolean indexed = false;
 
 
     public Entity(EntityType type, float x, float y) {
@@ -49,13 +71,14 @@ public class Entity {
         this.maxHealth = type.health;
         this.speed = type.speed;
         this.position = new Vector3(x, y, 0);
+        this.prevX = x;
+        this.prevY = y;
         this.width = type.width;
         this.height = type.height;
         this.name = type.name;
         this.controller = type.controller.clone();
         this.inventory = new Inventory(type.inventoryUI);
         //todo replace with collision box
-        this.body = new Body(position().x, position().y, width(), height());
         if (controller.input().id().equalsIgnoreCase("input:pathfinder")) {
             List<EntityType> targets = new ArrayList<>();
             JSONObject pathfinderData = controller.extra().optJSONObject("pathfinder", new JSONObject());
@@ -76,6 +99,23 @@ public class Entity {
         }
     }
 
+    /**
+     * Bare physics body without a type, model, controller or inventory, for simulating entities
+     * in tests and benchmarks where no resources are loaded. Must never be rendered.
+     */
+    Entity(float x, float y, float width, float height) {
+        this.type = null;
+        this.model = null;
+        this.controller = null;
+        this.inventory = null;
+        this.maxHealth = 0;
+        this.position = new Vector3(x, y, 0);
+        this.prevX = x;
+        this.prevY = y;
+        this.width = width;
+        this.height = height;
+    }
+
     public void speed(float speed) {
         this.speed = speed;
     }
@@ -89,11 +129,22 @@ public class Entity {
     }
 
     public void render(GameScreen screen) {
+        render(screen, 1f);
+    }
+
+    /**
+     * Draws the entity between its previous and current tick positions.
+     *
+     * @param alpha fraction of a tick elapsed since the last one, in [0, 1]
+     */
+    public void render(GameScreen screen, float alpha) {
         if(controller.input().id().equalsIgnoreCase("input:player")) {
             handlePlayerInput(screen);
         }
 
-        director.render(screen.sprite(), this, position.x, position.y, width, height);
+        float x = prevX + (position.x - prevX) * alpha;
+        float y = prevY + (position.y - prevY) * alpha;
+        director.render(screen.sprite(), this, x, y, width, height);
 
         Vector3 prevNode = null;
         if (path == null)
@@ -141,40 +192,41 @@ public class Entity {
 
     public void applyForce(float fx, float fy) {
 
-        if (body == null) return;
-        body.ax += fx;
-        body.ay += fy;
+        BodyStore b = body();
+        b.ax[bodySlot] += fx;
+        b.ay[bodySlot] += fy;
     }
 
     public void setVelocity(float vx, float vy) {
-        if (body == null) return;
-        body.vx = vx;
-        body.vy = vy;
+        BodyStore b = body();
+        b.vx[bodySlot] = vx;
+        b.vy[bodySlot] = vy;
     }
 
     public void jump(float impulse){
-        if (body == null) return;
         if (onGround()){
-            body.vy += impulse;
-            body.onGround = false;
+            BodyStore b = body();
+            b.vy[bodySlot] += impulse;
+            b.onGround[bodySlot] = false;
         }
     }
 
     public float getVelX() {
-        return body.vx;
+        return bodies != null ? bodies.vx[bodySlot] : parkedVx;
     }
 
     public float getVelY() {
-        return body.vy;
+        return bodies != null ? bodies.vy[bodySlot] : parkedVy;
     }
 
     public boolean onGround() {
-        return body.onGround;
+        return bodies != null ? bodies.onGround[bodySlot] : parkedOnGround;
     }
 
     public void update(World world, float delta) {
 
-        physics(world, delta);
+        simulate(world, null, delta);
+        commit();
 
 //        if (pathfinder() != null) {
 //            path = pathfinder.path(world, this);
@@ -183,142 +235,110 @@ public class Entity {
 //        }
     }
 
-    private void physics(World world, float delta) {
-        if (body == null) return;
-
-        // Apply gravity
-        body.ay += world.gravity();
-
-        // Integrate velocity
-        // Remove delta-time scaling: advance one fixed step per frame
-        body.vx += body.ax;
-        body.vy += body.ay;
-
-        // Damping (air drag) - apply primarily to horizontal motion
-        body.vx *= world.linearDamping();
-        // Avoid damping vertical velocity to keep gravity and jumps responsive
-
-        // Integrate and resolve collisions against TileWorld
-        body.onGround = false;
-
-        int ts = world.tileSize();
+    /**
+     * Runs one physics step for this entity alone: integrates its body, then moves it and
+     * resolves tile collisions. The result stays in the body store until {@link #commit()}.
+     *
+     * @param view captured chunks to collide against, or null to use the world's chunk cache
+     */
+    public void simulate(World world, TileView view, float delta) {
+        body().integrate(bodySlot, world.gravity(), world.linearDamping());
+        collide(world, view);
+    }
 
-        // Move along X and resolve
-        float dx = body.vx;
-        if (dx != 0f) {
-            float newX = body.x + dx;
-            if (!collides(world, newX, body.y, body.width, body.height)) {
-                body.x = newX;
-            } else {
-                // Snap to tile boundary depending on direction
-                if (dx > 0) {
-                    // moving right: clamp to left edge of blocking tile
-                    int maxTileY = (int) Math.floor((body.y + body.height - 0.001f) / ts);
-                    int minTileY = (int) Math.floor((body.y + 0.001f) / ts);
-                    int tileX = (int) Math.floor((body.x + body.width - 0.001f) / ts);
-                    // scan tiles along vertical span to find first solid just to the right
-                    int stopTileX = tileX;
-                    for (int ty = minTileY; ty <= maxTileY; ty++) {
-                        int tx = (int) Math.floor((body.x + body.width + dx) / ts);
-                        if (world.isSolid(world.getTileId(tx, ty))) {
-                            stopTileX = tx;
-                            break;
-                        }
-                    }
-                    body.x = stopTileX * ts - body.width;
+    /**
+     * Moves the already integrated body by its velocity and resolves tile collisions. Reads and
+     * writes only this entity's body slot and reads tiles, so entities can collide concurrently
+     * when every one reads the same {@link TileView}; the new position is not visible through
+     * {@link #position()} until {@link #commit()}.
+     *
+     * @param view captured chunks to collide against, or null to use the world's chunk cache
+     */
+    public void collide(World world, TileView view) {
+        final BodyStore b = body();
+        final int s = bodySlot;
+        float x = b.x[s], y = b.y[s];
+        float vx = b.vx[s], vy = b.vy[s];
+        final float width = b.width[s], height = b.height[s];
+
+        // Resolve collisions against TileWorld: sweep the whole motion, stop at the first
+        // contact, cancel velocity along its normal and slide along the rest
+        boolean onGround = false;
+        tiles.reset(world, view);
+
+        float dx = vx, dy = vy;
+        for (int i = 0; i < MAX_SLIDES && (dx != 0f || dy != 0f); i++) {
+            if (!sweep.sweep(tiles, x, y, width, height, dx, dy)) {
+                x += dx;
+                y += dy;
+                break;
+            }
+            x = sweep.x;
+            y = sweep.y;
+            float rest = 1f - sweep.time;
+            if (sweep.normalX != 0) {
+                // Wall: stop horizontally, keep falling or rising
+                vx = 0f;
+                dx = 0f;
+                dy *= rest;
+            } else if (sweep.normalY > 0) {
+                // Landed on ground
+                if (vy < 0) {
+                    vy = -vy * world.restitution();
+                    if (Math.abs(vy) < 0.01f) vy = 0f;
                 } else {
-                    // moving left: clamp to right edge of blocking tile
-                    int maxTileY = (int) Math.floor((body.y + body.height - 0.001f) / ts);
-                    int minTileY = (int) Math.floor((body.y + 0.001f) / ts);
-                    int tileX = (int) Math.floor((body.x + 0.001f) / ts);
-                    int stopTileX = tileX;
-                    for (int ty = minTileY; ty <= maxTileY; ty++) {
-                        int tx = (int) Math.floor((body.x + dx) / ts);
-                        if (world.isSolid(world.getTileId(tx, ty))) {
-                            stopTileX = tx;
-                            break;
-                        }
-                    }
-                    body.x = (stopTileX + 1) * ts;
+                    vy = 0f;
                 }
-                body.vx = 0f;
-            }
-        }
-
-        // Move along Y and resolve (sets onGround when landing)
-        float dy = body.vy;
-        if (dy != 0f) {
-            float newY = body.y + dy;
-            if (!collides(world, body.x, newY, body.width, body.height)) {
-                body.y = newY;
+                onGround = true;
+                dx *= rest;
+                dy = 0f;
             } else {
-                if (dy > 0) {
-                    // moving up: hit ceiling
-                    int maxTileX = (int) Math.floor((body.x + body.width - 0.001f) / ts);
-                    int minTileX = (int) Math.floor((body.x + 0.001f) / ts);
-                    int tileY = (int) Math.floor((body.y + body.height - 0.001f) / ts);
-                    int stopTileY = tileY;
-                    for (int tx = minTileX; tx <= maxTileX; tx++) {
-                        int ty = (int) Math.floor((body.y + body.height + dy) / ts);
-                        if (world.isSolid(world.getTileId(tx, ty))) {
-                            stopTileY = ty;
-                            break;
-                        }
-                    }
-                    body.y = stopTileY * ts - body.height;
-                    body.vy = 0f;
-                } else {
-                    // moving down: land on ground
-                    int maxTileX = (int) Math.floor((body.x + body.width - 0.001f) / ts);
-                    int minTileX = (int) Math.floor((body.x + 0.001f) / ts);
-                    int tileY = (int) Math.floor((body.y + 0.001f) / ts);
-                    int stopTileY = tileY;
-                    for (int tx = minTileX; tx <= maxTileX; tx++) {
-                        int ty = (int) Math.floor((body.y + dy) / ts);
-                        if (world.isSolid(world.getTileId(tx, ty))) {
-                            stopTileY = ty;
-                            break;
-                        }
-                    }
-                    body.y = (stopTileY + 1) * ts;
-                    if (body.vy < 0) {
-                        body.vy = -body.vy * world.restitution();
-                        if (Math.abs(body.vy) < 0.01f) body.vy = 0f;
-                    } else {
-                        body.vy = 0f;
-                    }
-                    body.onGround = true;
-                }
+                // Hit ceiling
+                vy = 0f;
+                dx *= rest;
+                dy = 0f;
             }
         }
 
         // Apply ground friction if grounded after Y resolution
-        if (body.onGround) {
-            body.vx *= world.groundFriction();
+        if (onGround) {
+            vx *= world.groundFriction();
         }
 
-        // Reset per-step acceleration
-        body.ax = 0;
-        body.ay = 0;
+        b.x[s] = x;
+        b.y[s] = y;
+        b.vx[s] = vx;
+        b.vy[s] = vy;
+        b.onGround[s] = onGround;
+    }
 
+    /**
+     * Publishes the body's simulated position through {@link #position()}.
+     */
+    public void commit() {
+        prevX = position.x;
+        prevY = position.y;
         // Sync entity position
-        position().set(body.x, body.y, 0);
+        BodyStore b = body();
+        position().set(b.x[bodySlot], b.y[bodySlot], 0);
     }
 
-    private static boolean collides(World world, float x, float y, float w, float h) {
-        // Determine tile range overlapped by AABB
-        int ts = world.tileSize();
-
-        int minTx = (int) Math.floor((x + 0.001f) / ts);
-        int maxTx = (int) Math.floor((x + w - 0.001f) / ts);
-        int minTy = (int) Math.floor((y + 0.001f) / ts);
-        int maxTy = (int) Math.floor((y + h - 0.001f) / ts);
-        for (int tx = minTx; tx <= maxTx; tx++) {
-            for (int ty = minTy; ty <= maxTy; ty++) {
-                if (world.isSolid(world.getTileId(tx, ty))) return true;
-            }
-        }
-        return false;
+    /**
+     * Upper bound of the distance this entity can move in its next step, in world units.
+     */
+    public float stepReach(World world) {
+        BodyStore b = body();
+        int s = bodySlot;
+        return Math.abs(b.vx[s] + b.ax[s]) + Math.abs(b.vy[s] + b.ay[s] + world.gravity());
+    }
+
+    /**
+     * The store holding this entity's body, creating a private single-slot one from the parked
+     * state if the entity is not attached to a world's store.
+     */
+    private BodyStore body() {
+        if (bodies == null) new BodyStore(1).attach(this);
+        return bodies;
     }
 
     public int health() {
@@ -387,35 +407,25 @@ public class Entity {
         }
     }
 
-    private static class Body {
-        float x, y;
-        float vx, vy;
-        float ax, ay;
-        boolean onGround;
-        float width, height;
-
-        Body(float x, float y, float width, float height) {
-            this.x = x;
-            this.y = y;
-            this.width = width;
-            this.height = height;
-        }
-    }
-
     public class Pathfinder {
 
-        // Pathfinding uses the world's tile size for cells so it aligns with TileWorld
-        private static final int MAX_EXPANSIONS = 5000; // safety cap to avoid runaway search
-
         public final List<EntityType> targets;
+        // Lower-cased name keys of the target types, for cheap candidate filtering
+        private final Set<String> targetKeys = new HashSet<>();
         private Path lastPath = null;
         private float lastTargetX = Float.NaN;
         private float lastTargetY = Float.NaN;
-        // Maximum jump height in world units; converted to tiles when generating neighbors
+        // Maximum jump height in world units; converted to tiles by the navigation rules
         private float maxJumpHeightWorld = Float.POSITIVE_INFINITY;
+        private NavRules rules = null;
+        // Search in flight on the world's path service, and the positions it was made for
+        private PathService.Request request = null;
+        private float requestStartX, requestStartY;
+        private final Vector3 step = new Vector3();
 
         public Pathfinder(List<EntityType> targets, float maxJumpHeight) {
             this.targets = targets;
+            for (EntityType t : targets) targetKeys.add(t.name.key().toLowerCase());
             if (maxJumpHeight > 0 && !Float.isInfinite(maxJumpHeight)) {
                 this.maxJumpHeightWorld = maxJumpHeight;
             }
@@ -429,241 +439,93 @@ public class Entity {
             Entity.this.target = entity;
         }
 
+        /**
+         * Movement rules for this entity's size and jump height in the given world.
+         */
+        public NavRules rules(World world) {
+            if (rules == null) rules = NavRules.of(width(), height(), maxJumpHeightWorld, world.tileSize());
+            return rules;
+        }
+
+        /**
+         * Returns the path to follow towards the target. Searches run on the world's
+         * {@link PathService}: while a new path is being computed the previous one (or null)
+         * is returned, and the result replaces it on a later tick.
+         */
         public Path path(World world, Entity entity) {
             if (target == null)
                 findNewTarget(world, entity);
             if (target == null) return null;
 
+            if (request != null) {
+                if (!request.done()) return lastPath;
+                lastPath = toPath(world, request.cells());
+                request = null;
+            }
+
             // If target hasn't moved significantly and we have a path, reuse it
             float cellSize = world.tileSize();
             if (lastPath != null && Math.hypot(target.position().x - lastTargetX, target.position().y - lastTargetY) < cellSize * 0.25f) {
                 return lastPath;
             }
 
-            // Compute new path using A*
+            // Queue a new search over the world's navigation graph
+            final int ts = world.tileSize();
             Vector3 start = entity.position();
             Vector3 goal = target.position();
-            Path computed = aStar(world, entity, start.x, start.y, goal.x, goal.y);
-            if (computed == null || computed.isEmpty()) {
-                // Fallback to direct line path
-                Path fallback = new Path();
-                fallback.addWaypoint(start.x, start.y);
-                fallback.addWaypoint(goal.x, goal.y);
-                lastPath = fallback;
-            } else {
-                lastPath = computed;
-            }
+            request = world.paths().request(rules(world),
+                    (int) Math.floor(start.x / ts), (int) Math.floor(start.y / ts),
+                    (int) Math.floor(goal.x / ts), (int) Math.floor(goal.y / ts));
+            requestStartX = start.x;
+            requestStartY = start.y;
             lastTargetX = goal.x;
             lastTargetY = goal.y;
             return lastPath;
         }
 
-        private void findNewTarget(World world, Entity exclude) {
-            float closestDistance = Float.MAX_VALUE;
-            Entity closestEntity = null;
-            for (Entity other : world.entities) {
-                if (other == exclude) continue;
-                if (targets.stream().noneMatch(t -> t.name.key().equalsIgnoreCase(other.type().name.key()))) continue;
-                float distance = exclude.position().dst(other.position());
-                if (distance < closestDistance) {
-                    closestDistance = distance;
-                    closestEntity = other;
-                }
-            }
-            Entity.this.target = closestEntity;
-
-        }
-
-        private Path aStar(World world, Entity entity, float sx, float sy, float gx, float gy) {
-            final int ts = world.tileSize();
-            int sxi = (int) Math.floor(sx / ts);
-            int syi = (int) Math.floor(sy / ts);
-            int gxi = (int) Math.floor(gx / ts);
-            int gyi = (int) Math.floor(gy / ts);
-            final int startYCell = syi;
-
-            Node start = new Node(sxi, syi, 0, 0, null);
-            Node goal = new Node(gxi, gyi, 0, 0, null);
-
-            PriorityQueue<Node> open = new PriorityQueue<>(Comparator.comparingDouble(n -> n.f));
-            Map<Node, Float> bestG = new HashMap<>();
-            Set<Node> closed = new HashSet<>();
-
-            start.f = heuristic(start, goal);
-            open.add(start);
-            bestG.put(start, 0f);
-
-            int expansions = 0;
-            while (!open.isEmpty() && expansions < MAX_EXPANSIONS) {
-                Node current = open.poll();
-                if (current.x == goal.x && current.y == goal.y) {
-                    return reconstruct(world, current);
-                }
-                if (!closed.add(current)) continue;
-                expansions++;
-
-                // Generate neighbors using TileWorld solidity with gravity and jump capabilities
-                for (Node neighbor : generateNeighbors(world, entity, current, startYCell)) {
-                    if (closed.contains(neighbor)) continue;
-                    float tentativeG = bestG.get(current) + neighborCost(current, neighbor);
-                    Float knownG = bestG.get(neighbor);
-                    if (knownG == null || tentativeG < knownG) {
-                        neighbor.parent = current;
-                        neighbor.g = tentativeG;
-                        neighbor.f = tentativeG + heuristic(neighbor, goal);
-                        bestG.put(neighbor, tentativeG);
-                        open.add(neighbor);
-                    }
-                }
-            }
-            return null; // failed to find path within limits
-        }
-
-        private float heuristic(Node a, Node b) {
-            // Manhattan for grid with gravity works well
-            int dx = Math.abs(a.x - b.x);
-            int dy = Math.abs(a.y - b.y);
-            return dx + dy;
-        }
-
-        private Path reconstruct(World world, Node end) {
-            final int ts = world.tileSize();
-            ArrayList<float[]> rev = new ArrayList<>();
-            Node n = end;
-            while (n != null) {
-                rev.add(new float[]{n.x * ts, n.y * ts});
-                n = n.parent;
-            }
-            Path p = new Path();
-            for (int i = rev.size() - 1; i >= 0; i--) {
-                float[] xy = rev.get(i);
-                p.addWaypoint(xy[0], xy[1]);
-            }
-            return p;
-        }
+        /**
+         * Returns the next point to move to towards the target, read in O(1) from the target's
+         * shared {@link FlowField} while this entity is inside it. Elsewhere, or where the
+         * field has no route, it falls back to the current waypoint of {@link #path}. The
+         * returned vector is reused by later calls.
+         */
+        public Vector3 next(World world, Entity entity) {
+            if (target == null)
+                findNewTarget(world, entity);
+            if (target == null) return null;
 
-        private Iterable<Node> generateNeighbors(World world, Entity entity, Node current, int startYCell) {
-            java.util.ArrayList<Node> result = new java.util.ArrayList<>(8);
             final int ts = world.tileSize();
+            FlowField field = world.flowFields().field(target, rules(world));
+            long cell = field.next((int) Math.floor(entity.position().x / ts), (int) Math.floor(entity.position().y / ts));
+            if (cell != FlowField.NONE) return step.set(NavRules.cellX(cell) * ts, NavRules.cellY(cell) * ts, 0);
 
-            // Helper lambdas over tile coords
-            java.util.function.BiFunction<Integer, Integer, Boolean> standable = (tx, ty) -> isStandableAt(world, entity, tx, ty);
-            java.util.function.BiFunction<Integer, Integer, Boolean> fits = (tx, ty) -> fitsAt(world, entity, tx, ty);
-
-            int cx = current.x;
-            int cy = current.y;
-
-            // Ensure current is valid; if not on ground, drop to ground directly
-            if (!standable.apply(cx, cy)) {
-                int landY = findFallLandingY(world, entity, cx, cy, 8);
-                if (landY != Integer.MIN_VALUE) {
-                    result.add(new Node(cx, landY, 0, 0, current));
-                }
-                return result;
-            }
-
-            // Walk left/right on same level if destination standable
-            int nx = cx - 1;
-            if (standable.apply(nx, cy)) result.add(new Node(nx, cy, 0, 0, current));
-            else {
-                // If stepping into air, allow falling to first landing at that x
-                if (fits.apply(nx, cy)) {
-                    int land = findFallLandingY(world, entity, nx, cy, 8);
-                    if (land != Integer.MIN_VALUE) result.add(new Node(nx, land, 0, 0, current));
-                }
-            }
-            nx = cx + 1;
-            if (standable.apply(nx, cy)) result.add(new Node(nx, cy, 0, 0, current));
-            else {
-                if (fits.apply(nx, cy)) {
-                    int land = findFallLandingY(world, entity, nx, cy, 8);
-                    if (land != Integer.MIN_VALUE) result.add(new Node(nx, land, 0, 0, current));
-                }
-            }
-
-            // Step up and simple jump up: try up to maxJumpCells tiles higher, limited breadth (±1 x)
-            int maxUpTiles = (int) Math.floor(maxJumpHeightWorld / ts);
-            if (maxUpTiles <= 0 || maxUpTiles > 8) maxUpTiles = 3; // default conservative cap
-            int maxUp = Math.min(maxUpTiles, 3); // keep conservative for minimal implementation
-            for (int j = 1; j <= maxUp; j++) {
-                // vertical clearance at current x
-                if (fits.apply(cx, cy + j) && standable.apply(cx, cy + j)) {
-                    result.add(new Node(cx, cy + j, 0, 0, current));
-                    break;
-                }
-                // adjacent x
-                if (fits.apply(cx - 1, cy + j) && standable.apply(cx - 1, cy + j)) {
-                    result.add(new Node(cx - 1, cy + j, 0, 0, current));
-                    break;
-                }
-                if (fits.apply(cx + 1, cy + j) && standable.apply(cx + 1, cy + j)) {
-                    result.add(new Node(cx + 1, cy + j, 0, 0, current));
-                    break;
-                }
-            }
-
-            // Allow small step down (descending stairs)
-            if (standable.apply(cx, cy - 1)) result.add(new Node(cx, cy - 1, 0, 0, current));
-
-            return result;
+            Path p = path(world, entity);
+            return p == null || p.isEmpty() ? null : p.peek();
         }
 
-        private int findFallLandingY(World world, Entity entity, int tx, int startTy, int maxScan) {
-            // Scan downward until we find first standable position
-            for (int dy = 1; dy <= maxScan; dy++) {
-                int ty = startTy - dy;
-                if (isStandableAt(world, entity, tx, ty)) return ty;
-                // if we've hit solid where body overlaps, stop
-                if (!fitsAt(world, entity, tx, ty)) return Integer.MIN_VALUE;
-            }
-            return Integer.MIN_VALUE;
+        private void findNewTarget(World world, Entity exclude) {
+            Vector3 from = exclude.position();
+            Entity.this.target = world.entityIndex().nearest(from.x, from.y, Float.POSITIVE_INFINITY,
+                    other -> other != exclude && targetKeys.contains(other.type().name.key().toLowerCase()));
         }
 
-        private boolean isStandableAt(World world, Entity entity, int tx, int ty) {
-            if (!fitsAt(world, entity, tx, ty)) return false;
-            // Require solid ground directly below any part of the entity's feet
-            final int ts = world.tileSize();
-            float wx = tx * ts;
-            float wy = (ty * ts) - 1; // just below feet
-            // Check across the entity's width
-            float ex = wx + entity.width();
-            for (float x = wx; x < ex; x += Math.min(ts, entity.width())) {
-                if (world.isSolidAtWorld(x + 0.5f, wy)) return true;
+        private Path toPath(World world, long[] cells) {
+            Path p = new Path();
+            if (cells == null || cells.length == 0) {
+                // Fallback to direct line path
+                p.addWaypoint(requestStartX, requestStartY);
+                p.addWaypoint(lastTargetX, lastTargetY);
+                return p;
             }
-            // Also check the far edge
-            if (world.isSolidAtWorld(ex - 0.5f, wy)) return true;
-            return false;
-        }
-
-        private boolean fitsAt(World world, Entity entity, int tx, int ty) {
             final int ts = world.tileSize();
-            float wx = tx * ts;
-            float wy = ty * ts;
-            // AABB vs solid tiles using sampling at tile grid
-            int minTx = (int) Math.floor((wx + 0.001f) / ts);
-            int maxTx = (int) Math.floor((wx + entity.width() - 0.001f) / ts);
-            int minTy = (int) Math.floor((wy + 0.001f) / ts);
-            int maxTy = (int) Math.floor((wy + entity.height() - 0.001f) / ts);
-            for (int ix = minTx; ix <= maxTx; ix++) {
-                for (int iy = minTy; iy <= maxTy; iy++) {
-                    if (world.isSolid(world.getTileId(ix, iy))) return false;
-                }
-            }
-            return true;
-        }
-
-        private float neighborCost(Node a, Node b) {
-            // Base cost: horizontal/vertical move is 1 per tile; vertical up weighs slightly more
-            int dx = Math.abs(a.x - b.x);
-            int dy = Math.abs(a.y - b.y);
-            float cost = dx + dy;
-            if (b.y > a.y) cost += 0.25f * (b.y - a.y); // discourage excessive jumping
-            return cost;
+            for (long cell : cells) p.addWaypoint(NavRules.cellX(cell) * ts, NavRules.cellY(cell) * ts);
+            return p;
         }
 
         public void clear() {
             Entity.this.path = null;
             Entity.this.target = null;
+            request = null;
         }
 
         public static class Path {
@@ -707,32 +569,5 @@ public class Entity {
             }
         }
 
-        private class Node {
-            final int x, y;
-            float g; // cost from start
-            float f; // g + heuristic
-            Node parent;
-
-            Node(int x, int y, float g, float f, Node parent) {
-                this.x = x;
-                this.y = y;
-                this.g = g;
-                this.f = f;
-                this.parent = parent;
-            }
-
-            @Override
-            public int hashCode() {
-                return (x * 73856093) ^ (y * 19349663);
-            }
-
-            @Override
-            public boolean equals(Object o) {
-                if (!(o instanceof Node)) return false;
-                Node n = (Node) o;
-                return n.x == x && n.y == y;
-            }
-        }
-
     }
 }
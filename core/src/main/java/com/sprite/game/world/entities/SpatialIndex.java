@@ -0,0 +1,234 @@
+package com.sprite.game.world.entities;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Uniform-grid broadphase over entity positions.
+ * <p>
+ * Each entity is bucketed by the cell containing its {@link Entity#position() position}. The
+ * owning world calls {@link #update(Entity)} after an entity moves, which only touches the
+ * buckets when the entity actually changes cell. Range, nearest and AABB queries then visit
+ * the cells around the query instead of every entity. AABB queries widen their search by the
+ * largest entity size seen so entities overlapping from neighbouring cells are not missed.
+ * Not thread-safe; owned by the world.
+ */
+public class SpatialIndex {
+
+    private final float cellSize;
+    private final Map<Long, List<Entity>> cells = new HashMap<>();
+    private int size = 0;
+    // Extents of the occupied cells; bounds the nearest-neighbour ring search
+    private int minCellX = Integer.MAX_VALUE, maxCellX = Integer.MIN_VALUE;
+    private int minCellY = Integer.MAX_VALUE, maxCellY = Integer.MIN_VALUE;
+    private boolean extentsStale = false; // a cell on the extents emptied; recomputed on demand
+    private float maxWidth = 0f, maxHeight = 0f;
+
+    /**
+     * @param cellSize cell edge length in world units
+     */
+    public SpatialIndex(float cellSize) {
+        if (cellSize <= 0) throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        this.cellSize = cellSize;
+    }
+
+    public void add(Entity entity) {
+        if (entity.indexed) return;
+        int cx = cell(entity.position().x);
+        int cy = cell(entity.position().y);
+        insert(entity, cx, cy);
+        entity.indexed = true;
+        size++;
+        maxWidth = Math.max(maxWidth, entity.width());
+        maxHeight = Math.max(maxHeight, entity.height());
+    }
+
+    public void remove(Entity entity) {
+        if (!entity.indexed) return;
+        unlink(entity);
+        entity.indexed = false;
+        size--;
+    }
+
+    /**
+     * Moves the entity to the bucket of its current position if it changed cell.
+     */
+    public void update(Entity entity) {
+        if (!entity.indexed) return;
+        int cx = cell(entity.position().x);
+        int cy = cell(entity.position().y);
+        if (key(cx, cy) == entity.indexCell) return;
+        unlink(entity);
+        insert(entity, cx, cy);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Visits every entity whose position lies within {@code radius} of (x, y).
+     */
+    public void forEachInRange(float x, float y, float radius, Consumer<Entity> consumer) {
+        float r2 = radius * radius;
+        int minCx = cell(x - radius), maxCx = cell(x + radius);
+        int minCy = cell(y - radius), maxCy = cell(y + radius);
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cy = minCy; cy <= maxCy; cy++) {
+                List<Entity> bucket = cells.get(key(cx, cy));
+                if (bucket == null) continue;
+                for (int i = 0; i < bucket.size(); i++) {
+                    Entity e = bucket.get(i);
+                    float dx = e.position().x - x;
+                    float dy = e.position().y - y;
+                    if (dx * dx + dy * dy <= r2) consumer.accept(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the entity closest to (x, y) that matches the filter, searching outward ring by
+     * ring and stopping as soon as no unvisited cell can hold a closer match. Once the rings
+     * would cover more cells than are occupied, e.g. for a lone far-away match, the remaining
+     * buckets are scanned directly instead.
+     *
+     * @param maxRadius search limit in world units; use {@link Float#POSITIVE_INFINITY} for none
+     * @return the nearest match or null
+     */
+    public Entity nearest(float x, float y, float maxRadius, Predicate<Entity> filter) {
+        if (size == 0) return null;
+        if (extentsStale) recomputeExtents();
+        int ox = cell(x), oy = cell(y);
+        // Rings needed to cover every occupied cell, or the radius limit if smaller
+        int maxRing = Math.max(Math.max(ox - minCellX, maxCellX - ox), Math.max(oy - minCellY, maxCellY - oy));
+        if (!Float.isInfinite(maxRadius)) maxRing = Math.min(maxRing, (int) Math.ceil(maxRadius / cellSize) + 1);
+        float limit2 = Float.isInfinite(maxRadius) ? Float.MAX_VALUE : maxRadius * maxRadius;
+
+        Entity best = null;
+        float best2 = limit2;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (best != null) {
+                // Closest possible point of this ring is (ring - 1) whole cells away
+                float reach = (ring - 1) * cellSize;
+                if (reach > 0 && reach * reach > best2) break;
+            }
+            if ((long) (2 * ring + 1) * (2 * ring + 1) > cells.size()) {
+                // Cheaper to visit every occupied cell outside the rings searched so far
+                for (Map.Entry<Long, List<Entity>> entry : cells.entrySet()) {
+                    long key = entry.getKey();
+                    if (Math.abs(cellX(key) - ox) < ring && Math.abs(cellY(key) - oy) < ring) continue;
+                    List<Entity> bucket = entry.getValue();
+                    for (int i = 0; i < bucket.size(); i++) {
+                        Entity e = bucket.get(i);
+                        float dx = e.position().x - x;
+                        float dy = e.position().y - y;
+                        float d2 = dx * dx + dy * dy;
+                        if (d2 < best2 && filter.test(e)) {
+                            best2 = d2;
+                            best = e;
+                        }
+                    }
+                }
+                break;
+            }
+            for (int cx = ox - ring; cx <= ox + ring; cx++) {
+                boolean edgeColumn = cx == ox - ring || cx == ox + ring;
+                for (int cy = oy - ring; cy <= oy + ring; cy += edgeColumn ? 1 : Math.max(1, 2 * ring)) {
+                    List<Entity> bucket = cells.get(key(cx, cy));
+                    if (bucket == null) continue;
+                    for (int i = 0; i < bucket.size(); i++) {
+                        Entity e = bucket.get(i);
+                        float dx = e.position().x - x;
+                        float dy = e.position().y - y;
+                        float d2 = dx * dx + dy * dy;
+                        if (d2 < best2 && filter.test(e)) {
+                            best2 = d2;
+                            best = e;
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Visits every entity whose bounding box overlaps the given world-space AABB.
+     */
+    public void forEachOverlapping(float x, float y, float width, float height, Consumer<Entity> consumer) {
+        // Entities are bucketed by their lower-left corner, so widen toward negative axes
+        int minCx = cell(x - maxWidth), maxCx = cell(x + width);
+        int minCy = cell(y - maxHeight), maxCy = cell(y + height);
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cy = minCy; cy <= maxCy; cy++) {
+                List<Entity> bucket = cells.get(key(cx, cy));
+                if (bucket == null) continue;
+                for (int i = 0; i < bucket.size(); i++) {
+                    Entity e = bucket.get(i);
+                    float ex = e.position().x, ey = e.position().y;
+                    if (ex < x + width && ex + e.width() > x && ey < y + height && ey + e.height() > y) {
+                        consumer.accept(e);
+                    }
+                }
+            }
+        }
+    }
+
+    private void insert(Entity entity, int cx, int cy) {
+        long key = key(cx, cy);
+        cells.computeIfAbsent(key, k -> new ArrayList<>(4)).add(entity);
+        entity.indexCell = key;
+        if (cx < minCellX) minCellX = cx;
+        if (cx > maxCellX) maxCellX = cx;
+        if (cy < minCellY) minCellY = cy;
+        if (cy > maxCellY) maxCellY = cy;
+    }
+
+    /**
+     * Takes the entity out of its bucket, dropping the bucket if it empties.
+     */
+    private void unlink(Entity entity) {
+        long key = entity.indexCell;
+        List<Entity> bucket = cells.get(key);
+        if (bucket == null) return;
+        bucket.remove(entity);
+        if (!bucket.isEmpty()) return;
+        cells.remove(key);
+        int cx = cellX(key), cy = cellY(key);
+        if (cx == minCellX || cx == maxCellX || cy == minCellY || cy == maxCellY) extentsStale = true;
+    }
+
+    private void recomputeExtents() {
+        minCellX = minCellY = Integer.MAX_VALUE;
+        maxCellX = maxCellY = Integer.MIN_VALUE;
+        for (long key : cells.keySet()) {
+            int cx = cellX(key), cy = cellY(key);
+            if (cx < minCellX) minCellX = cx;
+            if (cx > maxCellX) maxCellX = cx;
+            if (cy < minCellY) minCellY = cy;
+            if (cy > maxCellY) maxCellY = cy;
+        }
+        extentsStale = false;
+    }
+
+    private int cell(float v) {
+        return (int) Math.floor(v / cellSize);
+    }
+
+    private static long key(int x, int y) {
+        return (((long) x) << 32) ^ (y & 0xffffffffL);
+    }
+
+    private static int cellX(long key) {
+        return (int) (key >> 32);
+    }
+
+    private static int cellY(long key) {
+        return (int) key;
+    }
+}
@@ -4,7 +4,8 @@ import com.sprite.game.world.tiles.TileChunk;
 import org.json.JSONObject;
 
 /**
- * Functional interface to generate the contents of a single 8x8 tile chunk.
+ * Functional interface to generate the contents of a single tile chunk. Chunk dimensions are
+ * a per-world setting, so implementations must size their loops with {@link TileChunk#size()}.
  * Implementations should deterministically fill the provided chunk based on
  * the chunk coordinates so generation can be repeated on demand.
  */
@@ -12,4 +13,12 @@ public interface ChunkGenerator {
     void generate(int chunkX, int chunkY, TileChunk chunk);
 
     JSONObject data();
+
+    /**
+     * Tile y of the topmost generated solid tile in the column, without generating chunks, or
+     * {@link Integer#MIN_VALUE} if the generator cannot tell. Ignores edits made after generation.
+     */
+    default int surfaceHeight(int tileX) {
+        return Integer.MIN_VALUE;
+    }
 }
@@ -1,5 +1,6 @@
 package com.sprite.game.world.gen;
 
+import com.sprite.game.world.gen.pipeline.PipelineGenerator;
 import org.json.JSONObject;
 
 public class ChunkGeneratorFactory {
@@ -42,6 +43,11 @@ public class ChunkGeneratorFactory {
                 return new SmoothRollingHillsGenerator(generator);
             }
 
+            case "pipeline":
+            case "biomes":
+                // Staged biome generator; see PipelineGenerator for the schema
+                return new PipelineGenerator(generator);
+
             default:
                 // Fallback to flat to avoid crashes if type missing/unknown
                 return new FlatBottomGenerator(generator);
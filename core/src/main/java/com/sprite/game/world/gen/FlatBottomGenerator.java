@@ -44,12 +44,11 @@ public class FlatBottomGenerator implements ChunkGenerator {
 
     @Override
     public void generate(int chunkX, int chunkY, TileChunk chunk) {
-        System.out.println("FlatBottomGenerator");
-
         // Global Y=0 corresponds to local tile index y==0 in chunks where chunkY==0
-        for (int x = 0; x < TileChunk.SIZE; x++) {
-            for (int y = 0; y < TileChunk.SIZE; y++) {
-                int globalY = chunkY * TileChunk.SIZE + y;
+        final int size = chunk.size();
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                int globalY = chunkY * size + y;
                 // Fill exactly the bottom layer at global y==0
                 if (globalY == 0) {
                     chunk.set(x, y, 1);
@@ -60,6 +59,11 @@ public class FlatBottomGenerator implements ChunkGenerator {
         }
     }
 
+    @Override
+    public int surfaceHeight(int tileX) {
+        return 0;
+    }
+
     @Override
     public JSONObject data() {
         JSONObject json = new JSONObject();
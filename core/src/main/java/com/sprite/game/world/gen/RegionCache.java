@@ -0,0 +1,45 @@
+package com.sprite.game.world.gen;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded least-recently-used cache of per-region generation results, keyed by region index.
+ * Used by generators for column data shared by stacked chunks and by the pipeline stages.
+ * <p>
+ * Results are computed outside the lock, so threads generating different chunks never wait for
+ * each other's computations. Two threads missing the same region both compute it; stages are
+ * deterministic, so either result is kept and the other discarded. Cached results must not be
+ * modified.
+ */
+public final class RegionCache<T> {
+
+    private final int capacity;
+    private final Map<Long, T> regions;
+
+    public RegionCache(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.regions = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, T> eldest) {
+                return size() > RegionCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result for the region, computing it if necessary.
+     */
+    public T get(long region, LongFunction<T> compute) {
+        synchronized (this) {
+            T cached = regions.get(region);
+            if (cached != null) return cached;
+        }
+        T result = compute.apply(region);
+        synchronized (this) {
+            T raced = regions.putIfAbsent(region, result);
+            return raced != null ? raced : result;
+        }
+    }
+}
@@ -3,10 +3,19 @@ package com.sprite.game.world.gen;
 import com.sprite.game.world.tiles.TileChunk;
 import org.json.JSONObject;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Generates rolling terrain using deterministic fractal value noise (fBm).
  * Compared to pure sine waves, this adds natural-looking randomness while
  * remaining repeatable across chunks and runs (for a given seed).
+ * <p>
+ * Terrain depends only on the column, so the surface height and dirt depth of each column are
+ * computed once and cached in blocks of {@link #BLOCK_SIZE} columns. Every chunk stacked above
+ * or below reuses them, and so does {@link #surfaceHeight(int)}. The cache is bounded,
+ * thread-safe (chunks are generated on pipeline workers) and shared by all generators with the
+ * same terrain parameters.
  */
 public class SmoothRollingHillsGenerator implements ChunkGenerator {
 
@@ -27,6 +36,20 @@ public class SmoothRollingHillsGenerator implements ChunkGenerator {
      */
     private final java.util.Map<Integer, String> palette = new java.util.HashMap<>();
 
+    // Columns per cached block, and blocks kept per parameter set (~300 KB)
+    public static final int BLOCK_SIZE = 64;
+    private static final int MAX_CACHED_BLOCKS = 1024;
+    // Parameter sets whose caches are kept; caches of older ones are dropped
+    private static final int MAX_SHARED_CACHES = 8;
+    private static final Map<Shape, RegionCache<Block>> CACHES = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Shape, RegionCache<Block>> eldest) {
+            return size() > MAX_SHARED_CACHES;
+        }
+    };
+    private final RegionCache<Block> columns;
+    private final ValueNoise noise;
+
     /**
      * Backwards-compat constructor keeping previous signature. The wavelength is
      * mapped to a base frequency (1 / wavelength). The result is then scaled by
@@ -67,6 +90,12 @@ public class SmoothRollingHillsGenerator implements ChunkGenerator {
         this.baseFrequency = Math.max(1e-6, baseFrequency);
         this.lacunarity = Math.max(1.0, lacunarity);
         this.persistence = Math.max(0.0, Math.min(1.0, persistence));
+        this.noise = new ValueNoise(seed, this.octaves, this.baseFrequency, this.lacunarity, this.persistence);
+        Shape shape = new Shape(verticalScaleTiles, verticalOffset, seed, this.octaves, this.baseFrequency,
+                this.lacunarity, this.persistence);
+        synchronized (CACHES) {
+            this.columns = CACHES.computeIfAbsent(shape, k -> new RegionCache<>(MAX_CACHED_BLOCKS));
+        }
         // default palette matching legacy ids
         palette.put(1, "tiles:grass");
         palette.put(2, "tiles:dirt");
@@ -103,24 +132,18 @@ public class SmoothRollingHillsGenerator implements ChunkGenerator {
 
     @Override
     public void generate(int chunkX, int chunkY, TileChunk chunk) {
-        for (int lx = 0; lx < TileChunk.SIZE; lx++) {
-            int gx = chunkX * TileChunk.SIZE + lx; // global tile x
-
-            // fBm value noise in [-1, 1] approximately
-            double n = fbm(gx);
-
-            // Map noise to tile height: scale and offset
-            double h = n * verticalScaleTiles + verticalOffset;
-            int height = (int) Math.floor(h);
-
-            // Small deterministic jitter for how deep dirt extends before stone begins
-            // Range 0..2 tiles to keep variation subtle
-            int stoneDepthJitter = (int) ((mix(seed, gx * 1315423911L) >>> 61) & 0x3L); // 0..3
-            if (stoneDepthJitter > 2) stoneDepthJitter = 2; // clamp to 0..2
-            int maxDirtDepth = 4 + stoneDepthJitter;
-
-            for (int ly = 0; ly < TileChunk.SIZE; ly++) {
-                int gy = chunkY * TileChunk.SIZE + ly; // global tile y
+        final int size = chunk.size();
+        Block block = null;
+        for (int lx = 0; lx < size; lx++) {
+            int gx = chunkX * size + lx; // global tile x
+            int bx = Math.floorDiv(gx, BLOCK_SIZE);
+            if (block == null || block.x != bx) block = block(bx);
+            int column = gx - bx * BLOCK_SIZE;
+            int height = block.height[column];
+            int maxDirtDepth = block.dirtDepth[column];
+
+            for (int ly = 0; ly < size; ly++) {
+                int gy = chunkY * size + ly; // global tile y
                 if (gy == height) {
                     // Top surface: grass
                     chunk.set(lx, ly, 1);
@@ -140,6 +163,44 @@ public class SmoothRollingHillsGenerator implements ChunkGenerator {
         }
     }
 
+    /**
+     * Tile y of the grass surface in the given column, as generated (later edits are not
+     * reflected). Cheap after the first query near a column and never generates chunks.
+     */
+    @Override
+    public int surfaceHeight(int tileX) {
+        int bx = Math.floorDiv(tileX, BLOCK_SIZE);
+        return block(bx).height[tileX - bx * BLOCK_SIZE];
+    }
+
+    /**
+     * Returns the cached block of columns, computing it if necessary.
+     */
+    private Block block(int bx) {
+        return columns.get(bx, key -> computeBlock((int) key));
+    }
+
+    private Block computeBlock(int bx) {
+        Block block = new Block(bx, new int[BLOCK_SIZE], new byte[BLOCK_SIZE]);
+        // fBm value noise in [-1, 1] approximately, for the whole block at once
+        double[] n = new double[BLOCK_SIZE];
+        noise.fbm(bx * BLOCK_SIZE, BLOCK_SIZE, n);
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            int gx = bx * BLOCK_SIZE + i;
+
+            // Map noise to tile height: scale and offset
+            double h = n[i] * verticalScaleTiles + verticalOffset;
+            block.height[i] = (int) Math.floor(h);
+
+            // Small deterministic jitter for how deep dirt extends before stone begins
+            // Range 0..2 tiles to keep variation subtle
+            int stoneDepthJitter = (int) ((ValueNoise.mix(seed, gx * 1315423911L) >>> 61) & 0x3L); // 0..3
+            if (stoneDepthJitter > 2) stoneDepthJitter = 2; // clamp to 0..2
+            block.dirtDepth[i] = (byte) (4 + stoneDepthJitter);
+        }
+        return block;
+    }
+
     @Override
     public JSONObject data() {
         JSONObject json = new JSONObject();
@@ -160,56 +221,19 @@ public class SmoothRollingHillsGenerator implements ChunkGenerator {
         return json;
     }
 
-    // --- Noise implementation (deterministic value noise + fBm) ---
-
-    private double fbm(double x) {
-        double freq = baseFrequency;
-        double amp = 1.0;
-        double sum = 0.0;
-        double ampSum = 0.0;
-        for (int o = 0; o < octaves; o++) {
-            sum += amp * noise1D(x * freq);
-            ampSum += amp;
-            freq *= lacunarity;
-            amp *= persistence;
-        }
-        // Normalize to [-1,1] by dividing by max possible amplitude (ampSum)
-        if (ampSum > 1e-9) sum /= ampSum;
-        return sum; // already roughly in [-1,1]
-    }
+    // --- Column cache ---
 
-    private double noise1D(double x) {
-        int xi = (int) Math.floor(x);
-        double t = x - xi;
-        double a = valueAt(xi);
-        double b = valueAt(xi + 1);
-        double u = fade(t);
-        return lerp(a, b, u); // returns in [-1,1]
-    }
-
-    // Smoothstep-like fade (Perlin's 6t^5 - 15t^4 + 10t^3)
-    private static double fade(double t) {
-        return t * t * t * (t * (t * 6 - 15) + 10);
-    }
-
-    private static double lerp(double a, double b, double t) {
-        return a + (b - a) * t;
-    }
-
-    // Deterministic pseudo-random value in [-1,1] for integer coordinate
-    private double valueAt(int x) {
-        long h = mix(seed, x);
-        // Map to [0,1)
-        double d = ((h >>> 11) & 0x1fffffL) / (double) (1 << 21); // 21-bit fraction
-        return d * 2.0 - 1.0; // [-1,1)
+    /**
+     * Surface height and dirt depth of {@link #BLOCK_SIZE} consecutive columns starting at
+     * column {@code x * BLOCK_SIZE}. Never modified once cached.
+     */
+    private record Block(int x, int[] height, byte[] dirtDepth) {
     }
 
-    // 64-bit mix based on splitmix64-like steps for good bit diffusion
-    private static long mix(long seed, long x) {
-        long z = seed + 0x9E3779B97F4A7C15L * (x + 0xD1B54A32D192ED03L);
-        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
-        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
-        z = z ^ (z >>> 31);
-        return z;
+    /**
+     * Parameters that determine column data; generators with equal shapes share a cache.
+     */
+    private record Shape(float amplitude, float verticalOffset, long seed, int octaves, double baseFrequency,
+                         double lacunarity, double persistence) {
     }
 }
@@ -0,0 +1,252 @@
+package com.sprite.game.world.gen;
+
+/**
+ * Deterministic one-dimensional fractal value noise (fBm) for terrain generators, with a
+ * two-dimensional variant for features such as caves.
+ * <p>
+ * Besides the scalar {@link #fbm(double)}, {@link #fbm(int, int, double[])} fills a whole run of
+ * integer coordinates in one call. Per octave it hashes each lattice point the run touches once,
+ * since neighbouring samples mostly share lattice points at terrain frequencies. It then
+ * sums the octaves of each sample from those tables without hashing. Every sample goes through
+ * the same floating point operations in the same order as the scalar path, so the batch results
+ * are bit-for-bit identical to it. Immutable and thread-safe.
+ */
+public final class ValueNoise {
+
+    private final long seed;
+    private final int octaves;
+    private final double baseFrequency;       // base frequency in cycles per tile
+    private final double lacunarity;          // frequency multiplier per octave
+    private final double persistence;         // amplitude multiplier per octave
+
+    public ValueNoise(long seed, int octaves, double baseFrequency, double lacunarity, double persistence) {
+        this.seed = seed;
+        this.octaves = octaves;
+        this.baseFrequency = baseFrequency;
+        this.lacunarity = lacunarity;
+        this.persistence = persistence;
+    }
+
+    /**
+     * fBm value noise at x, roughly in [-1, 1].
+     */
+    public double fbm(double x) {
+        double freq = baseFrequency;
+        double amp = 1.0;
+        double sum = 0.0;
+        double ampSum = 0.0;
+        for (int o = 0; o < octaves; o++) {
+            sum += amp * noise(x * freq);
+            ampSum += amp;
+            freq *= lacunarity;
+            amp *= persistence;
+        }
+        // Normalize to [-1,1] by dividing by max possible amplitude (ampSum)
+        if (ampSum > 1e-9) sum /= ampSum;
+        return sum; // already roughly in [-1,1]
+    }
+
+    /**
+     * Fills {@code out[0 .. count)} with {@link #fbm(double)} at x0, x0 + 1, ..., x0 + count - 1.
+     */
+    public void fbm(int x0, int count, double[] out) {
+        if (count <= 0) return;
+        // Per octave, the lattice values of the points lo..hi the run touches, or null when the
+        // octave samples more lattice points than there are samples and hashes per sample instead
+        double[][] lattice = new double[octaves][];
+        int[] lo = new int[octaves];
+        double[] freqs = new double[octaves];
+        double[] amps = new double[octaves];
+        double freq = baseFrequency;
+        double amp = 1.0;
+        double ampSum = 0.0;
+        for (int o = 0; o < octaves; o++) {
+            freqs[o] = freq;
+            amps[o] = amp;
+            // Samples increase with x, so the octave touches the lattice points lo..hi only
+            int first = floor((double) x0 * freq);
+            int points = floor((double) (x0 + count - 1) * freq) + 2 - first;
+            if (points > 0 && points <= 2 * count) {
+                double[] values = new double[points];
+                for (int k = 0; k < points; k++) values[k] = valueAt(first + k);
+                lattice[o] = values;
+                lo[o] = first;
+            }
+            ampSum += amp;
+            freq *= lacunarity;
+            amp *= persistence;
+        }
+        // Sum the octaves of each sample in a register, in the scalar path's order
+        for (int i = 0; i < count; i++) {
+            double sum = 0.0;
+            for (int o = 0; o < octaves; o++) {
+                double x = (double) (x0 + i) * freqs[o];
+                double[] values = lattice[o];
+                if (values != null) {
+                    int xi = floor(x);
+                    int k = xi - lo[o];
+                    sum += amps[o] * lerp(values[k], values[k + 1], fade(x - xi));
+                } else {
+                    sum += amps[o] * noise(x);
+                }
+            }
+            if (ampSum > 1e-9) sum /= ampSum;
+            out[i] = sum;
+        }
+    }
+
+    /**
+     * Single octave of value noise at x, in [-1, 1].
+     */
+    public double noise(double x) {
+        int xi = floor(x);
+        double t = x - xi;
+        double a = valueAt(xi);
+        double b = valueAt(xi + 1);
+        double u = fade(t);
+        return lerp(a, b, u); // returns in [-1,1]
+    }
+
+    /**
+     * Two-dimensional fBm value noise at (x, y), roughly in [-1, 1]. Uses the same octave
+     * parameters as the one-dimensional noise.
+     */
+    public double fbm(double x, double y) {
+        double freq = baseFrequency;
+        double amp = 1.0;
+        double sum = 0.0;
+        double ampSum = 0.0;
+        for (int o = 0; o < octaves; o++) {
+            sum += amp * noise(x * freq, y * freq);
+            ampSum += amp;
+            freq *= lacunarity;
+            amp *= persistence;
+        }
+        if (ampSum > 1e-9) sum /= ampSum;
+        return sum;
+    }
+
+    /**
+     * Fills {@code out[i * height + j]} with {@link #fbm(double, double)} at (x0 + i, y0 + j)
+     * for the {@code width} x {@code height} block of integer coordinates. Like the
+     * one-dimensional batch, each lattice point is hashed once per octave and the results are
+     * bit-for-bit identical to the scalar path.
+     */
+    public void fbm(int x0, int y0, int width, int height, double[] out) {
+        if (width <= 0 || height <= 0) return;
+        final int samples = width * height;
+        int[] cellX = new int[width];
+        double[] fadeX = new double[width];
+        int[] cellY = new int[height];
+        double[] fadeY = new double[height];
+        double[] lattice = new double[0];
+        double freq = baseFrequency;
+        double amp = 1.0;
+        double ampSum = 0.0;
+        for (int k = 0; k < samples; k++) out[k] = 0.0;
+        for (int o = 0; o < octaves; o++) {
+            int loX = floor((double) x0 * freq);
+            int loY = floor((double) y0 * freq);
+            int pointsX = floor((double) (x0 + width - 1) * freq) + 2 - loX;
+            int pointsY = floor((double) (y0 + height - 1) * freq) + 2 - loY;
+            if (pointsX > 0 && pointsY > 0 && (long) pointsX * pointsY <= 2L * samples) {
+                if (lattice.length < pointsX * pointsY) lattice = new double[pointsX * pointsY];
+                for (int a = 0; a < pointsX; a++) {
+                    for (int b = 0; b < pointsY; b++) lattice[a * pointsY + b] = valueAt(loX + a, loY + b);
+                }
+                for (int i = 0; i < width; i++) {
+                    double x = (double) (x0 + i) * freq;
+                    int xi = floor(x);
+                    cellX[i] = xi - loX;
+                    fadeX[i] = fade(x - xi);
+                }
+                for (int j = 0; j < height; j++) {
+                    double y = (double) (y0 + j) * freq;
+                    int yi = floor(y);
+                    cellY[j] = yi - loY;
+                    fadeY[j] = fade(y - yi);
+                }
+                for (int i = 0; i < width; i++) {
+                    int column = cellX[i] * pointsY;
+                    double u = fadeX[i];
+                    for (int j = 0; j < height; j++) {
+                        int c = column + cellY[j];
+                        double bottom = lerp(lattice[c], lattice[c + pointsY], u);
+                        double top = lerp(lattice[c + 1], lattice[c + pointsY + 1], u);
+                        out[i * height + j] += amp * lerp(bottom, top, fadeY[j]);
+                    }
+                }
+            } else {
+                // High octaves sample more lattice points than there are samples
+                for (int i = 0; i < width; i++) {
+                    for (int j = 0; j < height; j++) {
+                        out[i * height + j] += amp * noise((double) (x0 + i) * freq, (double) (y0 + j) * freq);
+                    }
+                }
+            }
+            ampSum += amp;
+            freq *= lacunarity;
+            amp *= persistence;
+        }
+        if (ampSum > 1e-9) {
+            for (int k = 0; k < samples; k++) out[k] /= ampSum;
+        }
+    }
+
+    /**
+     * Single octave of two-dimensional value noise at (x, y), in [-1, 1].
+     */
+    public double noise(double x, double y) {
+        int xi = floor(x);
+        int yi = floor(y);
+        double u = fade(x - xi);
+        double v = fade(y - yi);
+        double bottom = lerp(valueAt(xi, yi), valueAt(xi + 1, yi), u);
+        double top = lerp(valueAt(xi, yi + 1), valueAt(xi + 1, yi + 1), u);
+        return lerp(bottom, top, v);
+    }
+
+    /**
+     * Same result as {@code (int) Math.floor(x)}, including saturation and NaN, without the
+     * library call, which is not an intrinsic on every JVM.
+     */
+    private static int floor(double x) {
+        int i = (int) x;
+        return x < i && i != Integer.MIN_VALUE ? i - 1 : i;
+    }
+
+    // Smoothstep-like fade (Perlin's 6t^5 - 15t^4 + 10t^3)
+    private static double fade(double t) {
+        return t * t * t * (t * (t * 6 - 15) + 10);
+    }
+
+    private static double lerp(double a, double b, double t) {
+        return a + (b - a) * t;
+    }
+
+    // Deterministic pseudo-random value in [-1,1] for integer coordinate
+    private double valueAt(int x) {
+        long h = mix(seed, x);
+        // Map to [0,1)
+        double d = ((h >>> 11) & 0x1fffffL) / (double) (1 << 21); // 21-bit fraction
+        return d * 2.0 - 1.0; // [-1,1)
+    }
+
+    // Deterministic pseudo-random value in [-1,1] for an integer lattice point
+    private double valueAt(int x, int y) {
+        long h = mix(mix(seed, x), y);
+        double d = ((h >>> 11) & 0x1fffffL) / (double) (1 << 21);
+        return d * 2.0 - 1.0;
+    }
+
+    /**
+     * 64-bit mix based on splitmix64-like steps for good bit diffusion.
+     */
+    public static long mix(long seed, long x) {
+        long z = seed + 0x9E3779B97F4A7C15L * (x + 0xD1B54A32D192ED03L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return z;
+    }
+}
@@ -0,0 +1,120 @@
+package com.sprite.game.world.gen.pipeline;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data-driven description of a biome, as read from {@code biomes/*.json}.
+ * <p>
+ * {@code climate} places the biome on the generator's climate axis: each column takes the biome
+ * whose climate is nearest to the climate noise there. {@code terrain} holds the fBm parameters
+ * of the biome's surface, {@code layers} the materials below the surface from the top down
+ * (each {@code depth} tiles thick, either a fixed count or a {@code [min, max]} range), and
+ * {@code base} the material below the last layer. {@code decorations} are stacks of tiles placed
+ * on the surface with the given chance per column.
+ *
+ * <pre>
+ * {
+ *   "climate": 0.0,
+ *   "terrain": { "amplitude": 3, "offset": -4, "octaves": 3, "baseFrequency": 0.015 },
+ *   "layers": [ { "tile": "tiles:grass", "depth": 1 }, { "tile": "tiles:dirt", "depth": [3, 5] } ],
+ *   "base": "tiles:stone",
+ *   "decorations": [ { "tile": "tiles:stone", "chance": 0.02, "height": [1, 2] } ]
+ * }
+ * </pre>
+ */
+public record Biome(String name, double climate, double amplitude, double offset, int octaves, double baseFrequency,
+                    double lacunarity, double persistence, List<Layer> layers, String base,
+                    List<Decoration> decorations) {
+
+    /**
+     * A band of one material below the surface, between minDepth and maxDepth tiles thick.
+     */
+    public record Layer(String tile, int minDepth, int maxDepth) {
+    }
+
+    /**
+     * A column of one tile placed on the surface, between minHeight and maxHeight tiles tall.
+     */
+    public record Decoration(String tile, double chance, int minHeight, int maxHeight) {
+    }
+
+    public static Biome fromJson(String name, JSONObject json) {
+        JSONObject terrain = json.optJSONObject("terrain");
+        if (terrain == null) terrain = new JSONObject();
+        List<Layer> layers = new ArrayList<>();
+        JSONArray layerArray = json.optJSONArray("layers");
+        if (layerArray != null) {
+            for (int i = 0; i < layerArray.length(); i++) {
+                JSONObject layer = layerArray.getJSONObject(i);
+                int[] depth = range(layer, "depth", 1);
+                layers.add(new Layer(layer.getString("tile"), depth[0], depth[1]));
+            }
+        }
+        List<Decoration> decorations = new ArrayList<>();
+        JSONArray decorationArray = json.optJSONArray("decorations");
+        if (decorationArray != null) {
+            for (int i = 0; i < decorationArray.length(); i++) {
+                JSONObject decoration = decorationArray.getJSONObject(i);
+                int[] height = range(decoration, "height", 1);
+                decorations.add(new Decoration(decoration.getString("tile"),
+                        Math.max(0, Math.min(1, decoration.optDouble("chance", 0.0))), height[0], height[1]));
+            }
+        }
+        return new Biome(
+                json.optString("name", name),
+                json.optDouble("climate", 0.0),
+                terrain.optDouble("amplitude", 6.0),
+                terrain.optDouble("offset", -4.0),
+                Math.max(1, terrain.optInt("octaves", 4)),
+                Math.max(1e-6, terrain.optDouble("baseFrequency", 1.0 / 48.0)),
+                Math.max(1.0, terrain.optDouble("lacunarity", 2.0)),
+                Math.max(0.0, Math.min(1.0, terrain.optDouble("persistence", 0.5))),
+                List.copyOf(layers),
+                json.optString("base", "tiles:stone"),
+                List.copyOf(decorations));
+    }
+
+    public JSONObject toJson() {
+        JSONArray layerArray = new JSONArray();
+        for (Layer layer : layers) {
+            layerArray.put(new JSONObject().put("tile", layer.tile).put("depth", new JSONArray().put(layer.minDepth).put(layer.maxDepth)));
+        }
+        JSONArray decorationArray = new JSONArray();
+        for (Decoration decoration : decorations) {
+            decorationArray.put(new JSONObject()
+                .put("tile", decoration.tile)
+                .put("chance", decoration.chance)
+                .put("height", new JSONArray().put(decoration.minHeight).put(decoration.maxHeight)));
+        }
+        return new JSONObject()
+            .put("name", name)
+            .put("climate", climate)
+            .put("terrain", new JSONObject()
+                .put("amplitude", amplitude)
+                .put("offset", offset)
+                .put("octaves", octaves)
+                .put("baseFrequency", baseFrequency)
+                .put("lacunarity", lacunarity)
+                .put("persistence", persistence))
+            .put("layers", layerArray)
+            .put("base", base)
+            .put("decorations", decorationArray);
+    }
+
+    /**
+     * Reads a non-negative count given either as a number or as a [min, max] array.
+     */
+    private static int[] range(JSONObject json, String key, int fallback) {
+        JSONArray array = json.optJSONArray(key);
+        if (array != null && array.length() >= 2) {
+            int min = Math.max(0, array.getInt(0));
+            return new int[]{min, Math.max(min, array.getInt(1))};
+        }
+        int value = Math.max(0, json.optInt(key, fallback));
+        return new int[]{value, value};
+    }
+}
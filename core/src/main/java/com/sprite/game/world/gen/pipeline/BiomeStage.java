@@ -0,0 +1,69 @@
+package com.sprite.game.world.gen.pipeline;
+
+import com.sprite.game.world.gen.ValueNoise;
+
+/**
+ * First stage: picks each column's biome and the blend weights of the biomes around it.
+ * <p>
+ * Low-frequency climate noise is sampled per column and the column takes the biome whose
+ * climate is nearest. A column's weights are the share of each biome among the columns within
+ * {@code blendRadius} of it, so terrain parameters fade linearly across a border instead of
+ * stepping.
+ */
+final class BiomeStage extends ColumnStage<BiomeStage.Biomes> {
+
+    /**
+     * @param biome   index of each column's biome
+     * @param weights blend weight of biome b in column i at {@code i * biomeCount + b}
+     */
+    record Biomes(int[] biome, float[] weights) {
+    }
+
+    private final Biome[] biomes;
+    private final ValueNoise climate;
+    private final int blendRadius;
+
+    BiomeStage(Biome[] biomes, ValueNoise climate, int blendRadius) {
+        this.biomes = biomes;
+        this.climate = climate;
+        this.blendRadius = Math.max(0, blendRadius);
+    }
+
+    @Override
+    protected Biomes compute(int rx) {
+        final int count = biomes.length;
+        final int window = 2 * blendRadius + 1;
+        // Nearest biome of every column the region's blend windows cover
+        int span = REGION_WIDTH + 2 * blendRadius;
+        double[] c = new double[span];
+        climate.fbm(rx * REGION_WIDTH - blendRadius, span, c);
+        int[] nearest = new int[span];
+        for (int i = 0; i < span; i++) nearest[i] = nearest(c[i]);
+
+        int[] biome = new int[REGION_WIDTH];
+        float[] weights = new float[REGION_WIDTH * count];
+        int[] inWindow = new int[count];
+        for (int i = 0; i < window - 1; i++) inWindow[nearest[i]]++;
+        for (int i = 0; i < REGION_WIDTH; i++) {
+            // Window of column i is nearest[i .. i + window)
+            inWindow[nearest[i + window - 1]]++;
+            biome[i] = nearest[i + blendRadius];
+            for (int b = 0; b < count; b++) weights[i * count + b] = inWindow[b] / (float) window;
+            inWindow[nearest[i]]--;
+        }
+        return new Biomes(biome, weights);
+    }
+
+    private int nearest(double value) {
+        int best = 0;
+        double bestDistance = Double.MAX_VALUE;
+        for (int b = 0; b < biomes.length; b++) {
+            double distance = Math.abs(value - biomes[b].climate());
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = b;
+            }
+        }
+        return best;
+    }
+}
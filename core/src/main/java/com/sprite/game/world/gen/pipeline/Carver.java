@@ -0,0 +1,36 @@
+package com.sprite.game.world.gen.pipeline;
+
+import com.sprite.game.world.tiles.TileChunk;
+import org.json.JSONObject;
+
+/**
+ * Fourth stage: removes material from a chunk after its layers are filled, e.g. caves. Runs
+ * before decorations, which only sit on top of the surface. Implementations must be
+ * deterministic and thread-safe.
+ */
+public interface Carver {
+
+    /**
+     * Carves the chunk whose lower-left tile is (x0, y0).
+     *
+     * @param surface surface height of each of the chunk's columns
+     */
+    void carve(TileChunk chunk, int x0, int y0, int[] surface);
+
+    JSONObject data();
+
+    /**
+     * Creates a carver from its {@code carvers} entry in the generator configuration.
+     *
+     * @param seed generator seed, to be mixed with the carver's index
+     */
+    static Carver create(JSONObject json, long seed) {
+        String type = json.optString("type", "").toLowerCase();
+        switch (type) {
+            case "caves":
+                return new CaveCarver(json, seed);
+            default:
+                throw new IllegalArgumentException("Unknown carver type: " + type);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.sprite.game.world.gen.pipeline;
+
+import com.sprite.game.world.gen.RegionCache;
+import com.sprite.game.world.gen.ValueNoise;
+import com.sprite.game.world.tiles.TileChunk;
+import org.json.JSONObject;
+
+/**
+ * Carves caves where two-dimensional fBm noise exceeds a threshold, keeping at least
+ * {@code minDepth} tiles of ground below the surface. The carved mask is computed and cached
+ * for square regions of {@value #REGION_SIZE} tiles, one 64-bit word per column.
+ */
+final class CaveCarver implements Carver {
+
+    static final int REGION_SIZE = 64;
+    private static final int MAX_CACHED_REGIONS = 1024;
+
+    private final long seed;
+    private final double frequency;
+    private final int octaves;
+    private final double threshold;
+    private final int minDepth;
+    private final ValueNoise noise;
+    private final RegionCache<long[]> masks = new RegionCache<>(MAX_CACHED_REGIONS);
+
+    CaveCarver(JSONObject json, long seed) {
+        this.seed = json.has("seed") ? json.getLong("seed") : ValueNoise.mix(seed, 0xCA7E5L);
+        this.frequency = Math.max(1e-6, json.optDouble("frequency", 1.0 / 24.0));
+        this.octaves = Math.max(1, json.optInt("octaves", 3));
+        this.threshold = json.optDouble("threshold", 0.3);
+        this.minDepth = Math.max(1, json.optInt("minDepth", 6));
+        this.noise = new ValueNoise(this.seed, octaves, frequency, 2.0, 0.5);
+    }
+
+    @Override
+    public void carve(TileChunk chunk, int x0, int y0, int[] surface) {
+        final int size = chunk.size();
+        long[] mask = null;
+        long maskKey = 0;
+        for (int lx = 0; lx < size; lx++) {
+            int gx = x0 + lx;
+            int top = Math.min(size - 1, surface[lx] - minDepth - y0);
+            for (int ly = 0; ly <= top; ly++) {
+                int gy = y0 + ly;
+                long key = key(Math.floorDiv(gx, REGION_SIZE), Math.floorDiv(gy, REGION_SIZE));
+                if (mask == null || key != maskKey) {
+                    mask = masks.get(key, this::compute);
+                    maskKey = key;
+                }
+                if ((mask[Math.floorMod(gx, REGION_SIZE)] & (1L << Math.floorMod(gy, REGION_SIZE))) != 0) {
+                    chunk.set(lx, ly, 0);
+                }
+            }
+        }
+    }
+
+    private long[] compute(long key) {
+        int rx = (int) (key >> 32);
+        int ry = (int) key;
+        double[] n = new double[REGION_SIZE * REGION_SIZE];
+        noise.fbm(rx * REGION_SIZE, ry * REGION_SIZE, REGION_SIZE, REGION_SIZE, n);
+        long[] mask = new long[REGION_SIZE];
+        for (int i = 0; i < REGION_SIZE; i++) {
+            long bits = 0;
+            for (int j = 0; j < REGION_SIZE; j++) {
+                if (n[i * REGION_SIZE + j] > threshold) bits |= 1L << j;
+            }
+            mask[i] = bits;
+        }
+        return mask;
+    }
+
+    private static long key(int rx, int ry) {
+        return (((long) rx) << 32) ^ (ry & 0xffffffffL);
+    }
+
+    @Override
+    public JSONObject data() {
+        return new JSONObject()
+            .put("type", "caves")
+            .put("seed", seed)
+            .put("frequency", frequency)
+            .put("octaves", octaves)
+            .put("threshold", threshold)
+            .put("minDepth", minDepth);
+    }
+}
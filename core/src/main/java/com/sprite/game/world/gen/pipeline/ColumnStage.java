@@ -0,0 +1,35 @@
+package com.sprite.game.world.gen.pipeline;
+
+import com.sprite.game.world.gen.RegionCache;
+
+/**
+ * A generation stage whose results depend on the column only. Results are computed and cached
+ * for regions of {@link #REGION_WIDTH} consecutive columns, so every chunk stacked in the same
+ * columns reuses them. Thread-safe: stages only read their inputs and earlier stages.
+ *
+ * @param <T> immutable per-region result
+ */
+abstract class ColumnStage<T> {
+
+    // Columns per region, and regions cached per stage
+    static final int REGION_WIDTH = 64;
+    static final int MAX_CACHED_REGIONS = 1024;
+
+    private final RegionCache<T> cache = new RegionCache<>(MAX_CACHED_REGIONS);
+
+    /**
+     * Result for the columns {@code rx * REGION_WIDTH} up to {@code (rx + 1) * REGION_WIDTH - 1}.
+     */
+    T region(int rx) {
+        return cache.get(rx, key -> compute((int) key));
+    }
+
+    /**
+     * Region containing the column.
+     */
+    static int regionOf(int tileX) {
+        return Math.floorDiv(tileX, REGION_WIDTH);
+    }
+
+    protected abstract T compute(int rx);
+}
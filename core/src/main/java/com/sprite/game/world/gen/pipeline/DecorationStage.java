@@ -0,0 +1,56 @@
+package com.sprite.game.world.gen.pipeline;
+
+import com.sprite.game.world.gen.ValueNoise;
+
+import java.util.List;
+
+/**
+ * Last stage: the surface decorations of each column. A column gets the first decoration of its
+ * biome whose per-column roll succeeds, stacked directly on the surface tile.
+ */
+final class DecorationStage extends ColumnStage<DecorationStage.Decorations> {
+
+    /**
+     * @param tile   tile id of each column's decoration, 0 for none
+     * @param height tiles the decoration rises above the surface
+     */
+    record Decorations(int[] tile, int[] height) {
+    }
+
+    private final BiomeStage biomes;
+    private final Biome[] definitions;
+    private final int[][] decorationTiles;
+    private final long seed;
+
+    /**
+     * @param decorationTiles tile id of each decoration, per biome
+     */
+    DecorationStage(BiomeStage biomes, Biome[] definitions, int[][] decorationTiles, long seed) {
+        this.biomes = biomes;
+        this.definitions = definitions;
+        this.decorationTiles = decorationTiles;
+        this.seed = seed;
+    }
+
+    @Override
+    protected Decorations compute(int rx) {
+        int[] biome = biomes.region(rx).biome();
+        int[] tile = new int[REGION_WIDTH];
+        int[] height = new int[REGION_WIDTH];
+        for (int i = 0; i < REGION_WIDTH; i++) {
+            int gx = rx * REGION_WIDTH + i;
+            List<Biome.Decoration> decorations = definitions[biome[i]].decorations();
+            for (int d = 0; d < decorations.size(); d++) {
+                Biome.Decoration decoration = decorations.get(d);
+                long roll = ValueNoise.mix(seed + 0x9E37L * d, gx);
+                if ((roll >>> 11) * 0x1.0p-53 >= decoration.chance()) continue;
+                int range = decoration.maxHeight() - decoration.minHeight();
+                int extra = range == 0 ? 0 : (int) Long.remainderUnsigned(ValueNoise.mix(roll, d), range + 1);
+                tile[i] = decorationTiles[biome[i]][d];
+                height[i] = decoration.minHeight() + extra;
+                break;
+            }
+        }
+        return new Decorations(tile, height);
+    }
+}
@@ -0,0 +1,72 @@
+package com.sprite.game.world.gen.pipeline;
+
+import com.sprite.game.world.gen.ValueNoise;
+
+/**
+ * Third stage: the material bands below each column's surface. Every layer of the column's
+ * biome gets a thickness within its depth range, jittered per column; below the last layer
+ * lies the biome's base material.
+ */
+final class LayerStage extends ColumnStage<LayerStage.Layers> {
+
+    /**
+     * @param biome  index of each column's biome
+     * @param bounds depth (1 = surface tile) at which layer k of column i ends, at
+     *               {@code i * stride + k}
+     */
+    record Layers(int[] biome, int[] bounds) {
+    }
+
+    private final BiomeStage biomes;
+    private final Biome[] definitions;
+    private final int[][] layerTiles;
+    private final int[] baseTiles;
+    private final int stride;
+    private final long seed;
+
+    /**
+     * @param layerTiles tile id of each layer, per biome
+     * @param baseTiles  tile id below the last layer, per biome
+     */
+    LayerStage(BiomeStage biomes, Biome[] definitions, int[][] layerTiles, int[] baseTiles, long seed) {
+        this.biomes = biomes;
+        this.definitions = definitions;
+        this.layerTiles = layerTiles;
+        this.baseTiles = baseTiles;
+        this.seed = seed;
+        int max = 0;
+        for (int[] tiles : layerTiles) max = Math.max(max, tiles.length);
+        this.stride = max;
+    }
+
+    /**
+     * Tile id at the given depth below the surface of column i; depth 1 is the surface tile.
+     */
+    int tile(Layers layers, int i, int depth) {
+        int b = layers.biome[i];
+        int[] tiles = layerTiles[b];
+        int base = i * stride;
+        for (int k = 0; k < tiles.length; k++) {
+            if (depth <= layers.bounds[base + k]) return tiles[k];
+        }
+        return baseTiles[b];
+    }
+
+    @Override
+    protected Layers compute(int rx) {
+        int[] biome = biomes.region(rx).biome();
+        int[] bounds = new int[REGION_WIDTH * stride];
+        for (int i = 0; i < REGION_WIDTH; i++) {
+            int gx = rx * REGION_WIDTH + i;
+            int depth = 0;
+            int k = 0;
+            for (Biome.Layer layer : definitions[biome[i]].layers()) {
+                int range = layer.maxDepth() - layer.minDepth();
+                int jitter = range == 0 ? 0 : (int) Long.remainderUnsigned(ValueNoise.mix(seed + 31L * k, gx), range + 1);
+                depth += layer.minDepth() + jitter;
+                bounds[i * stride + k++] = depth;
+            }
+        }
+        return new Layers(biome, bounds);
+    }
+}
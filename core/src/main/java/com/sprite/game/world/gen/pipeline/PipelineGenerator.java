@@ -0,0 +1,215 @@
+package com.sprite.game.world.gen.pipeline;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.sprite.data.utils.Utils;
+import com.sprite.data.utils.resources.Resources;
+import com.sprite.game.world.gen.ChunkGenerator;
+import com.sprite.game.world.gen.ValueNoise;
+import com.sprite.game.world.tiles.TileChunk;
+import com.sprite.resource.Resource;
+import com.sprite.resource.ResourceMeta;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Generator composed of stages, configured through {@code chunk_generators/*.json} with
+ * {@code "type": "pipeline"}:
+ * <ol>
+ *   <li>biome selection along a climate axis, with blending across borders ({@link BiomeStage})</li>
+ *   <li>terrain height from the blended biome parameters ({@link TerrainStage})</li>
+ *   <li>material layers below the surface ({@link LayerStage})</li>
+ *   <li>carvers such as caves ({@link Carver})</li>
+ *   <li>surface decorations ({@link DecorationStage})</li>
+ * </ol>
+ * Each stage computes its results per region and caches them, so the chunks stacked in a
+ * column, or sharing a cave region, reuse them. Stages only read earlier stages and their caches
+ * are thread-safe, so pipeline workers can generate different chunks concurrently.
+ * <p>
+ * Biomes are given as resource locations ({@code "biomes:plains"}) or inline objects; see
+ * {@link Biome}. {@link #data()} writes them inline, so a saved world keeps generating the
+ * same terrain even if the biome files change. Tile ids are assigned in order of first use
+ * and kept stable through the serialized {@code palette}.
+ */
+public class PipelineGenerator implements ChunkGenerator {
+
+    private final long seed;
+    private final double biomeScale;       // tiles per climate noise cycle
+    private final int blendRadius;         // columns over which neighbouring biomes blend
+    private final Biome[] biomes;
+    private final List<Carver> carvers = new ArrayList<>();
+    private final Map<Integer, String> palette = new LinkedHashMap<>();
+
+    private final TerrainStage terrain;
+    private final LayerStage layers;
+    private final DecorationStage decorations;
+
+    public PipelineGenerator(JSONObject json) {
+        this.seed = json.has("seed") ? json.getLong("seed") : 1337L;
+        this.biomeScale = Math.max(1.0, json.optDouble("biomeScale", 512.0));
+        this.blendRadius = Math.max(0, json.optInt("blendRadius", 16));
+
+        JSONArray biomeArray = json.optJSONArray("biomes");
+        if (biomeArray == null || biomeArray.isEmpty()) throw new IllegalArgumentException("Pipeline generator needs at least one biome");
+        this.biomes = new Biome[biomeArray.length()];
+        for (int i = 0; i < biomes.length; i++) {
+            Object entry = biomeArray.get(i);
+            if (entry instanceof JSONObject inline) {
+                biomes[i] = Biome.fromJson("biome" + i, inline);
+            } else {
+                String location = entry.toString();
+                biomes[i] = Biome.fromJson(location.substring(location.indexOf(':') + 1), resolve(location));
+            }
+        }
+
+        // Keep the ids of a saved palette, then number tiles in order of first use
+        JSONObject pal = json.optJSONObject("palette");
+        if (pal != null) {
+            for (String key : pal.keySet()) {
+                try {
+                    palette.put(Integer.parseInt(key), pal.getString(key));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+        int[][] layerTiles = new int[biomes.length][];
+        int[] baseTiles = new int[biomes.length];
+        int[][] decorationTiles = new int[biomes.length][];
+        for (int b = 0; b < biomes.length; b++) {
+            Biome biome = biomes[b];
+            layerTiles[b] = new int[biome.layers().size()];
+            for (int k = 0; k < layerTiles[b].length; k++) layerTiles[b][k] = id(biome.layers().get(k).tile());
+            baseTiles[b] = id(biome.base());
+            decorationTiles[b] = new int[biome.decorations().size()];
+            for (int d = 0; d < decorationTiles[b].length; d++) decorationTiles[b][d] = id(biome.decorations().get(d).tile());
+        }
+
+        ValueNoise[] noise = new ValueNoise[biomes.length];
+        for (int b = 0; b < biomes.length; b++) {
+            Biome biome = biomes[b];
+            noise[b] = new ValueNoise(ValueNoise.mix(seed, biome.name().hashCode()), biome.octaves(), biome.baseFrequency(),
+                    biome.lacunarity(), biome.persistence());
+        }
+        BiomeStage biomeStage = new BiomeStage(biomes, new ValueNoise(ValueNoise.mix(seed, 0xB10E5L), 3, 1.0 / biomeScale, 2.0, 0.5), blendRadius);
+        this.terrain = new TerrainStage(biomeStage, biomes, noise);
+        this.layers = new LayerStage(biomeStage, biomes, layerTiles, baseTiles, ValueNoise.mix(seed, 0x1A7E25L));
+        this.decorations = new DecorationStage(biomeStage, biomes, decorationTiles, ValueNoise.mix(seed, 0xDEC0L));
+
+        JSONArray carverArray = json.optJSONArray("carvers");
+        if (carverArray != null) {
+            for (int i = 0; i < carverArray.length(); i++) {
+                carvers.add(Carver.create(carverArray.getJSONObject(i), ValueNoise.mix(seed, 0xCA7L + i)));
+            }
+        }
+    }
+
+    @Override
+    public void generate(int chunkX, int chunkY, TileChunk chunk) {
+        final int size = chunk.size();
+        final int x0 = chunkX * size;
+        final int y0 = chunkY * size;
+        int[] surface = new int[size];
+        int[] decorationTile = new int[size];
+        int[] decorationTop = new int[size];
+
+        int rx = Integer.MIN_VALUE;
+        int[] heights = null;
+        LayerStage.Layers columnLayers = null;
+        DecorationStage.Decorations columnDecorations = null;
+        for (int lx = 0; lx < size; lx++) {
+            int gx = x0 + lx;
+            if (ColumnStage.regionOf(gx) != rx) {
+                rx = ColumnStage.regionOf(gx);
+                heights = terrain.region(rx);
+                columnLayers = layers.region(rx);
+                columnDecorations = decorations.region(rx);
+            }
+            int i = gx - rx * ColumnStage.REGION_WIDTH;
+            int height = heights[i];
+            surface[lx] = height;
+            decorationTile[lx] = columnDecorations.tile()[i];
+            decorationTop[lx] = height + columnDecorations.height()[i];
+
+            for (int ly = 0; ly < size; ly++) {
+                int gy = y0 + ly;
+                chunk.set(lx, ly, gy <= height ? layers.tile(columnLayers, i, height - gy + 1) : 0);
+            }
+        }
+
+        for (Carver carver : carvers) carver.carve(chunk, x0, y0, surface);
+
+        for (int lx = 0; lx < size; lx++) {
+            if (decorationTile[lx] == 0) continue;
+            int from = Math.max(surface[lx] + 1, y0);
+            int to = Math.min(decorationTop[lx], y0 + size - 1);
+            for (int gy = from; gy <= to; gy++) chunk.set(lx, gy - y0, decorationTile[lx]);
+        }
+    }
+
+    /**
+     * Top of the column as generated: the surface, or the top of its decoration.
+     */
+    @Override
+    public int surfaceHeight(int tileX) {
+        int rx = ColumnStage.regionOf(tileX);
+        int i = tileX - rx * ColumnStage.REGION_WIDTH;
+        return terrain.region(rx)[i] + decorations.region(rx).height()[i];
+    }
+
+    @Override
+    public JSONObject data() {
+        JSONArray biomeArray = new JSONArray();
+        for (Biome biome : biomes) biomeArray.put(biome.toJson());
+        JSONArray carverArray = new JSONArray();
+        for (Carver carver : carvers) carverArray.put(carver.data());
+        JSONObject pal = new JSONObject();
+        for (Map.Entry<Integer, String> e : palette.entrySet()) pal.put(Integer.toString(e.getKey()), e.getValue());
+        return new JSONObject()
+            .put("type", "pipeline")
+            .put("seed", seed)
+            .put("biomeScale", biomeScale)
+            .put("blendRadius", blendRadius)
+            .put("biomes", biomeArray)
+            .put("carvers", carverArray)
+            .put("palette", pal);
+    }
+
+    /**
+     * Tile id of the tile location, assigning the next free id on first use.
+     */
+    private int id(String tile) {
+        for (Map.Entry<Integer, String> e : palette.entrySet()) {
+            if (e.getValue().equals(tile)) return e.getKey();
+        }
+        int id = 1;
+        while (palette.containsKey(id)) id++;
+        palette.put(id, tile);
+        return id;
+    }
+
+    /**
+     * Reads a biome definition through the resource registry, or straight from the bundled
+     * assets when the registry is not initialized (e.g. on the dedicated server).
+     */
+    private static JSONObject resolve(String location) {
+        Resources resources = Utils.resources();
+        if (resources != null) {
+            Optional<Resource> resource = resources.get(location);
+            if (resource.isPresent()) return ((ResourceMeta.Json) resource.get().data.data()).get();
+        }
+        Resource.Location parsed = Resource.Location.fromString(location);
+        String path = "resources/" + parsed.namespace() + "/" + parsed.path() + ".json";
+        if (Gdx.files != null) {
+            for (FileHandle file : new FileHandle[]{Gdx.files.classpath(path), Gdx.files.internal(path)}) {
+                if (file.exists()) return new JSONObject(file.readString());
+            }
+        }
+        throw new IllegalArgumentException("Unknown biome: " + location);
+    }
+}
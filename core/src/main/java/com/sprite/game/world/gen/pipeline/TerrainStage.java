@@ -0,0 +1,43 @@
+package com.sprite.game.world.gen.pipeline;
+
+import com.sprite.game.world.gen.ValueNoise;
+
+/**
+ * Second stage: the surface height of each column, blending the heights of the biomes around it
+ * by their {@link BiomeStage} weights. Each biome's fBm is evaluated in one batch per region
+ * and only for biomes that take part in the region.
+ */
+final class TerrainStage extends ColumnStage<int[]> {
+
+    private final BiomeStage biomes;
+    private final Biome[] definitions;
+    private final ValueNoise[] noise;
+
+    TerrainStage(BiomeStage biomes, Biome[] definitions, ValueNoise[] noise) {
+        this.biomes = biomes;
+        this.definitions = definitions;
+        this.noise = noise;
+    }
+
+    @Override
+    protected int[] compute(int rx) {
+        final int count = definitions.length;
+        float[] weights = biomes.region(rx).weights();
+        double[] height = new double[REGION_WIDTH];
+        double[] n = new double[REGION_WIDTH];
+        for (int b = 0; b < count; b++) {
+            boolean present = false;
+            for (int i = 0; i < REGION_WIDTH && !present; i++) present = weights[i * count + b] > 0f;
+            if (!present) continue;
+            Biome biome = definitions[b];
+            noise[b].fbm(rx * REGION_WIDTH, REGION_WIDTH, n);
+            for (int i = 0; i < REGION_WIDTH; i++) {
+                float w = weights[i * count + b];
+                if (w > 0f) height[i] += w * (n[i] * biome.amplitude() + biome.offset());
+            }
+        }
+        int[] surface = new int[REGION_WIDTH];
+        for (int i = 0; i < REGION_WIDTH; i++) surface[i] = (int) Math.floor(height[i]);
+        return surface;
+    }
+}
@@ -0,0 +1,364 @@
+package com.sprite.game.world.path;
+
+import com.sprite.game.world.TileAccessor;
+import com.sprite.game.world.World;
+import com.sprite.game.world.tiles.TileChunk;
+
+import java.util.Arrays;
+
+/**
+ * Shared pursuit field towards one target for entities moving by one set of {@link NavRules}.
+ * <p>
+ * Covers a square of cells centred on the target. For every cell it stores the cost of the
+ * cheapest route to the target's cell and the first move of that route, so any number of
+ * chasers read their next step with one array lookup instead of running their own searches.
+ * Costs come from a Dijkstra search outwards from the target over the reversed moves of
+ * {@link NavRules#neighbors}, so jumps, falls and step-downs are honoured in the right direction.
+ * <p>
+ * Refreshing is incremental. The moves of each cell are computed once and kept as offsets, so
+ * when the target nears the region's edge and the region is re-centred, only the newly covered
+ * cells are computed. When a chunk the moves were read from changes, only the cells within
+ * {@link NavRules#reach} of it are recomputed. A target moving within the region only re-runs
+ * the Dijkstra pass over the stored moves. Only loaded chunks are read; the others read as air
+ * until they load, which invalidates the cells around them. Owned by the world's thread.
+ */
+public class FlowField implements NavRules.Neighbors {
+
+    /**
+     * Returned by {@link #next} for cells outside the field or without a route to the target.
+     */
+    public static final long NONE = Long.MIN_VALUE;
+
+    private final World world;
+    private final NavRules rules;
+    private final int radius;
+    private final int side;
+    private final int cells;
+    private final TileAccessor tiles = new TileAccessor();
+
+    // Most moves NavRules#neighbors emits for one cell
+    private static final int MAX_MOVES = 4;
+
+    // Region origin in cells; cell (x, y) has index (x - minX) * side + (y - minY)
+    private int minX, minY;
+    private boolean built = false;
+    // Moves of each cell as packed (dx, dy) offsets, MAX_MOVES slots per cell; count -1 = unknown
+    private int[] moves;
+    private byte[] moveCount;
+    private int currentCell, currentX, currentY; // cell whose moves accept() receives
+    // Reversed moves in compressed rows: the cells moving into cell i are
+    // from[start[i] .. start[i + 1]) at the matching cost
+    private final int[] start;
+    private final int[] from;
+    private final float[] cost;
+    // Chunks read while building the moves and their modification counters
+    private TileChunk[] deps = new TileChunk[0];
+    private int[] depModifications = new int[0];
+    private int depMinCx, depMinCy, depSide;
+
+    // Dijkstra results: cost to the target and index of the next cell, -1 if none
+    private final float[] dist;
+    private final int[] next;
+    private int targetX = Integer.MIN_VALUE, targetY = Integer.MIN_VALUE;
+
+    // Binary heap of (cost, index) pairs, reused between refreshes
+    private float[] heapCost = new float[256];
+    private int[] heapIndex = new int[256];
+    private int heapSize;
+
+    private long cellBuilds = 0;
+    private long refreshes = 0;
+
+    /**
+     * @param radius cells covered on each side of the target
+     */
+    public FlowField(World world, NavRules rules, int radius) {
+        this.world = world;
+        this.rules = rules;
+        this.radius = Math.max(1, radius);
+        this.side = 2 * this.radius + 1;
+        this.cells = side * side;
+        this.moves = new int[cells * MAX_MOVES];
+        this.moveCount = new byte[cells];
+        this.start = new int[cells + 1];
+        this.from = new int[cells * MAX_MOVES];
+        this.cost = new float[cells * MAX_MOVES];
+        this.dist = new float[cells];
+        this.next = new int[cells];
+    }
+
+    public NavRules rules() {
+        return rules;
+    }
+
+    /**
+     * Updates the field for a target at the given cell. Does nothing if neither the target's
+     * cell nor the terrain changed since the last update.
+     */
+    public void update(int tx, int ty) {
+        // Never load or generate terrain on the world's tick; chunks loaded later invalidate their cells
+        tiles.resetLoaded(world);
+        boolean changed = built && invalidate();
+        int margin = radius / 4;
+        if (!built || tx - minX < margin || ty - minY < margin
+                || minX + side - 1 - tx < margin || minY + side - 1 - ty < margin) {
+            recenter(tx - radius, ty - radius);
+            changed = true;
+        }
+        if (changed) {
+            build();
+            stamp();
+        } else if (tx == targetX && ty == targetY) return;
+        targetX = tx;
+        targetY = ty;
+        refresh();
+    }
+
+    /**
+     * Next cell on the cheapest route from (x, y) to the target, or {@link #NONE}. The
+     * target's own cell has no next cell.
+     */
+    public long next(int x, int y) {
+        int i = index(x, y);
+        if (i < 0 || next[i] < 0) return NONE;
+        int n = next[i];
+        return NavRules.cell(minX + n / side, minY + n % side);
+    }
+
+    /**
+     * Cost of the cheapest route from (x, y) to the target; infinite if there is none or the
+     * cell is outside the field.
+     */
+    public float cost(int x, int y) {
+        int i = index(x, y);
+        return i < 0 ? Float.POSITIVE_INFINITY : dist[i];
+    }
+
+    /**
+     * True if the cell lies inside the field's region.
+     */
+    public boolean covers(int x, int y) {
+        return index(x, y) >= 0;
+    }
+
+    /**
+     * Number of cells whose moves were computed so far.
+     */
+    public long cellBuilds() {
+        return cellBuilds;
+    }
+
+    /**
+     * Number of Dijkstra passes run.
+     */
+    public long refreshes() {
+        return refreshes;
+    }
+
+    private int index(int x, int y) {
+        int lx = x - minX, ly = y - minY;
+        if (lx < 0 || ly < 0 || lx >= side || ly >= side) return -1;
+        return lx * side + ly;
+    }
+
+    /**
+     * Moves the region's origin to (x0, y0), keeping the moves of the cells it still covers.
+     */
+    private void recenter(int x0, int y0) {
+        int[] oldMoves = moves;
+        byte[] oldCount = moveCount;
+        int oldX = minX, oldY = minY;
+        boolean keep = built;
+        moves = new int[cells * MAX_MOVES];
+        moveCount = new byte[cells];
+        Arrays.fill(moveCount, (byte) -1);
+        minX = x0;
+        minY = y0;
+        built = true;
+        if (!keep) return;
+        for (int lx = 0; lx < side; lx++) {
+            int ox = x0 + lx - oldX;
+            if (ox < 0 || ox >= side) continue;
+            for (int ly = 0; ly < side; ly++) {
+                int oy = y0 + ly - oldY;
+                if (oy < 0 || oy >= side) continue;
+                int ci = lx * side + ly, oi = ox * side + oy;
+                moveCount[ci] = oldCount[oi];
+                System.arraycopy(oldMoves, oi * MAX_MOVES, moves, ci * MAX_MOVES, MAX_MOVES);
+            }
+        }
+    }
+
+    /**
+     * Computes the moves of every cell not yet known and stores all moves reversed.
+     */
+    private void build() {
+        for (int ci = 0; ci < cells; ci++) {
+            if (moveCount[ci] >= 0) continue;
+            cellBuilds++;
+            moveCount[ci] = 0;
+            currentCell = ci;
+            currentX = minX + ci / side;
+            currentY = minY + ci % side;
+            if (rules.fits(tiles, currentX, currentY)) rules.neighbors(tiles, currentX, currentY, this);
+        }
+
+        // Count the moves into each cell, then place them by target
+        Arrays.fill(start, 0);
+        for (int ci = 0; ci < cells; ci++) {
+            for (int k = 0; k < moveCount[ci]; k++) {
+                int ti = target(ci, moves[ci * MAX_MOVES + k]);
+                if (ti >= 0) start[ti + 1]++;
+            }
+        }
+        for (int i = 0; i < cells; i++) start[i + 1] += start[i];
+        int[] fill = Arrays.copyOf(start, cells);
+        for (int ci = 0; ci < cells; ci++) {
+            int cx = minX + ci / side, cy = minY + ci % side;
+            for (int k = 0; k < moveCount[ci]; k++) {
+                int ti = target(ci, moves[ci * MAX_MOVES + k]);
+                if (ti < 0) continue;
+                int slot = fill[ti]++;
+                from[slot] = ci;
+                cost[slot] = NavRules.cost(cx, cy, minX + ti / side, minY + ti % side);
+            }
+        }
+    }
+
+    /**
+     * Records one move of the cell being built.
+     */
+    @Override
+    public void accept(int tx, int ty) {
+        int k = moveCount[currentCell]++;
+        moves[currentCell * MAX_MOVES + k] = ((tx - currentX) & 0xff) << 8 | ((ty - currentY) & 0xff);
+    }
+
+    /**
+     * Index of the cell a packed move from cell ci leads to, or -1 if it leaves the region.
+     */
+    private int target(int ci, int move) {
+        return index(minX + ci / side + (byte) (move >> 8), minY + ci % side + (byte) move);
+    }
+
+    /**
+     * Dijkstra from the target's standing cell over the reversed moves.
+     */
+    private void refresh() {
+        refreshes++;
+        Arrays.fill(dist, Float.POSITIVE_INFINITY);
+        Arrays.fill(next, -1);
+        // An airborne target is chased to where it will land
+        int gy = targetY;
+        if (!rules.standable(tiles, targetX, gy)) {
+            int land = rules.fallLanding(tiles, targetX, gy, NavRules.FALL_SCAN);
+            if (land != Integer.MIN_VALUE) gy = land;
+        }
+        int goal = index(targetX, gy);
+        if (goal < 0) return;
+        dist[goal] = 0f;
+        heapSize = 0;
+        push(0f, goal);
+        while (heapSize > 0) {
+            float d = heapCost[0];
+            int u = pop();
+            if (d > dist[u]) continue;
+            for (int k = start[u], end = start[u + 1]; k < end; k++) {
+                int v = from[k];
+                float dv = d + cost[k];
+                if (dv < dist[v]) {
+                    dist[v] = dv;
+                    next[v] = u;
+                    push(dv, v);
+                }
+            }
+        }
+    }
+
+    // -------------------- Terrain dependencies --------------------
+
+    private void stamp() {
+        int reach = rules.reach(world.tileSize());
+        int cs = world.chunkSize();
+        depMinCx = Math.floorDiv(minX - reach, cs);
+        depMinCy = Math.floorDiv(minY - reach, cs);
+        depSide = Math.max(Math.floorDiv(minX + side - 1 + reach, cs) - depMinCx,
+                Math.floorDiv(minY + side - 1 + reach, cs) - depMinCy) + 1;
+        if (deps.length != depSide * depSide) {
+            deps = new TileChunk[depSide * depSide];
+            depModifications = new int[depSide * depSide];
+        }
+        for (int i = 0; i < deps.length; i++) {
+            TileChunk chunk = world.peekLoaded(depMinCx + i / depSide, depMinCy + i % depSide);
+            deps[i] = chunk;
+            depModifications[i] = chunk == null ? 0 : chunk.modifications();
+        }
+    }
+
+    /**
+     * Forgets the moves of every cell within reach of a loaded chunk that changed since the
+     * moves were read from it.
+     *
+     * @return true if any chunk changed
+     */
+    private boolean invalidate() {
+        final int cs = world.chunkSize();
+        final int reach = rules.reach(world.tileSize());
+        boolean changed = false;
+        for (int i = 0; i < deps.length; i++) {
+            int cx = depMinCx + i / depSide, cy = depMinCy + i % depSide;
+            TileChunk chunk = world.peekLoaded(cx, cy);
+            if (chunk == null) continue;
+            if (chunk == deps[i] && chunk.modifications() == depModifications[i]) continue;
+            changed = true;
+            int x0 = Math.max(cx * cs - reach - minX, 0), x1 = Math.min((cx + 1) * cs - 1 + reach - minX, side - 1);
+            int y0 = Math.max(cy * cs - reach - minY, 0), y1 = Math.min((cy + 1) * cs - 1 + reach - minY, side - 1);
+            for (int lx = x0; lx <= x1; lx++) {
+                for (int ly = y0; ly <= y1; ly++) moveCount[lx * side + ly] = -1;
+            }
+        }
+        return changed;
+    }
+
+    // -------------------- Binary heap --------------------
+
+    private void push(float c, int index) {
+        if (heapSize == heapCost.length) {
+            heapCost = Arrays.copyOf(heapCost, heapSize * 2);
+            heapIndex = Arrays.copyOf(heapIndex, heapSize * 2);
+        }
+        int k = heapSize++;
+        while (k > 0) {
+            int p = (k - 1) >>> 1;
+            if (c >= heapCost[p]) break;
+            heapCost[k] = heapCost[p];
+            heapIndex[k] = heapIndex[p];
+            k = p;
+        }
+        heapCost[k] = c;
+        heapIndex[k] = index;
+    }
+
+    private int pop() {
+        int result = heapIndex[0];
+        int n = --heapSize;
+        if (n > 0) {
+            float c = heapCost[n];
+            int index = heapIndex[n];
+            int k = 0;
+            int half = n >>> 1;
+            while (k < half) {
+                int child = (k << 1) + 1;
+                int right = child + 1;
+                if (right < n && heapCost[child] > heapCost[right]) child = right;
+                if (c <= heapCost[child]) break;
+                heapCost[k] = heapCost[child];
+                heapIndex[k] = heapIndex[child];
+                k = child;
+            }
+            heapCost[k] = c;
+            heapIndex[k] = index;
+        }
+        return result;
+    }
+}
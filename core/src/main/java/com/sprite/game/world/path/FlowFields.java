@@ -0,0 +1,79 @@
+package com.sprite.game.world.path;
+
+import com.sprite.game.world.World;
+import com.sprite.game.world.entities.Entity;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * The {@link FlowField}s of a world, one per chased entity and set of movement rules.
+ * <p>
+ * Chasers ask for the field of their target; the first request in a tick brings it up to date
+ * with the target's current cell, later ones in the same tick read it as is. Fields nobody
+ * asked for in a while are dropped, which also releases fields of removed targets. Owned by
+ * the world's thread.
+ */
+public class FlowFields {
+
+    // Cells covered on each side of the target
+    public static final int DEFAULT_RADIUS = 32;
+    // Ticks a field survives without being asked for
+    private static final int EXPIRE_TICKS = 120;
+
+    private final World world;
+    private final int radius;
+    private final Map<Key, Entry> fields = new HashMap<>();
+    private long tick = 0;
+
+    public FlowFields(World world) {
+        this(world, DEFAULT_RADIUS);
+    }
+
+    public FlowFields(World world, int radius) {
+        this.world = world;
+        this.radius = radius;
+    }
+
+    /**
+     * Returns the field leading to the target for entities moving by the given rules, updated
+     * to the target's position once per tick.
+     */
+    public FlowField field(Entity target, NavRules rules) {
+        Entry entry = fields.computeIfAbsent(new Key(target, rules), k -> new Entry(new FlowField(world, rules, radius)));
+        if (entry.updated != tick) {
+            entry.updated = tick;
+            final int ts = world.tileSize();
+            entry.field.update((int) Math.floor(target.position().x / ts), (int) Math.floor(target.position().y / ts));
+        }
+        return entry.field;
+    }
+
+    /**
+     * Advances the tick counter and drops expired fields. Called once per world tick.
+     */
+    public void tick() {
+        tick++;
+        Iterator<Entry> it = fields.values().iterator();
+        while (it.hasNext()) {
+            if (tick - it.next().updated > EXPIRE_TICKS) it.remove();
+        }
+    }
+
+    public int size() {
+        return fields.size();
+    }
+
+    private record Key(Entity target, NavRules rules) {
+    }
+
+    private static final class Entry {
+        final FlowField field;
+        long updated = -1;
+
+        Entry(FlowField field) {
+            this.field = field;
+        }
+    }
+}
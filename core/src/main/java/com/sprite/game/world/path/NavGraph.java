@@ -0,0 +1,343 @@
+package com.sprite.game.world.path;
+
+import com.sprite.game.world.TileAccessor;
+import com.sprite.game.world.TileView;
+import com.sprite.game.world.World;
+import com.sprite.game.world.tiles.TileChunk;
+
+import java.util.*;
+
+/**
+ * Hierarchical pathfinder over a chunk-level navigation graph for one set of {@link NavRules}.
+ * <p>
+ * For every chunk it records the exits: cells inside the chunk with a move (walk, fall, jump or
+ * step) into a neighbouring chunk. Those moves link the chunks; within a chunk, the cost from a
+ * cell to each exit is found by a search confined to the chunk and cached. Long paths are found
+ * by A* over these exits and moves, and only the chosen chunk segments are then refined into
+ * tile paths. Short paths (start and goal in the same or adjacent chunks) use a plain tile
+ * search.
+ * <p>
+ * A chunk's data depends on the tiles within {@link NavRules#reach} of it, so it remembers the
+ * chunks it read and their {@link TileChunk#modifications() modification counters}. When any of
+ * them changes, the chunk is rebuilt on its next use; the rest of the graph is left alone.
+ * <p>
+ * Owned by one thread: either the world's, reading the live chunk cache, or a
+ * {@link PathService} worker, which passes a {@link TileView} snapshot to every query.
+ */
+public class NavGraph {
+
+    // Tile search cap for short paths, matching the old single-level search
+    public static final int MAX_TILE_EXPANSIONS = 5000;
+    public static final int MAX_ABSTRACT_EXPANSIONS = 4096;
+    // Cached chunks before the graph is dropped and rebuilt on demand
+    private static final int MAX_CACHED_CHUNKS = 4096;
+
+    private final World world;
+    private final NavRules rules;
+    private final int chunkSize;
+    private final int dependRadius; // chunks around a chunk whose tiles its data depends on
+    private final Map<Long, ChunkNav> chunks = new HashMap<>();
+    private final TileAccessor tiles = new TileAccessor();
+    private final TileSearch search = new TileSearch();
+    private final SearchBuffers route = new SearchBuffers(); // chunk-level search, separate from the nested tile searches
+
+    private long builds = 0;
+    private int query = 0; // bumped per findPath so each chunk is validated once per query
+    private TileView view = null; // snapshot read by the current query, or null for the live world
+
+    public NavGraph(World world, NavRules rules) {
+        this.world = world;
+        this.rules = rules;
+        this.chunkSize = world.chunkSize();
+        this.dependRadius = (rules.reach(world.tileSize()) + chunkSize - 1) / chunkSize;
+    }
+
+    public NavRules rules() {
+        return rules;
+    }
+
+    /**
+     * Number of chunk graphs built or rebuilt so far.
+     */
+    public long builds() {
+        return builds;
+    }
+
+    /**
+     * Finds a path between two cells.
+     *
+     * @return the path's cells from start to goal, or null if none was found
+     */
+    public long[] findPath(int sx, int sy, int gx, int gy) {
+        return findPath(null, sx, sy, gx, gy);
+    }
+
+    /**
+     * Finds a path between two cells reading tiles from a snapshot instead of the world, so
+     * the query may run off the world's thread. Chunks missing from the view read as air.
+     *
+     * @return the path's cells from start to goal, or null if none was found
+     */
+    public long[] findPath(TileView view, int sx, int sy, int gx, int gy) {
+        this.view = view;
+        tiles.reset(world, view);
+        query++;
+        int scx = Math.floorDiv(sx, chunkSize), scy = Math.floorDiv(sy, chunkSize);
+        int gcx = Math.floorDiv(gx, chunkSize), gcy = Math.floorDiv(gy, chunkSize);
+        if (Math.abs(scx - gcx) <= 1 && Math.abs(scy - gcy) <= 1) {
+            return search.find(tiles, rules, sx, sy, gx, gy, TileSearch.Bounds.UNBOUNDED, MAX_TILE_EXPANSIONS);
+        }
+        if (chunks.size() > MAX_CACHED_CHUNKS) chunks.clear();
+        long[] route = abstractRoute(sx, sy, gx, gy, gcx, gcy);
+        return route == null ? null : refine(route);
+    }
+
+    /**
+     * A* over exits and cross-chunk moves from the start cell to the goal cell.
+     *
+     * @return the cells where the path enters or leaves a chunk, from start to goal
+     */
+    private long[] abstractRoute(int sx, int sy, int gx, int gy, int gcx, int gcy) {
+        long start = NavRules.cell(sx, sy);
+        long goal = NavRules.cell(gx, gy);
+        TileSearch.Bounds goalBounds = bounds(gcx, gcy);
+        int margin = margin(sx, sy, gx, gy);
+        TileSearch.Bounds area = new TileSearch.Bounds(Math.min(sx, gx) - margin, Math.min(sy, gy) - margin,
+                Math.max(sx, gx) + margin, Math.max(sy, gy) + margin);
+
+        SearchBuffers open = route;
+        open.clear();
+        int slot = open.slot(start);
+        open.g[slot] = 0f;
+        open.push(NavRules.heuristic(sx, sy, gx, gy), start);
+
+        float bestGoal = Float.POSITIVE_INFINITY;
+        long bestGoalParent = 0;
+        int expansions = 0;
+        while (!open.isEmpty() && expansions < MAX_ABSTRACT_EXPANSIONS) {
+            if (open.peekF() >= bestGoal) break;
+            long current = open.pop();
+            int cs = open.find(current);
+            if (open.closed[cs]) continue;
+            open.closed[cs] = true;
+            expansions++;
+            float currentG = open.g[cs];
+            int cx = NavRules.cellX(current), cy = NavRules.cellY(current);
+            int ccx = Math.floorDiv(cx, chunkSize), ccy = Math.floorDiv(cy, chunkSize);
+
+            // Inside the goal chunk: try to finish with a confined tile search
+            if (ccx == gcx && ccy == gcy) {
+                long[] tail = search.find(tiles, rules, cx, cy, gx, gy, goalBounds, MAX_TILE_EXPANSIONS);
+                if (tail != null) {
+                    float total = currentG + pathCost(tail);
+                    if (total < bestGoal) {
+                        bestGoal = total;
+                        bestGoalParent = current;
+                    }
+                }
+            }
+
+            ChunkNav nav = nav(ccx, ccy);
+            // Moves out of this chunk
+            Edge[] out = nav.exits.get(current);
+            if (out != null) for (Edge edge : out) relax(current, currentG, edge, gx, gy, area);
+            // Walks to this chunk's exits
+            for (Edge edge : nav.intra(current)) relax(current, currentG, edge, gx, gy, area);
+        }
+        if (Float.isInfinite(bestGoal)) return null;
+
+        long[] head = open.path(bestGoalParent);
+        long[] result = Arrays.copyOf(head, head.length + 1);
+        result[head.length] = goal;
+        return result;
+    }
+
+    private void relax(long current, float currentG, Edge edge, int gx, int gy, TileSearch.Bounds area) {
+        int tx = NavRules.cellX(edge.to), ty = NavRules.cellY(edge.to);
+        if (!area.contains(tx, ty)) return;
+        SearchBuffers open = route;
+        int s = open.find(edge.to);
+        if (s >= 0 && open.closed[s]) return;
+        float g = currentG + edge.cost;
+        if (s >= 0 && g >= open.g[s]) return;
+        if (s < 0) s = open.slot(edge.to);
+        open.g[s] = g;
+        open.parent[s] = current;
+        open.push(g + NavRules.heuristic(tx, ty, gx, gy), edge.to);
+    }
+
+    /**
+     * Expands consecutive route cells into tile paths: cells in the same chunk by a search
+     * confined to it, cells in different chunks are a single move apart.
+     */
+    private long[] refine(long[] route) {
+        List<long[]> segments = new ArrayList<>();
+        int length = 1;
+        for (int i = 1; i < route.length; i++) {
+            long a = route[i - 1], b = route[i];
+            int ax = NavRules.cellX(a), ay = NavRules.cellY(a);
+            int bx = NavRules.cellX(b), by = NavRules.cellY(b);
+            int acx = Math.floorDiv(ax, chunkSize), acy = Math.floorDiv(ay, chunkSize);
+            long[] segment;
+            if (acx == Math.floorDiv(bx, chunkSize) && acy == Math.floorDiv(by, chunkSize)) {
+                segment = search.find(tiles, rules, ax, ay, bx, by, bounds(acx, acy), MAX_TILE_EXPANSIONS);
+                if (segment == null) return null;
+            } else {
+                segment = new long[]{a, b};
+            }
+            segments.add(segment);
+            length += segment.length - 1;
+        }
+        long[] path = new long[length];
+        path[0] = route[0];
+        int n = 1;
+        for (long[] segment : segments) {
+            System.arraycopy(segment, 1, path, n, segment.length - 1);
+            n += segment.length - 1;
+        }
+        return path;
+    }
+
+    /**
+     * Tiles a long search may stray outside the start-goal box. Detours may leave it by half
+     * the distance, so unreachable goals cannot flood the whole world.
+     */
+    int margin(int sx, int sy, int gx, int gy) {
+        return Math.max(2 * chunkSize, (Math.abs(gx - sx) + Math.abs(gy - sy)) / 2);
+    }
+
+    /**
+     * Chunks around a chunk whose tiles its navigation data depends on.
+     */
+    int dependRadius() {
+        return dependRadius;
+    }
+
+    private static float pathCost(long[] cells) {
+        float cost = 0;
+        for (int i = 1; i < cells.length; i++) {
+            cost += NavRules.cost(NavRules.cellX(cells[i - 1]), NavRules.cellY(cells[i - 1]),
+                    NavRules.cellX(cells[i]), NavRules.cellY(cells[i]));
+        }
+        return cost;
+    }
+
+    private TileSearch.Bounds bounds(int cx, int cy) {
+        int x = cx * chunkSize, y = cy * chunkSize;
+        return new TileSearch.Bounds(x, y, x + chunkSize - 1, y + chunkSize - 1);
+    }
+
+    /**
+     * Returns the chunk's navigation data, building it if missing or out of date.
+     */
+    private ChunkNav nav(int cx, int cy) {
+        long key = NavRules.cell(cx, cy);
+        ChunkNav nav = chunks.get(key);
+        if (nav != null && nav.checked == query) return nav;
+        if (nav == null || nav.stale()) {
+            nav = build(cx, cy);
+            chunks.put(key, nav);
+        }
+        nav.checked = query;
+        return nav;
+    }
+
+    private ChunkNav build(int cx, int cy) {
+        builds++;
+        ChunkNav nav = new ChunkNav(cx, cy);
+        int minX = cx * chunkSize, minY = cy * chunkSize;
+        List<Edge> out = new ArrayList<>(4);
+        for (int x = minX; x < minX + chunkSize; x++) {
+            for (int y = minY; y < minY + chunkSize; y++) {
+                final int fx = x, fy = y;
+                rules.neighbors(tiles, x, y, (tx, ty) -> {
+                    if (Math.floorDiv(tx, chunkSize) != cx || Math.floorDiv(ty, chunkSize) != cy) {
+                        out.add(new Edge(NavRules.cell(tx, ty), NavRules.cost(fx, fy, tx, ty)));
+                    }
+                });
+                if (!out.isEmpty()) {
+                    nav.exits.put(NavRules.cell(x, y), out.toArray(new Edge[0]));
+                    out.clear();
+                }
+            }
+        }
+        nav.stamp();
+        return nav;
+    }
+
+    /**
+     * Navigation data of one chunk.
+     */
+    private final class ChunkNav {
+        final int cx, cy;
+        // Exit cell -> moves into neighbouring chunks
+        final Map<Long, Edge[]> exits = new LinkedHashMap<>();
+        // Cell -> costs to the exits reachable without leaving the chunk, filled on demand
+        final Map<Long, Edge[]> intra = new HashMap<>();
+        // Chunks read while building and their modification counters
+        TileChunk[] deps;
+        int[] depModifications;
+        int checked; // query in which the stamp was last validated
+
+        ChunkNav(int cx, int cy) {
+            this.cx = cx;
+            this.cy = cy;
+        }
+
+        Edge[] intra(long cell) {
+            Edge[] edges = intra.get(cell);
+            if (edges != null) return edges;
+            search.flood(tiles, rules, NavRules.cellX(cell), NavRules.cellY(cell),
+                    bounds(cx, cy), chunkSize * chunkSize);
+            List<Edge> list = new ArrayList<>();
+            for (long exit : exits.keySet()) {
+                if (exit == cell) continue;
+                float cost = search.cost(exit);
+                if (!Float.isNaN(cost)) list.add(new Edge(exit, cost));
+            }
+            edges = list.toArray(new Edge[0]);
+            intra.put(cell, edges);
+            return edges;
+        }
+
+        void stamp() {
+            int side = 2 * dependRadius + 1;
+            deps = new TileChunk[side * side];
+            depModifications = new int[side * side];
+            int i = 0;
+            for (int x = cx - dependRadius; x <= cx + dependRadius; x++) {
+                for (int y = cy - dependRadius; y <= cy + dependRadius; y++, i++) {
+                    TileChunk chunk = loaded(x, y);
+                    deps[i] = chunk;
+                    depModifications[i] = chunk == null ? 0 : chunk.modifications();
+                }
+            }
+        }
+
+        /**
+         * True if a chunk this data was built from has changed. Chunks that are not loaded
+         * cannot have changed since they were saved and are skipped.
+         */
+        boolean stale() {
+            int i = 0;
+            for (int x = cx - dependRadius; x <= cx + dependRadius; x++) {
+                for (int y = cy - dependRadius; y <= cy + dependRadius; y++, i++) {
+                    TileChunk chunk = loaded(x, y);
+                    if (chunk == null) continue;
+                    if (chunk != deps[i] || chunk.modifications() != depModifications[i]) return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The chunk the current query sees, or null if it is not loaded (or not in its snapshot).
+     */
+    private TileChunk loaded(int cx, int cy) {
+        return view != null ? view.captured(cx, cy) : world.peekLoaded(cx, cy);
+    }
+
+    private record Edge(long to, float cost) {
+    }
+}
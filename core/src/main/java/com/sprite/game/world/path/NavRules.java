@@ -0,0 +1,160 @@
+package com.sprite.game.world.path;
+
+import com.sprite.game.world.TileAccessor;
+
+/**
+ * Movement rules of a walking, jumping entity on the tile grid.
+ * <p>
+ * A navigation cell (tx, ty) is the tile holding the entity's bottom-left corner. An entity
+ * {@link #fits} in a cell if its box overlaps no solid tile there, and can {@link #standable
+ * stand} in it if it also has solid ground directly below its feet. {@link #neighbors} lists the
+ * cells reachable in one move: walking or falling sideways, jumping up to {@link #maxUp()} tiles,
+ * stepping down, or dropping to the first landing when airborne. Entities with the same size and
+ * jump height share rules, so rules double as the key for cached navigation data.
+ *
+ * @param width  entity width in world units
+ * @param height entity height in world units
+ * @param maxUp  highest jump in tiles
+ */
+public record NavRules(float width, float height, int maxUp) {
+
+    // Tiles scanned downward for a landing spot when walking off a ledge or falling
+    public static final int FALL_SCAN = 8;
+
+    /**
+     * Rules for an entity of the given size whose jump reaches {@code maxJumpHeight} world units.
+     * Jumps are capped at three tiles, and unset or implausible heights default to three.
+     */
+    public static NavRules of(float width, float height, float maxJumpHeight, int tileSize) {
+        int maxUpTiles = Float.isInfinite(maxJumpHeight) ? 0 : (int) Math.floor(maxJumpHeight / tileSize);
+        if (maxUpTiles <= 0 || maxUpTiles > 8) maxUpTiles = 3; // default conservative cap
+        return new NavRules(width, height, Math.min(maxUpTiles, 3));
+    }
+
+    /**
+     * Receives the cells produced by {@link #neighbors}.
+     */
+    public interface Neighbors {
+        void accept(int tx, int ty);
+    }
+
+    /**
+     * Emits every cell reachable from (cx, cy) in one move.
+     */
+    public void neighbors(TileAccessor tiles, int cx, int cy, Neighbors out) {
+        // Ensure current is valid; if not on ground, drop to ground directly
+        if (!standable(tiles, cx, cy)) {
+            int landY = fallLanding(tiles, cx, cy, FALL_SCAN);
+            if (landY != Integer.MIN_VALUE) out.accept(cx, landY);
+            return;
+        }
+
+        // Walk left/right on same level if destination standable, else fall to the first landing
+        for (int nx = cx - 1; nx <= cx + 1; nx += 2) {
+            if (standable(tiles, nx, cy)) out.accept(nx, cy);
+            else if (fits(tiles, nx, cy)) {
+                int land = fallLanding(tiles, nx, cy, FALL_SCAN);
+                if (land != Integer.MIN_VALUE) out.accept(nx, land);
+            }
+        }
+
+        // Step up and simple jump up: the lowest standable cell up to maxUp tiles higher (±1 x)
+        for (int j = 1; j <= maxUp; j++) {
+            if (fits(tiles, cx, cy + j) && standable(tiles, cx, cy + j)) {
+                out.accept(cx, cy + j);
+                break;
+            }
+            if (fits(tiles, cx - 1, cy + j) && standable(tiles, cx - 1, cy + j)) {
+                out.accept(cx - 1, cy + j);
+                break;
+            }
+            if (fits(tiles, cx + 1, cy + j) && standable(tiles, cx + 1, cy + j)) {
+                out.accept(cx + 1, cy + j);
+                break;
+            }
+        }
+
+        // Allow small step down (descending stairs)
+        if (standable(tiles, cx, cy - 1)) out.accept(cx, cy - 1);
+    }
+
+    /**
+     * Cost of a single move: one per tile, upward moves weigh a little more to discourage
+     * excessive jumping.
+     */
+    public static float cost(int ax, int ay, int bx, int by) {
+        int dx = Math.abs(ax - bx);
+        int dy = Math.abs(ay - by);
+        float cost = dx + dy;
+        if (by > ay) cost += 0.25f * (by - ay);
+        return cost;
+    }
+
+    /**
+     * Admissible estimate of the remaining cost: Manhattan distance in tiles.
+     */
+    public static float heuristic(int ax, int ay, int bx, int by) {
+        return Math.abs(ax - bx) + Math.abs(ay - by);
+    }
+
+    /**
+     * First cell below (tx, startTy) within maxScan tiles the entity can stand in, or
+     * {@link Integer#MIN_VALUE} if it hits solid ground or finds none.
+     */
+    public int fallLanding(TileAccessor tiles, int tx, int startTy, int maxScan) {
+        for (int dy = 1; dy <= maxScan; dy++) {
+            int ty = startTy - dy;
+            if (standable(tiles, tx, ty)) return ty;
+            // if we've hit solid where body overlaps, stop
+            if (!fits(tiles, tx, ty)) return Integer.MIN_VALUE;
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    public boolean standable(TileAccessor tiles, int tx, int ty) {
+        if (!fits(tiles, tx, ty)) return false;
+        // Require solid ground directly below any part of the entity's feet
+        final int ts = tiles.world().tileSize();
+        float wx = tx * ts;
+        float wy = (ty * ts) - 1; // just below feet
+        float ex = wx + width;
+        for (float x = wx; x < ex; x += Math.min(ts, width)) {
+            if (tiles.solidAtWorld(x + 0.5f, wy)) return true;
+        }
+        // Also check the far edge
+        return tiles.solidAtWorld(ex - 0.5f, wy);
+    }
+
+    public boolean fits(TileAccessor tiles, int tx, int ty) {
+        final int ts = tiles.world().tileSize();
+        float wx = tx * ts;
+        float wy = ty * ts;
+        int minTx = (int) Math.floor((wx + 0.001f) / ts);
+        int maxTx = (int) Math.floor((wx + width - 0.001f) / ts);
+        int minTy = (int) Math.floor((wy + 0.001f) / ts);
+        int maxTy = (int) Math.floor((wy + height - 0.001f) / ts);
+        return !tiles.anySolid(minTx, minTy, maxTx, maxTy);
+    }
+
+    /**
+     * Farthest a single move can reach from its cell, in tiles, including the tiles read to
+     * decide it. Navigation data for a chunk depends on tiles up to this far outside it.
+     */
+    public int reach(int tileSize) {
+        int w = (int) Math.ceil(width / tileSize);
+        int h = (int) Math.ceil(height / tileSize);
+        return Math.max(FALL_SCAN + 1, maxUp + h) + Math.max(w, 1) + 1;
+    }
+
+    public static long cell(int tx, int ty) {
+        return (((long) tx) << 32) ^ (ty & 0xffffffffL);
+    }
+
+    public static int cellX(long cell) {
+        return (int) (cell >> 32);
+    }
+
+    public static int cellY(long cell) {
+        return (int) cell;
+    }
+}
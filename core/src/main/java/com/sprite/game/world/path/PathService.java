@@ -0,0 +1,319 @@
+package com.sprite.game.world.path;
+
+import com.badlogic.gdx.Gdx;
+import com.sprite.game.world.TileView;
+import com.sprite.game.world.World;
+import com.sprite.game.world.tiles.TileChunk;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous pathfinding for the entities of one world.
+ * <p>
+ * Entities {@link #request} paths instead of searching inline. Requests are queued and at most
+ * {@code budget} of them are dispatched per {@link #tick()}, so a crowd of pathing mobs
+ * spreads its cost over several ticks instead of spiking one. A request that matches one
+ * still in flight (same rules, start and goal cell) returns that request instead of queuing
+ * another search.
+ * <p>
+ * The requests dispatched in one tick share a {@link TileView} snapshot: private copies of the
+ * loaded chunks their searches can read, reused across ticks until the source chunk changes.
+ * Once the snapshot is complete the requests go to daemon worker threads, each searching its
+ * own {@link NavGraph} over the snapshot. Results are parked in a hand-off queue and only become visible when the world's
+ * thread calls {@link #tick()}, so a result always arrives on a later tick than its request.
+ * Chunks that are not loaded read as air; pathing never loads or generates terrain. With no
+ * worker threads the dispatched searches run inline on the world's navigation graphs over the
+ * same snapshot, still budgeted and delivered on the next tick.
+ * <p>
+ * Apart from the workers, all methods are called on the world's thread.
+ */
+public class PathService {
+
+    // Snapshot chunks a single request may capture; longer searches get a narrower margin
+    private static final int MAX_SNAPSHOT_CHUNKS = 4096;
+    // Cached chunk copies before the cache is dropped and refilled on demand
+    private static final int MAX_CACHED_COPIES = 8192;
+
+    private final World world;
+    private final Thread[] workers;
+    private final LinkedBlockingQueue<Request> jobs = new LinkedBlockingQueue<>();
+    private final ConcurrentLinkedQueue<Request> completed = new ConcurrentLinkedQueue<>();
+    private final ArrayDeque<Request> queued = new ArrayDeque<>();
+    private final Map<Key, Request> pending = new HashMap<>();
+    private final Map<Long, Copy> copies = new HashMap<>();
+    private final List<Request> dispatched = new ArrayList<>();
+    private int budget;
+    private volatile boolean running = true;
+
+    private long tick = 0;
+    private long requested = 0;
+    private long deduplicated = 0;
+    private long searched = 0;
+    private long found = 0;
+    private final LongAdder searchNanos = new LongAdder(); // summed by workers or inline searches
+    private long maxQueued = 0;
+
+    /**
+     * @param threads worker threads; 0 runs dispatched searches on the world's thread
+     * @param budget  requests dispatched per tick
+     */
+    public PathService(World world, int threads, int budget) {
+        this.world = world;
+        this.budget = Math.max(1, budget);
+        this.workers = new Thread[Math.max(0, threads)];
+        for (int i = 0; i < workers.length; i++) {
+            Thread t = new Thread(this::work, "path-worker-" + i);
+            t.setDaemon(true);
+            t.start();
+            workers[i] = t;
+        }
+    }
+
+    /**
+     * Queues a path search between two cells for entities moving by the given rules.
+     *
+     * @return the request to poll for the result; an identical request still in flight is
+     * returned as is
+     */
+    public Request request(NavRules rules, int sx, int sy, int gx, int gy) {
+        requested++;
+        Key key = new Key(rules, NavRules.cell(sx, sy), NavRules.cell(gx, gy));
+        Request existing = pending.get(key);
+        if (existing != null) {
+            deduplicated++;
+            return existing;
+        }
+        Request r = new Request(key, tick);
+        pending.put(key, r);
+        queued.add(r);
+        maxQueued = Math.max(maxQueued, queued.size());
+        return r;
+    }
+
+    /**
+     * Delivers the results finished since the last tick, then dispatches up to the budget of
+     * queued requests.
+     */
+    public void tick() {
+        tick++;
+        Request r;
+        while ((r = completed.poll()) != null) {
+            pending.remove(r.key, r);
+            if (r.cells != null) found++;
+            r.done = true;
+        }
+        TileView view = null;
+        for (int i = 0; i < budget && !queued.isEmpty(); i++) {
+            r = queued.poll();
+            searched++;
+            if (view == null) view = new TileView(world.chunkSize());
+            capture(view, r);
+            if (workers.length == 0) {
+                // Same snapshot as a worker would read, so both modes find the same paths
+                long start = System.nanoTime();
+                r.cells = world.navigation(r.key.rules).findPath(view, r.sx(), r.sy(), r.gx(), r.gy());
+                searchNanos.add(System.nanoTime() - start);
+                completed.add(r);
+            } else {
+                r.view = view;
+                dispatched.add(r);
+            }
+        }
+        // Workers may read the snapshot only once nothing is added to it anymore
+        if (running) jobs.addAll(dispatched);
+        dispatched.clear();
+    }
+
+    /**
+     * Requests dispatched per tick.
+     */
+    public int budget() {
+        return budget;
+    }
+
+    public void budget(int budget) {
+        this.budget = Math.max(1, budget);
+    }
+
+    public int threads() {
+        return workers.length;
+    }
+
+    /**
+     * Requests waiting for dispatch or for their result.
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    public Stats stats() {
+        return new Stats(requested, deduplicated, searched, found, queued.size(), maxQueued,
+                searched == 0 ? 0 : searchNanos.sum() / 1e6 / searched);
+    }
+
+    /**
+     * Stops the workers. Requests in flight are never completed.
+     */
+    public void shutdown() {
+        running = false;
+        for (Thread t : workers) t.interrupt();
+        jobs.clear();
+        queued.clear();
+        pending.clear();
+        completed.clear();
+        copies.clear();
+    }
+
+    /**
+     * Adds copies of the loaded chunks the request's search can read to the view: the area its
+     * graph search may cover plus the reach of a move, which the chunk graph reads around every
+     * chunk it builds.
+     */
+    private void capture(TileView view, Request r) {
+        final int cs = world.chunkSize();
+        NavGraph graph = world.navigation(r.key.rules);
+        int sx = r.sx(), sy = r.sy(), gx = r.gx(), gy = r.gy();
+        int margin = graph.margin(sx, sy, gx, gy);
+        int pad = graph.dependRadius() + 1;
+        int minCx, minCy, maxCx, maxCy;
+        while (true) {
+            minCx = Math.floorDiv(Math.min(sx, gx) - margin, cs) - pad;
+            minCy = Math.floorDiv(Math.min(sy, gy) - margin, cs) - pad;
+            maxCx = Math.floorDiv(Math.max(sx, gx) + margin, cs) + pad;
+            maxCy = Math.floorDiv(Math.max(sy, gy) + margin, cs) + pad;
+            if ((long) (maxCx - minCx + 1) * (maxCy - minCy + 1) <= MAX_SNAPSHOT_CHUNKS || margin == 0) break;
+            margin /= 2;
+        }
+
+        if (copies.size() > MAX_CACHED_COPIES) copies.clear();
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cy = minCy; cy <= maxCy; cy++) {
+                if (view.captured(cx, cy) != null) continue;
+                TileChunk chunk = world.peekLoaded(cx, cy);
+                if (chunk != null) view.put(copy(chunk));
+            }
+        }
+    }
+
+    /**
+     * Returns a private copy of the chunk, shared by all snapshots until the chunk changes.
+     */
+    private TileChunk copy(TileChunk chunk) {
+        long key = NavRules.cell(chunk.chunkX(), chunk.chunkY());
+        Copy copy = copies.get(key);
+        if (copy != null && copy.source == chunk && copy.modifications == chunk.modifications()) return copy.chunk;
+        TileChunk c = chunk.copy();
+        copies.put(key, new Copy(chunk, chunk.modifications(), c));
+        return c;
+    }
+
+    private void work() {
+        // Each worker keeps its own graphs; their caches persist across the worker's requests
+        Map<NavRules, NavGraph> graphs = new HashMap<>();
+        while (running) {
+            Request r;
+            try {
+                r = jobs.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                NavGraph graph = graphs.computeIfAbsent(r.key.rules, rules -> new NavGraph(world, rules));
+                r.cells = graph.findPath(r.view, r.sx(), r.sy(), r.gx(), r.gy());
+            } catch (Throwable t) {
+                if (Gdx.app != null) Gdx.app.error("PathService", "Path search failed", t);
+            }
+            searchNanos.add(System.nanoTime() - start);
+            r.view = null;
+            // Failed searches are handed back too, so the request completes without a path
+            completed.add(r);
+        }
+    }
+
+    /**
+     * A queued or finished path search. Poll {@link #done()} once per tick; the result does
+     * not change after that.
+     */
+    public static final class Request {
+        private final Key key;
+        private final long tick;
+        private volatile long[] cells;
+        private TileView view;
+        private boolean done = false;
+
+        private Request(Key key, long tick) {
+            this.key = key;
+            this.tick = tick;
+        }
+
+        /**
+         * True once the result has been delivered.
+         */
+        public boolean done() {
+            return done;
+        }
+
+        /**
+         * The path's cells from start to goal, or null if none was found; valid once done.
+         */
+        public long[] cells() {
+            return done ? cells : null;
+        }
+
+        public NavRules rules() {
+            return key.rules;
+        }
+
+        /**
+         * Service tick in which the request was made.
+         */
+        public long tick() {
+            return tick;
+        }
+
+        int sx() {
+            return NavRules.cellX(key.start);
+        }
+
+        int sy() {
+            return NavRules.cellY(key.start);
+        }
+
+        int gx() {
+            return NavRules.cellX(key.goal);
+        }
+
+        int gy() {
+            return NavRules.cellY(key.goal);
+        }
+    }
+
+    /**
+     * Path service counters.
+     *
+     * @param requested    requests made
+     * @param deduplicated requests answered by one already in flight
+     * @param searched     searches dispatched
+     * @param found        searches that found a path
+     * @param queued       requests waiting for dispatch
+     * @param maxQueued    longest the dispatch queue has been
+     * @param avgSearchMs  mean search time
+     */
+    public record Stats(long requested, long deduplicated, long searched, long found, int queued, long maxQueued,
+                        double avgSearchMs) {
+    }
+
+    private record Key(NavRules rules, long start, long goal) {
+    }
+
+    private record Copy(TileChunk source, int modifications, TileChunk chunk) {
+    }
+}
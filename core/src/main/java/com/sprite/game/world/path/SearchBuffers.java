@@ -0,0 +1,169 @@
+package com.sprite.game.world.path;
+
+import java.util.Arrays;
+
+/**
+ * Reusable open list and cell table of a best-first search over cells packed into {@code long}
+ * keys, shared by {@link TileSearch} and the chunk-level search in {@link NavGraph}.
+ * <p>
+ * The open list is a binary heap over parallel primitive arrays that mirrors
+ * {@link java.util.PriorityQueue}'s sift order, so ties are broken exactly as an object-based
+ * search would. The per-cell scores, parents and closed flags live in an open-addressing table
+ * with linear probing. All arrays grow as needed and are kept for later searches, which
+ * invalidate old entries by bumping a generation stamp instead of clearing. Not thread-safe.
+ */
+final class SearchBuffers {
+
+    static final long NO_PARENT = Long.MIN_VALUE;
+
+    // Open list: binary heap of (f, cell) pairs
+    private float[] heapF = new float[256];
+    private long[] heapCell = new long[256];
+    private int heapSize = 0;
+
+    // Cell table: entries valid when stamp == generation
+    private long[] keys = new long[1024];
+    float[] g = new float[1024];
+    long[] parent = new long[1024];
+    boolean[] closed = new boolean[1024];
+    private int[] stamp = new int[1024];
+    private int mask = 1023;
+    private int used = 0;
+    private int generation = 0;
+
+    /**
+     * Empties the open list and forgets every cell.
+     */
+    void clear() {
+        heapSize = 0;
+        used = 0;
+        if (++generation == 0) {
+            // Stamps wrapped around; forget them all once
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Cells from the start to {@code end}, following parents.
+     */
+    long[] path(long end) {
+        int length = 0;
+        for (long c = end; c != NO_PARENT; c = parent[find(c)]) length++;
+        long[] cells = new long[length];
+        for (long c = end; c != NO_PARENT; c = parent[find(c)]) cells[--length] = c;
+        return cells;
+    }
+
+    // -------------------- Binary heap (same sift order as java.util.PriorityQueue) --------------------
+
+    boolean isEmpty() {
+        return heapSize == 0;
+    }
+
+    /**
+     * Priority of the cell {@link #pop} would return next.
+     */
+    float peekF() {
+        return heapF[0];
+    }
+
+    void push(float f, long cell) {
+        if (heapSize == heapF.length) {
+            heapF = Arrays.copyOf(heapF, heapSize * 2);
+            heapCell = Arrays.copyOf(heapCell, heapSize * 2);
+        }
+        int k = heapSize++;
+        while (k > 0) {
+            int p = (k - 1) >>> 1;
+            if (f >= heapF[p]) break;
+            heapF[k] = heapF[p];
+            heapCell[k] = heapCell[p];
+            k = p;
+        }
+        heapF[k] = f;
+        heapCell[k] = cell;
+    }
+
+    long pop() {
+        long result = heapCell[0];
+        int n = --heapSize;
+        if (n > 0) {
+            float f = heapF[n];
+            long cell = heapCell[n];
+            int k = 0;
+            int half = n >>> 1;
+            while (k < half) {
+                int child = (k << 1) + 1;
+                int right = child + 1;
+                if (right < n && heapF[child] > heapF[right]) child = right;
+                if (f <= heapF[child]) break;
+                heapF[k] = heapF[child];
+                heapCell[k] = heapCell[child];
+                k = child;
+            }
+            heapF[k] = f;
+            heapCell[k] = cell;
+        }
+        return result;
+    }
+
+    // -------------------- Open-addressing cell table --------------------
+
+    /**
+     * Slot holding the cell in this search, or -1.
+     */
+    int find(long cell) {
+        int i = hash(cell) & mask;
+        while (stamp[i] == generation) {
+            if (keys[i] == cell) return i;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Inserts the cell (not yet present) with no parent and returns its slot.
+     */
+    int slot(long cell) {
+        if ((used + 1) * 2 > keys.length) grow();
+        int i = hash(cell) & mask;
+        while (stamp[i] == generation) i = (i + 1) & mask;
+        stamp[i] = generation;
+        keys[i] = cell;
+        parent[i] = NO_PARENT;
+        closed[i] = false;
+        used++;
+        return i;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        float[] oldG = g;
+        long[] oldParent = parent;
+        boolean[] oldClosed = closed;
+        int[] oldStamp = stamp;
+        int capacity = oldKeys.length * 2;
+        keys = new long[capacity];
+        g = new float[capacity];
+        parent = new long[capacity];
+        closed = new boolean[capacity];
+        stamp = new int[capacity];
+        mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldStamp[j] != generation) continue;
+            int i = hash(oldKeys[j]) & mask;
+            while (stamp[i] == generation) i = (i + 1) & mask;
+            stamp[i] = generation;
+            keys[i] = oldKeys[j];
+            g[i] = oldG[j];
+            parent[i] = oldParent[j];
+            closed[i] = oldClosed[j];
+        }
+    }
+
+    private static int hash(long cell) {
+        long h = cell * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,132 @@
+package com.sprite.game.world.path;
+
+import com.sprite.game.world.TileAccessor;
+
+/**
+ * Tile-level A* over the cells and moves defined by {@link NavRules}, optionally confined to a
+ * rectangle of cells. Used directly for short paths and by {@link NavGraph} to build and refine
+ * the chunk-level graph.
+ * <p>
+ * Searches do not allocate per node: cells are packed into {@code long} keys and the open list
+ * and per-cell scores live in primitive {@link SearchBuffers} reused by later searches. Ties are
+ * broken exactly as the object-based search did, so paths are unchanged. Not thread-safe; keep
+ * one instance per thread.
+ */
+public class TileSearch implements NavRules.Neighbors {
+
+    /**
+     * Inclusive cell rectangle a search may not leave.
+     */
+    public record Bounds(int minX, int minY, int maxX, int maxY) {
+
+        public static final Bounds UNBOUNDED = new Bounds(Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+        public boolean contains(int x, int y) {
+            return x >= minX && x <= maxX && y >= minY && y <= maxY;
+        }
+    }
+
+    private final SearchBuffers buffers = new SearchBuffers();
+
+    // State of the expansion in progress, read by accept()
+    private Bounds bounds;
+    private int currentX, currentY;
+    private long currentCell;
+    private float currentG;
+    private int goalX, goalY;
+    private boolean heuristic;
+
+    /**
+     * Finds the cheapest path from (sx, sy) to (gx, gy).
+     *
+     * @return the path's cells from start to goal, or null if none was found within the bounds
+     * and expansion limit
+     */
+    public long[] find(TileAccessor tiles, NavRules rules, int sx, int sy, int gx, int gy, Bounds bounds, int maxExpansions) {
+        begin(bounds, gx, gy, true);
+        long start = NavRules.cell(sx, sy);
+        long goal = NavRules.cell(gx, gy);
+        SearchBuffers b = buffers;
+        int slot = b.slot(start);
+        b.g[slot] = 0f;
+        b.push(NavRules.heuristic(sx, sy, gx, gy), start);
+
+        int expansions = 0;
+        while (!b.isEmpty() && expansions < maxExpansions) {
+            long current = b.pop();
+            if (current == goal) return b.path(goal);
+            int cs = b.find(current);
+            if (b.closed[cs]) continue;
+            b.closed[cs] = true;
+            expansions++;
+            expand(tiles, rules, current, b.g[cs]);
+        }
+        return null; // failed to find path within limits
+    }
+
+    /**
+     * Computes the cheapest cost from (sx, sy) to every cell reachable without leaving the
+     * bounds, visiting at most {@code maxCells} cells. Read the results with {@link #cost}
+     * until the next search.
+     */
+    public void flood(TileAccessor tiles, NavRules rules, int sx, int sy, Bounds bounds, int maxCells) {
+        begin(bounds, 0, 0, false);
+        long start = NavRules.cell(sx, sy);
+        SearchBuffers b = buffers;
+        int slot = b.slot(start);
+        b.g[slot] = 0f;
+        b.push(0f, start);
+
+        int visited = 0;
+        while (!b.isEmpty() && visited < maxCells) {
+            long current = b.pop();
+            int cs = b.find(current);
+            if (b.closed[cs]) continue;
+            b.closed[cs] = true;
+            visited++;
+            expand(tiles, rules, current, b.g[cs]);
+        }
+    }
+
+    /**
+     * Cost of the cell in the last {@link #flood}, or NaN if it was not reached.
+     */
+    public float cost(long cell) {
+        int s = buffers.find(cell);
+        return s >= 0 && buffers.closed[s] ? buffers.g[s] : Float.NaN;
+    }
+
+    private void begin(Bounds bounds, int gx, int gy, boolean heuristic) {
+        this.bounds = bounds;
+        this.goalX = gx;
+        this.goalY = gy;
+        this.heuristic = heuristic;
+        buffers.clear();
+    }
+
+    private void expand(TileAccessor tiles, NavRules rules, long cell, float cellG) {
+        currentCell = cell;
+        currentX = NavRules.cellX(cell);
+        currentY = NavRules.cellY(cell);
+        currentG = cellG;
+        rules.neighbors(tiles, currentX, currentY, this);
+    }
+
+    /**
+     * Relaxes one neighbour of the cell being expanded.
+     */
+    @Override
+    public void accept(int tx, int ty) {
+        if (!bounds.contains(tx, ty)) return;
+        long cell = NavRules.cell(tx, ty);
+        SearchBuffers b = buffers;
+        int s = b.find(cell);
+        if (s >= 0 && b.closed[s]) return;
+        float tentativeG = currentG + NavRules.cost(currentX, currentY, tx, ty);
+        if (s >= 0 && tentativeG >= b.g[s]) return;
+        if (s < 0) s = b.slot(cell);
+        b.g[s] = tentativeG;
+        b.parent[s] = currentCell;
+        b.push(heuristic ? tentativeG + NavRules.heuristic(tx, ty, goalX, goalY) : tentativeG, cell);
+    }
+}
@@ -0,0 +1,148 @@
+package com.sprite.game.world.tiles;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.sprite.resource.tiles.TileType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Pre-baked sprite vertices for the solid tiles of one {@link TileChunk}, grouped by texture.
+ * <p>
+ * Baking resolves each tile's {@link TileType} once and writes the four {@link Batch} vertices
+ * (x, y, packed color, u, v) of its quad into a float array per texture, sized exactly to the
+ * texture's quad count. Drawing is then one {@link Batch#draw(Texture, float[], int, int)} call
+ * per texture instead of one per tile. A mesh stays valid until the chunk's
+ * {@link TileChunk#modifications() modification counter} or the batch color changes.
+ */
+public class ChunkMesh {
+
+    private static final int FLOATS_PER_QUAD = 20;
+
+    private final int modifications;
+    private final float color;
+    private final Texture[] textures;
+    private final float[][] vertices;
+    private final int[] counts;
+
+    private ChunkMesh(int modifications, float color, Texture[] textures, float[][] vertices, int[] counts) {
+        this.modifications = modifications;
+        this.color = color;
+        this.textures = textures;
+        this.vertices = vertices;
+        this.counts = counts;
+    }
+
+    /**
+     * Bakes the chunk's solid tiles at world position chunk * size * tileSize.
+     *
+     * @param palette resolves tile ids whose type is not cached on the chunk yet; may return null
+     */
+    public static ChunkMesh bake(TileChunk chunk, int tileSize, float color, IntFunction<TileType> palette) {
+        List<Texture> textures = new ArrayList<>(4);
+        int[] counts = new int[4];
+
+        // First pass: resolve and cache every tile's type and count the quads per texture, so
+        // each texture's vertex array is allocated at its exact size
+        final int size = chunk.size();
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                Texture texture = texture(chunk, x, y, palette);
+                if (texture == null) continue;
+                int group = textures.indexOf(texture);
+                if (group < 0) {
+                    group = textures.size();
+                    textures.add(texture);
+                    if (group == counts.length) counts = Arrays.copyOf(counts, group * 2);
+                }
+                counts[group] += FLOATS_PER_QUAD;
+            }
+        }
+
+        float[][] vertices = new float[textures.size()][];
+        for (int i = 0; i < vertices.length; i++) vertices[i] = new float[counts[i]];
+        int[] offsets = new int[textures.size()];
+        int baseX = chunk.chunkX() * size * tileSize;
+        int baseY = chunk.chunkY() * size * tileSize;
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                TileType type = chunk.get(x, y) == 0 ? null : chunk.type(x, y);
+                if (type == null || type.texture() == null) continue;
+                Sprite sprite = type.texture().sprite();
+                int group = textures.indexOf(sprite.getTexture());
+                quad(vertices[group], offsets[group], sprite, baseX + x * tileSize, baseY + y * tileSize, tileSize, color);
+                offsets[group] += FLOATS_PER_QUAD;
+            }
+        }
+
+        return new ChunkMesh(chunk.modifications(), color, textures.toArray(new Texture[0]), vertices, offsets);
+    }
+
+    /**
+     * Texture of a solid tile, resolving and caching its type on the chunk if missing; null for
+     * air and tiles without a type or texture.
+     */
+    private static Texture texture(TileChunk chunk, int x, int y, IntFunction<TileType> palette) {
+        int id = chunk.get(x, y);
+        if (id == 0) return null; // air
+        TileType type = chunk.type(x, y);
+        if (type == null) {
+            type = palette.apply(id);
+            if (type != null) chunk.type(x, y, type);
+        }
+        return type == null || type.texture() == null ? null : type.texture().sprite().getTexture();
+    }
+
+    /**
+     * True if this mesh still matches the chunk contents and batch color.
+     */
+    public boolean isCurrent(TileChunk chunk, float color) {
+        return modifications == chunk.modifications() && this.color == color;
+    }
+
+    public void draw(Batch batch) {
+        for (int i = 0; i < textures.length; i++) {
+            batch.draw(textures[i], vertices[i], 0, counts[i]);
+        }
+    }
+
+    /**
+     * Writes a quad in the same vertex order and UV orientation as Batch#draw(TextureRegion, ...).
+     */
+    private static void quad(float[] v, int i, Sprite region, float x, float y, float size, float color) {
+        float x2 = x + size;
+        float y2 = y + size;
+        float u = region.getU();
+        float v1 = region.getV2();
+        float u2 = region.getU2();
+        float v2 = region.getV();
+
+        v[i] = x;
+        v[i + 1] = y;
+        v[i + 2] = color;
+        v[i + 3] = u;
+        v[i + 4] = v1;
+
+        v[i + 5] = x;
+        v[i + 6] = y2;
+        v[i + 7] = color;
+        v[i + 8] = u;
+        v[i + 9] = v2;
+
+        v[i + 10] = x2;
+        v[i + 11] = y2;
+        v[i + 12] = color;
+        v[i + 13] = u2;
+        v[i + 14] = v2;
+
+        v[i + 15] = x2;
+        v[i + 16] = y;
+        v[i + 17] = color;
+        v[i + 18] = u2;
+        v[i + 19] = v1;
+    }
+}
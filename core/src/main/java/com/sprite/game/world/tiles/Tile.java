@@ -7,9 +7,20 @@ import org.json.JSONObject;
  * Represents a single tile instance in the world. A Tile has an integer id
  * (used by generators, persistence, and palettes) and can optionally hold a
  * resolved TileType reference along with per-instance metadata for future use.
+ * <p>
+ * Tiles obtained from a {@link TileChunk} are lightweight views: every read and
+ * write goes straight to the chunk's packed storage. Tiles created with the public
+ * constructors are detached and hold their own state until copied into a chunk
+ * with {@link TileChunk#setTile(int, int, Tile)}.
  */
 public class Tile {
 
+    /**
+     * Backing chunk when this tile is a view; null for detached tiles.
+     */
+    private final TileChunk chunk;
+    private final int index;
+
     /**
      * Integer id used for palette lookup and persistence. 0 = air by convention.
      */
@@ -21,7 +32,7 @@ public class Tile {
     private TileType type;
 
     /**
-     * Optional per-instance metadata for modders/gameplay systems.
+     * Optional per-instance metadata for modders/gameplay systems. Allocated lazily.
      */
     private JSONObject metadata;
 
@@ -34,42 +45,63 @@ public class Tile {
     }
 
     public Tile(int id, TileType type) {
+        this.chunk = null;
+        this.index = -1;
         this.id = id;
         this.type = type;
-        this.metadata = new JSONObject();
+    }
+
+    Tile(TileChunk chunk, int index) {
+        this.chunk = chunk;
+        this.index = index;
     }
 
     public int id() {
-        return id;
+        return chunk != null ? chunk.id(index) : id;
     }
 
     /**
      * Sets the tile id and clears any cached type so it can be re-resolved.
      */
     public void id(int id) {
+        if (chunk != null) {
+            chunk.id(index, id);
+            return;
+        }
         this.id = id;
         // Invalidate cached type when id changes; palette lookup can restore it.
         this.type = null;
     }
 
     public TileType type() {
-        return type;
+        return chunk != null ? chunk.type(index) : type;
     }
 
     public void type(TileType type) {
-        this.type = type;
+        if (chunk != null) chunk.type(index, type);
+        else this.type = type;
     }
 
     public JSONObject metadata() {
+        if (chunk != null) return chunk.metadata(index);
         if (metadata == null) metadata = new JSONObject();
         return metadata;
     }
 
     public void metadata(JSONObject metadata) {
-        this.metadata = metadata == null ? new JSONObject() : metadata;
+        JSONObject value = metadata == null ? new JSONObject() : metadata;
+        if (chunk != null) chunk.metadata(index, value);
+        else this.metadata = value;
+    }
+
+    /**
+     * True if metadata has been attached to this tile, without allocating any.
+     */
+    public boolean hasMetadata() {
+        return chunk != null ? chunk.hasMetadata(index) : metadata != null;
     }
 
     public boolean isAir() {
-        return id == 0;
+        return id() == 0;
     }
 }
@@ -1,55 +1,285 @@
 package com.sprite.game.world.tiles;
 
+import com.sprite.resource.tiles.TileType;
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.Map;
+
 /**
- * A fixed-size chunk of tiles. Each chunk is 8x8 tiles.
- * Each tile is represented by a Tile instance. The Tile holds an integer id
- * for palette/persistence and can cache a resolved TileType and metadata.
+ * A square chunk of tiles. The edge length is a per-world setting ({@link #DEFAULT_SIZE} unless
+ * configured otherwise) and is fixed for the lifetime of the chunk.
+ * Tile ids are stored in a packed primitive array (x-major, then y) so a chunk
+ * costs a handful of objects regardless of its contents. Resolved TileTypes and
+ * per-tile metadata live in sparse side tables that are only allocated once used.
  * 0 = empty/air by convention; non-zero values can map to game-specific tiles.
+ * {@link Tile} instances returned by {@link #getTile(int, int)} are lightweight
+ * views that read and write through to this chunk.
+ * <p>
+ * A solidity bitset (one bit per tile, one or more 64-bit words per x column, bit = y) is kept
+ * in sync with the ids so collision queries over tile rectangles reduce to masked word tests.
+ * Solid means non-air (id != 0), matching {@code World#isSolid(int)}.
+ * <p>
+ * Every change to a tile id bumps a modification counter. Persistence marks the chunk clean
+ * after loading, generating or saving it, so chunks nobody edited since are never rewritten.
  */
 public class TileChunk {
-    public static final int SIZE = 8;
+    public static final int DEFAULT_SIZE = 8;
 
     private final int chunkX;
     private final int chunkY;
-    private final Tile[][] tiles = new Tile[SIZE][SIZE];
+    private final int size;
+    private final int[] ids;
+    // Solidity bits per column: solid[x * words + (y >>> 6)] bit (y & 63)
+    private final long[] solid;
+    private final int words;
+    // Lazily allocated cache of resolved types, indexed like ids
+    private TileType[] types = null;
+    // Sparse per-tile metadata keyed by packed index
+    private Map<Integer, JSONObject> metadata = null;
+    // Incremented on every tile id change; compared against the value at the last markClean()
+    private int modifications = 0;
+    private int cleanModifications = 0;
+    // Baked render data, rebuilt by the renderer when stale
+    private ChunkMesh mesh = null;
 
-    public TileChunk(int chunkX, int chunkY) {
+    public TileChunk(int chunkX, int chunkY, int size) {
+        if (size <= 0) throw new IllegalArgumentException("Chunk size must be positive: " + size);
         this.chunkX = chunkX;
         this.chunkY = chunkY;
-        // Initialize all tiles to air tiles
-        for (int x = 0; x < SIZE; x++) {
-            for (int y = 0; y < SIZE; y++) {
-                tiles[x][y] = new Tile(0);
-            }
-        }
+        this.size = size;
+        this.ids = new int[size * size];
+        this.words = (size + 63) >>> 6;
+        this.solid = new long[size * words];
     }
 
     public int chunkX() { return chunkX; }
     public int chunkY() { return chunkY; }
 
+    /**
+     * Edge length of this chunk in tiles.
+     */
+    public int size() { return size; }
+
+    /**
+     * Packs local coordinates into an index of the backing arrays.
+     */
+    int index(int x, int y) {
+        return x * size + y;
+    }
+
     /**
      * Backward-compatible integer id accessor.
      */
-    public int get(int x, int y) { return tiles[x][y].id(); }
+    public int get(int x, int y) { return ids[index(x, y)]; }
 
     /**
-     * Backward-compatible integer id mutator.
+     * Backward-compatible integer id mutator. Clears the cached type of the tile.
      */
-    public void set(int x, int y, int id) { tiles[x][y].id(id); }
+    public void set(int x, int y, int id) { id(index(x, y), id); }
 
     /**
-     * Returns the Tile instance at local coordinates.
+     * Returns a view of the tile at local coordinates. The view is created on demand
+     * and writes through to this chunk.
      */
-    public Tile getTile(int x, int y) { return tiles[x][y]; }
+    public Tile getTile(int x, int y) { return new Tile(this, index(x, y)); }
 
     /**
-     * Replaces the Tile instance at local coordinates. If null is provided, sets air.
+     * Copies the id, type and metadata of the given tile into local coordinates.
+     * If null is provided, sets air and clears any metadata.
      */
-    public void setTile(int x, int y, Tile tile) { tiles[x][y] = tile == null ? new Tile(0) : tile; }
+    public void setTile(int x, int y, Tile tile) {
+        int index = index(x, y);
+        if (tile == null) {
+            id(index, 0);
+            metadata(index, null);
+            return;
+        }
+        id(index, tile.id());
+        type(index, tile.type());
+        metadata(index, tile.hasMetadata() ? tile.metadata() : null);
+    }
+
+    /**
+     * Returns the cached TileType at local coordinates, or null if not yet resolved.
+     */
+    public TileType type(int x, int y) { return type(index(x, y)); }
+
+    /**
+     * Caches a resolved TileType at local coordinates.
+     */
+    public void type(int x, int y, TileType type) { type(index(x, y), type); }
+
+    /**
+     * Returns a copy of all tile ids in x-major order (index = x * size + y).
+     */
+    public int[] ids() {
+        return ids.clone();
+    }
+
+    /**
+     * Replaces all tile ids from an x-major array of size * size entries and clears cached types.
+     */
+    public void ids(int[] source) {
+        if (source.length != ids.length)
+            throw new IllegalArgumentException("Expected " + ids.length + " tile ids, got " + source.length);
+        System.arraycopy(source, 0, ids, 0, ids.length);
+        types = null;
+        java.util.Arrays.fill(solid, 0L);
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != 0) markSolid(i, true);
+        }
+        modifications++;
+    }
+
+    /**
+     * Returns a detached chunk with the same tile ids and solidity, without cached types,
+     * metadata or mesh. Copies the backing arrays directly.
+     */
+    public TileChunk copy() {
+        TileChunk copy = new TileChunk(chunkX, chunkY, size);
+        System.arraycopy(ids, 0, copy.ids, 0, ids.length);
+        System.arraycopy(solid, 0, copy.solid, 0, solid.length);
+        return copy;
+    }
 
     public void fill(int id) {
-        for (int x = 0; x < SIZE; x++)
-            for (int y = 0; y < SIZE; y++)
-                tiles[x][y].id(id);
+        java.util.Arrays.fill(ids, id);
+        types = null;
+        java.util.Arrays.fill(solid, 0L);
+        if (id != 0) {
+            for (int x = 0; x < size; x++) {
+                for (int w = 0; w < words; w++) {
+                    int bits = Math.min(64, size - (w << 6));
+                    solid[x * words + w] = bits == 64 ? -1L : (1L << bits) - 1;
+                }
+            }
+        }
+        modifications++;
+    }
+
+    /**
+     * True if the tile at local coordinates is solid (non-air).
+     */
+    public boolean solid(int x, int y) {
+        return (solid[x * words + (y >>> 6)] & (1L << (y & 63))) != 0;
+    }
+
+    /**
+     * True if any tile in the inclusive local rectangle is solid. Coordinates are clamped to the
+     * chunk; each covered column costs one masked word test per 64 rows.
+     */
+    public boolean anySolid(int minX, int minY, int maxX, int maxY) {
+        if (minX < 0) minX = 0;
+        if (minY < 0) minY = 0;
+        if (maxX >= size) maxX = size - 1;
+        if (maxY >= size) maxY = size - 1;
+        if (minX > maxX || minY > maxY) return false;
+        int firstWord = minY >>> 6;
+        int lastWord = maxY >>> 6;
+        for (int w = firstWord; w <= lastWord; w++) {
+            int lo = w == firstWord ? minY & 63 : 0;
+            int hi = w == lastWord ? maxY & 63 : 63;
+            long mask = (-1L >>> (63 - hi)) & (-1L << lo);
+            for (int x = minX; x <= maxX; x++) {
+                if ((solid[x * words + w] & mask) != 0) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of tile id changes made to this chunk since it was created.
+     */
+    public int modifications() {
+        return modifications;
+    }
+
+    /**
+     * True if tile ids changed since the last {@link #markClean()}.
+     */
+    public boolean isDirty() {
+        return modifications != cleanModifications;
+    }
+
+    /**
+     * Records the current contents as persisted (or reproducible by the generator).
+     */
+    public void markClean() {
+        cleanModifications = modifications;
+    }
+
+    /**
+     * Returns the last baked render mesh, which may be stale; see {@link ChunkMesh#isCurrent}.
+     */
+    public ChunkMesh mesh() {
+        return mesh;
+    }
+
+    public void mesh(ChunkMesh mesh) {
+        this.mesh = mesh;
+    }
+
+    /**
+     * Drops the baked mesh and the resolved tile types; both are rebuilt on the next draw.
+     */
+    public void releaseRenderData() {
+        mesh = null;
+        types = null;
+    }
+
+    // -------------------- Index-based access used by Tile views --------------------
+
+    int id(int index) {
+        return ids[index];
+    }
+
+    void id(int index, int id) {
+        if (ids[index] != id) {
+            ids[index] = id;
+            markSolid(index, id != 0);
+            modifications++;
+        }
+        // Invalidate cached type when id changes; palette lookup can restore it.
+        if (types != null) types[index] = null;
+    }
+
+    private void markSolid(int index, boolean value) {
+        int x = index / size;
+        int y = index - x * size;
+        int word = x * words + (y >>> 6);
+        long bit = 1L << (y & 63);
+        if (value) solid[word] |= bit;
+        else solid[word] &= ~bit;
+    }
+
+    TileType type(int index) {
+        return types == null ? null : types[index];
+    }
+
+    void type(int index, TileType type) {
+        if (types == null) {
+            if (type == null) return;
+            types = new TileType[ids.length];
+        }
+        types[index] = type;
+    }
+
+    boolean hasMetadata(int index) {
+        return metadata != null && metadata.containsKey(index);
+    }
+
+    JSONObject metadata(int index) {
+        if (metadata == null) metadata = new HashMap<>();
+        return metadata.computeIfAbsent(index, i -> new JSONObject());
+    }
+
+    void metadata(int index, JSONObject data) {
+        if (data == null) {
+            if (metadata != null) metadata.remove(index);
+            return;
+        }
+        if (metadata == null) metadata = new HashMap<>();
+        metadata.put(index, data);
     }
 }
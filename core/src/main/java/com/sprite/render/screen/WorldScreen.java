@@ -51,7 +51,7 @@ public class WorldScreen extends GameScreen {
 
 
             // Step world and render
-            world.render(screen);
+            world.render(screen, delta);
         });
         pipeline().ui((screen, delta) -> {
             ui().draw();
@@ -242,6 +242,7 @@ public class WorldScreen extends GameScreen {
 
     @Override
     public void dispose() {
+        if (world != null) world.dispose();
         super.dispose();
     }
 
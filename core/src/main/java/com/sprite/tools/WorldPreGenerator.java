@@ -0,0 +1,42 @@
+package com.sprite.tools;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.sprite.game.world.PreGenerator;
+import com.sprite.game.world.World;
+import org.json.JSONObject;
+
+import java.util.Map;
+
+/**
+ * Debug tool that pre-generates an area of a saved world and exits. Launched with
+ * {@code debugTool=pregen}; reads {@code world} (default {@code test}) and the
+ * {@link PreGenerator#fromArgs pre-generation arguments} from the launch arguments.
+ */
+public class WorldPreGenerator {
+
+    /**
+     * Runs the pre-generation on a background thread so the window stays responsive, then
+     * closes the application.
+     */
+    public static void start(Map<String, String> launchArgs) {
+        String name = launchArgs.getOrDefault("world", "test");
+        FileHandle options = Gdx.files.local("saves/" + name + "/options.json");
+        if (!options.exists()) throw new IllegalArgumentException("No world named '" + name + "' in saves/");
+        World world = new World(new JSONObject(options.readString()));
+        PreGenerator generator = PreGenerator.fromArgs(world, launchArgs);
+
+        Thread thread = new Thread(() -> {
+            try {
+                generator.run();
+            } catch (Throwable t) {
+                Gdx.app.error("PreGenerator", "Pre-generation failed", t);
+            } finally {
+                world.dispose();
+                Gdx.app.postRunnable(Gdx.app::exit);
+            }
+        }, "pregen");
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
@@ -0,0 +1,109 @@
+package com.sprite.game.world;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimulationClockTest {
+
+    @Test
+    void framesAtTheTickRateRunOneTickEach() {
+        SimulationClock clock = new SimulationClock(60f, 5);
+        for (int i = 0; i < 600; i++) assertEquals(1, clock.advance(1f / 60f), "frame " + i);
+        assertEquals(0, clock.stats().droppedTicks());
+    }
+
+    @Test
+    void fastFramesAccumulateWholeTicks() {
+        SimulationClock clock = new SimulationClock(60f, 5);
+        int ticks = 0;
+        for (int i = 0; i < 1440; i++) {
+            int due = clock.advance(1f / 144f);
+            assertTrue(due <= 1);
+            ticks += due;
+            float alpha = clock.alpha();
+            assertTrue(alpha >= 0f && alpha < 1f, "alpha " + alpha);
+        }
+        // Ten seconds of frames, give or take the tick still accumulating
+        assertEquals(600, ticks + clock.alpha(), 1e-3);
+    }
+
+    @Test
+    void irregularFramesKeepSimulatedTimeInStep() {
+        Random random = new Random(23);
+        SimulationClock clock = new SimulationClock(50f, 8);
+        double elapsed = 0;
+        long ticks = 0;
+        for (int i = 0; i < 5000; i++) {
+            // Anything from a stutter-free 2 ms frame to a 150 ms hitch, within the catch-up budget
+            float frame = 0.002f + random.nextFloat() * 0.148f;
+            elapsed += frame;
+            ticks += clock.advance(frame);
+        }
+        assertEquals(0, clock.stats().droppedTicks());
+        assertEquals(elapsed * 50, ticks + clock.alpha(), 1e-6 * elapsed * 50);
+    }
+
+    @Test
+    void longFramesAreClampedToTheCatchUpBudget() {
+        SimulationClock clock = new SimulationClock(60f, 5);
+        clock.advance(1f / 120f); // half a tick owed before the hitch
+        assertEquals(5, clock.advance(1.0f));
+        // The surplus is dropped instead of being paid back by later frames, but the fraction
+        // of a tick owed before and after the hitch is kept
+        assertEquals(0.5f, clock.alpha(), 1e-3f);
+        assertEquals(55, clock.stats().droppedTicks());
+        assertEquals(0, clock.advance(0f));
+        assertEquals(1, clock.advance(1f / 120f));
+        assertEquals(5, clock.advance(10f));
+        assertEquals(55 + 595, clock.stats().droppedTicks());
+    }
+
+    @Test
+    void emptyAndNegativeFramesRunNothing() {
+        SimulationClock clock = new SimulationClock(60f, 5);
+        clock.advance(1f / 240f);
+        float alpha = clock.alpha();
+        assertEquals(0, clock.advance(0f));
+        assertEquals(0, clock.advance(-1f));
+        assertEquals(alpha, clock.alpha());
+    }
+
+    @Test
+    void resetForgetsAccumulatedTime() {
+        SimulationClock clock = new SimulationClock(60f, 5);
+        clock.advance(0.9f / 60f);
+        clock.reset();
+        assertEquals(0f, clock.alpha());
+        assertEquals(0, clock.advance(0.9f / 60f));
+    }
+
+    @Test
+    void budgetIsAtLeastOneTickAndRateMustBePositive() {
+        assertEquals(1, new SimulationClock(60f, 0).maxTicksPerFrame());
+        assertEquals(1, new SimulationClock(60f, 0).advance(1f));
+        assertThrows(IllegalArgumentException.class, () -> new SimulationClock(0f, 5));
+        assertThrows(IllegalArgumentException.class, () -> new SimulationClock(-30f, 5));
+    }
+
+    @Test
+    void statsAverageRecordedTicksAndFrames() {
+        SimulationClock clock = new SimulationClock(60f, 5);
+        clock.recordTick(1_000_000);
+        clock.recordTick(3_000_000);
+        clock.recordFrame(10_000_000);
+        SimulationClock.Stats stats = clock.stats();
+        assertEquals(2, stats.ticks());
+        assertEquals(2.0, stats.avgTickMs(), 1e-9);
+        assertEquals(3.0, stats.maxTickMs(), 1e-9);
+        assertEquals(1, stats.frames());
+        assertEquals(10.0, stats.maxFrameMs(), 1e-9);
+        clock.resetStats();
+        assertEquals(0, clock.stats().ticks());
+        assertEquals(0.0, clock.stats().avgTickMs());
+    }
+}
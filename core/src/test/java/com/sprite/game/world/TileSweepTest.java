@@ -0,0 +1,147 @@
+package com.sprite.game.world;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessFiles;
+import com.sprite.game.world.tiles.TileChunk;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TileSweepTest {
+
+    private static final String NAME = "test-tile-sweep";
+    private static final int TS = 16;
+    private static final float DELTA = 1e-3f;
+
+    private World world;
+    private final TileSweep sweep = new TileSweep();
+
+    @BeforeEach
+    void setUp() {
+        Gdx.files = new HeadlessFiles();
+        world = new World.Builder(NAME).tileSize(TS).chunkSize(8).build();
+        world.setSaveDirectory(null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        world.dispose();
+        Gdx.files.local("saves/" + NAME).deleteDirectory();
+    }
+
+    @Test
+    void fastBoxStopsAtAOneTileWall() {
+        TileAccessor tiles = map(
+                "..........#.........",
+                "..........#.........",
+                "..........#.........");
+        // Ten tiles in one step would skip the wall if only the end position were tested
+        assertTrue(sweep.sweep(tiles, 0f, TS, 12f, 12f, 100f * TS, 0f));
+        assertEquals(-1, sweep.normalX);
+        assertEquals(0, sweep.normalY);
+        assertEquals(10 * TS - 12f, sweep.x, DELTA);
+        assertEquals(TS, sweep.y, DELTA);
+        assertEquals((10 * TS - 12f) / (100f * TS), sweep.time, 1e-6f);
+        assertEquals(10, sweep.tileX());
+        assertEquals(1, sweep.tileY());
+
+        // And from the other side
+        assertTrue(sweep.sweep(tiles, 19 * TS, TS, 12f, 12f, -100f * TS, 0f));
+        assertEquals(1, sweep.normalX);
+        assertEquals(11 * TS, sweep.x, DELTA);
+    }
+
+    @Test
+    void fastFallStopsOnAOneTileFloor() {
+        TileAccessor tiles = map(
+                "....",
+                "....",
+                "....",
+                "####",
+                "....");
+        assertTrue(sweep.sweep(tiles, TS, 4 * TS, 10f, 20f, 0f, -1000f * TS));
+        assertEquals(1, sweep.normalY);
+        assertEquals(2 * TS, sweep.y, DELTA);
+        assertEquals(1, sweep.tileY());
+
+        assertTrue(sweep.sweep(tiles, TS, -TS * 3, 10f, 20f, 0f, 1000f * TS));
+        assertEquals(-1, sweep.normalY);
+        assertEquals(TS - 20f, sweep.y, DELTA);
+    }
+
+    @Test
+    void diagonalMotionHitsTheFirstContact() {
+        TileAccessor tiles = map(
+                "........",
+                "........",
+                "........",
+                "########");
+        // Falls onto the floor before reaching the far side; keeps the x reached at impact
+        assertTrue(sweep.sweep(tiles, 0f, 3 * TS, TS, TS, 8f * TS, -4f * TS));
+        assertEquals(1, sweep.normalY);
+        assertEquals(TS, sweep.y, DELTA);
+        assertEquals(0.5f, sweep.time, 1e-6f);
+        assertEquals(4f * TS, sweep.x, DELTA);
+    }
+
+    @Test
+    void exactCornerCrossingHitsTheDiagonalTile() {
+        TileAccessor tiles = map(
+                "...",
+                "...",
+                "..#");
+        // The box's corner passes exactly through the corner of the lone tile
+        assertTrue(sweep.sweep(tiles, 0f, 2 * TS, TS, TS, 2f * TS, -2f * TS));
+        assertEquals(0.5f, sweep.time, 1e-6f);
+        assertEquals(2, sweep.tileX());
+        assertEquals(0, sweep.tileY());
+    }
+
+    @Test
+    void boxesSlideAlongSurfacesTheyRestOn() {
+        TileAccessor tiles = map(
+                "#.......",
+                "#.......",
+                "########");
+        // Resting on the floor and touching the wall: moving along either surface is free
+        assertFalse(sweep.sweep(tiles, TS, TS, TS, TS, 5f * TS, 0f));
+        assertEquals(6f * TS, sweep.x, DELTA);
+        assertFalse(sweep.sweep(tiles, TS, TS, TS, TS, 0f, 1.5f * TS));
+        assertEquals(1, sweep.time, 0f);
+    }
+
+    @Test
+    void tilesOverlappedAtTheStartAreIgnored() {
+        TileAccessor tiles = map(
+                "....",
+                ".#..",
+                "....");
+        // Pushed halfway into a tile: the box can leave it
+        assertFalse(sweep.sweep(tiles, TS + 8f, TS, TS, TS, 2f * TS, 0f));
+        assertFalse(sweep.sweep(tiles, TS, TS + 8f, TS, TS, 0f, TS));
+    }
+
+    /**
+     * Accessor over a fixed map with its bottom row at tile y 0 and its left column at tile x
+     * 0; '#' is solid, everything outside the map is air.
+     */
+    private TileAccessor map(String... rows) {
+        TileView view = new TileView(world.chunkSize());
+        int size = world.chunkSize();
+        for (int r = 0; r < rows.length; r++) {
+            int ty = rows.length - 1 - r;
+            for (int tx = 0; tx < rows[r].length(); tx++) {
+                if (rows[r].charAt(tx) != '#') continue;
+                int cx = Math.floorDiv(tx, size), cy = Math.floorDiv(ty, size);
+                TileChunk chunk = view.captured(cx, cy);
+                if (chunk == null) view.put(chunk = new TileChunk(cx, cy, size));
+                chunk.set(tx - cx * size, ty - cy * size, 1);
+            }
+        }
+        return new TileAccessor().reset(world, view);
+    }
+}
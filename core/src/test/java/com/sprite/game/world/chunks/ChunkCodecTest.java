@@ -0,0 +1,137 @@
+package com.sprite.game.world.chunks;
+
+import com.sprite.game.world.tiles.TileChunk;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ChunkCodecTest {
+
+    @Test
+    void singleIdChunkNeedsNoIndexBits() {
+        int[] ids = new int[16 * 16];
+        Arrays.fill(ids, 7);
+        byte[] data = roundTrip(3, -4, 16, ids, ChunkCodec.VERSION_2);
+        // header, palette size, one palette entry, column mask
+        assertEquals(16 + 2 + 4 + 2, data.length);
+    }
+
+    @Test
+    void versionTwoRoundTripsEveryBitWidth() {
+        Random random = new Random(42);
+        for (int bits = 1; bits <= 16; bits++) {
+            // Smallest and largest palettes that need this many bits (65535 is the most version 2 holds)
+            int smallest = (1 << (bits - 1)) + 1;
+            int largest = Math.min(1 << bits, 0xFFFF);
+            for (int paletteSize : new int[]{smallest, largest}) {
+                int size = 8;
+                while (size * size < paletteSize) size *= 2;
+                int[] ids = new int[size * size];
+                for (int i = 0; i < ids.length; i++) ids[i] = i < paletteSize ? 1000 + i * 3 : 1000 + random.nextInt(paletteSize) * 3;
+                shuffle(ids, random);
+                byte[] data = roundTrip(-11, 5, size, ids, ChunkCodec.VERSION_2);
+                long indexBits = (long) bits * indexCount(ids, size);
+                assertEquals(16 + 2 + 4L * paletteSize + (size + 7) / 8 + (indexBits + 7) / 8, data.length,
+                        "palette " + paletteSize);
+            }
+        }
+    }
+
+    @Test
+    void uniformColumnsStoreOneIndex() {
+        int size = 32;
+        int[] ids = new int[size * size];
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) ids[x * size + y] = x % 3 == 0 ? 4 : (y < x ? 1 : 2);
+        }
+        roundTrip(0, 0, size, ids, ChunkCodec.VERSION_2);
+    }
+
+    @Test
+    void paletteOverflowFallsBackToRawIds() {
+        for (int size : new int[]{256, 300}) {
+            int[] ids = new int[size * size];
+            for (int i = 0; i < ids.length; i++) ids[i] = i * 7 + 1;
+            byte[] data = roundTrip(9, 9, size, ids, ChunkCodec.VERSION_1);
+            assertEquals(16 + 4 * ids.length, data.length);
+        }
+        // One id short of the limit still fits version 2
+        int[] ids = new int[256 * 256];
+        for (int i = 0; i < ids.length; i++) ids[i] = Math.min(i, 0xFFFE);
+        roundTrip(9, 9, 256, ids, ChunkCodec.VERSION_2);
+    }
+
+    @Test
+    void decodesLegacyVersionOne() {
+        int[] ids = new int[64];
+        for (int i = 0; i < ids.length; i++) ids[i] = i % 4;
+        byte[] data = versionOne(-2, 6, ids);
+        TileChunk chunk = ChunkCodec.decode(data, -2, 6, 8);
+        assertNotNull(chunk);
+        assertArrayEquals(ids, chunk.ids());
+        // A legacy 8x8 chunk does not fit a world with another chunk size
+        assertNull(ChunkCodec.decode(data, -2, 6, 4));
+        assertNull(ChunkCodec.decode(data, -2, 6, 16));
+    }
+
+    @Test
+    void rejectsMalformedData() {
+        int[] ids = new int[64];
+        Arrays.fill(ids, 1);
+        ids[5] = 2;
+        byte[] data = ChunkCodec.encode(new ChunkSnapshot(1, 2, 8, ids));
+        assertNull(ChunkCodec.decode(data, 1, 3, 8), "other coordinates");
+        assertNull(ChunkCodec.decode(Arrays.copyOf(data, data.length - 1), 1, 2, 8), "truncated");
+        byte[] badMagic = data.clone();
+        badMagic[0] ^= 1;
+        assertNull(ChunkCodec.decode(badMagic, 1, 2, 8), "magic");
+        byte[] badVersion = data.clone();
+        badVersion[7] = 9;
+        assertNull(ChunkCodec.decode(badVersion, 1, 2, 8), "version");
+    }
+
+    private static byte[] roundTrip(int cx, int cy, int size, int[] ids, int version) {
+        byte[] data = ChunkCodec.encode(new ChunkSnapshot(cx, cy, size, ids));
+        assertEquals(version, ByteBuffer.wrap(data).getInt(4));
+        TileChunk chunk = ChunkCodec.decode(data, cx, cy, size);
+        assertNotNull(chunk);
+        assertArrayEquals(ids, chunk.ids());
+        return data;
+    }
+
+    /**
+     * Index count of version 2: one per uniform column, size per other column.
+     */
+    private static long indexCount(int[] ids, int size) {
+        long count = 0;
+        for (int x = 0; x < size; x++) {
+            boolean uniform = true;
+            for (int y = 1; y < size && uniform; y++) uniform = ids[x * size + y] == ids[x * size];
+            count += uniform ? 1 : size;
+        }
+        return count;
+    }
+
+    private static void shuffle(int[] ids, Random random) {
+        for (int i = ids.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = ids[i];
+            ids[i] = ids[j];
+            ids[j] = t;
+        }
+    }
+
+    private static byte[] versionOne(int cx, int cy, int[] ids) {
+        ByteBuffer buffer = ByteBuffer.allocate(16 + ids.length * 4);
+        buffer.putInt(ChunkCodec.MAGIC).putInt(ChunkCodec.VERSION_1).putInt(cx).putInt(cy);
+        for (int id : ids) buffer.putInt(id);
+        return buffer.array();
+    }
+}
@@ -0,0 +1,149 @@
+package com.sprite.game.world.chunks;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegionFileTest {
+
+    private static final int HEADER_BYTES = 8 + RegionStorage.REGION_SIZE * RegionStorage.REGION_SIZE * 8;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void emptySlotsReadAsNull() throws IOException {
+        try (RegionFile region = new RegionFile(dir.resolve("r.bin"))) {
+            assertNull(region.read(0));
+            assertFalse(region.contains(1023));
+        }
+        assertEquals(HEADER_BYTES, Files.size(dir.resolve("r.bin")));
+    }
+
+    @Test
+    void offsetTableSurvivesReopen() throws IOException {
+        Path path = dir.resolve("r.bin");
+        try (RegionFile region = new RegionFile(path)) {
+            for (int slot = 0; slot < 1024; slot += 37) region.write(slot, payload(slot, 10 + slot % 50));
+        }
+        try (RegionFile region = new RegionFile(path)) {
+            for (int slot = 0; slot < 1024; slot++) {
+                if (slot % 37 == 0) assertArrayEquals(payload(slot, 10 + slot % 50), region.read(slot), "slot " + slot);
+                else assertNull(region.read(slot));
+            }
+            assertEquals(0, region.freeBytes());
+        }
+    }
+
+    @Test
+    void growingPayloadIsAppendedAndItsOldSpaceReused() throws IOException {
+        Path path = dir.resolve("r.bin");
+        try (RegionFile region = new RegionFile(path)) {
+            region.write(0, payload(1, 100));
+            region.write(1, payload(2, 100));
+            long size = Files.size(path);
+            // Slot 0 no longer fits: appended, its old 100 bytes become free
+            region.write(0, payload(3, 150));
+            assertEquals(size + 150, Files.size(path));
+            assertEquals(100, region.freeBytes());
+            // A smaller payload lands in the freed run instead of growing the file
+            region.write(2, payload(4, 60));
+            assertEquals(size + 150, Files.size(path));
+            assertEquals(40, region.freeBytes());
+            assertArrayEquals(payload(3, 150), region.read(0));
+            assertArrayEquals(payload(2, 100), region.read(1));
+            assertArrayEquals(payload(4, 60), region.read(2));
+        }
+        try (RegionFile region = new RegionFile(path)) {
+            assertEquals(40, region.freeBytes());
+            assertArrayEquals(payload(3, 150), region.read(0));
+            assertArrayEquals(payload(4, 60), region.read(2));
+        }
+    }
+
+    @Test
+    void rewriteNeverOverwritesTheLivePayload() throws IOException {
+        Path path = dir.resolve("r.bin");
+        try (RegionFile region = new RegionFile(path)) {
+            region.write(5, payload(1, 80));
+            region.write(6, payload(2, 80));
+            int before = offset(path, 5);
+            region.write(5, payload(3, 40)); // fits in place, but must go elsewhere
+            assertTrue(offset(path, 5) != before);
+            assertArrayEquals(payload(3, 40), region.read(5));
+        }
+    }
+
+    @Test
+    void freedTailIsTruncated() throws IOException {
+        Path path = dir.resolve("r.bin");
+        try (RegionFile region = new RegionFile(path)) {
+            region.write(0, payload(1, 100));
+            region.write(1, payload(2, 100));
+            region.write(2, payload(3, 50));
+            region.write(0, payload(4, 120)); // appended after slot 2; the first 100 bytes are free
+            region.write(2, payload(5, 40));  // into the free run
+            assertEquals(HEADER_BYTES + 370, Files.size(path));
+            // Slot 0 leaves the end of the file; the old runs of 0 and 2 merge and are cut off
+            region.write(0, payload(6, 50));
+            assertEquals(HEADER_BYTES + 200, Files.size(path));
+            assertEquals(10, region.freeBytes());
+            assertArrayEquals(payload(6, 50), region.read(0));
+            assertArrayEquals(payload(2, 100), region.read(1));
+            assertArrayEquals(payload(5, 40), region.read(2));
+        }
+    }
+
+    @Test
+    void interruptedAppendIsDroppedOnOpen() throws IOException {
+        Path path = dir.resolve("r.bin");
+        try (RegionFile region = new RegionFile(path)) {
+            region.write(0, payload(1, 64));
+        }
+        // Bytes of a payload whose table entry was never written
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(payload(9, 33)));
+        }
+        try (RegionFile region = new RegionFile(path)) {
+            assertEquals(HEADER_BYTES + 64, Files.size(path));
+            assertArrayEquals(payload(1, 64), region.read(0));
+        }
+    }
+
+    @Test
+    void rejectsForeignFiles() throws IOException {
+        Path path = dir.resolve("r.bin");
+        byte[] junk = new byte[HEADER_BYTES];
+        Arrays.fill(junk, (byte) 7);
+        Files.write(path, junk);
+        assertThrows(IOException.class, () -> new RegionFile(path));
+    }
+
+    private static int offset(Path path, int slot) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer entry = ByteBuffer.allocate(4);
+            channel.read(entry, 8 + slot * 8L);
+            return entry.flip().getInt();
+        }
+    }
+
+    private static byte[] payload(int seed, int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) data[i] = (byte) (seed * 31 + i);
+        return data;
+    }
+}
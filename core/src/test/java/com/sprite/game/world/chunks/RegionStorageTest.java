@@ -0,0 +1,105 @@
+package com.sprite.game.world.chunks;
+
+import com.sprite.game.world.tiles.TileChunk;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegionStorageTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void chunksLandInTheirRegionFiles() throws IOException {
+        try (RegionStorage storage = new RegionStorage(dir.resolve("regions"))) {
+            storage.write(0, 0, new byte[]{1});
+            storage.write(31, 31, new byte[]{2});
+            storage.write(-1, 32, new byte[]{3});
+            assertArrayEquals(new byte[]{1}, storage.read(0, 0));
+            assertArrayEquals(new byte[]{2}, storage.read(31, 31));
+            assertArrayEquals(new byte[]{3}, storage.read(-1, 32));
+            assertNull(storage.read(1, 0));
+            assertFalse(storage.contains(500, 500));
+        }
+        assertTrue(Files.exists(dir.resolve("regions/r.0.0.bin")));
+        assertTrue(Files.exists(dir.resolve("regions/r.-1.1.bin")));
+        assertFalse(Files.exists(dir.resolve("regions/r.15.15.bin")));
+    }
+
+    @Test
+    void closedStorageDoesNotReopenRegions() throws IOException {
+        RegionStorage storage = new RegionStorage(dir);
+        storage.write(0, 0, new byte[]{1});
+        storage.close();
+        assertThrows(IOException.class, () -> storage.read(0, 0));
+        assertThrows(IOException.class, () -> storage.write(40, 0, new byte[]{2}));
+        assertFalse(Files.exists(dir.resolve("r.1.0.bin")));
+    }
+
+    @Test
+    void migratesLegacyChunkFiles() throws IOException {
+        File legacy = Files.createDirectories(dir.resolve("chunks")).toFile();
+        byte[] a = ChunkCodec.encode(snapshot(2, -3, 5));
+        byte[] b = ChunkCodec.encode(snapshot(40, 7, 9));
+        byte[] v1 = legacyV1(-1, -1, 4);
+        Files.write(legacy.toPath().resolve("2_-3.bin"), a);
+        Files.write(legacy.toPath().resolve("40_7.bin"), b);
+        Files.write(legacy.toPath().resolve("-1_-1.bin"), v1);
+
+        try (RegionStorage storage = new RegionStorage(dir.resolve("regions"))) {
+            assertEquals(3, storage.migrateLegacy(legacy, 8));
+            assertArrayEquals(a, storage.read(2, -3));
+            assertArrayEquals(b, storage.read(40, 7));
+            TileChunk old = ChunkCodec.decode(storage.read(-1, -1), -1, -1, 8);
+            assertNotNull(old);
+            assertEquals(4, old.get(3, 5));
+        }
+        assertFalse(legacy.exists());
+    }
+
+    @Test
+    void migrationKeepsNewerChunksAndForeignFiles() throws IOException {
+        File legacy = Files.createDirectories(dir.resolve("chunks")).toFile();
+        Files.write(legacy.toPath().resolve("0_0.bin"), ChunkCodec.encode(snapshot(0, 0, 1)));
+        Files.write(legacy.toPath().resolve("1_0.bin"), new byte[]{1, 2, 3}); // does not decode
+        Files.write(legacy.toPath().resolve("notes.txt"), new byte[]{1});
+        byte[] newer = ChunkCodec.encode(snapshot(0, 0, 2));
+
+        try (RegionStorage storage = new RegionStorage(dir.resolve("regions"))) {
+            storage.write(0, 0, newer);
+            assertEquals(1, storage.migrateLegacy(legacy, 8));
+            assertArrayEquals(newer, storage.read(0, 0));
+            assertNull(storage.read(1, 0));
+        }
+        assertFalse(Files.exists(legacy.toPath().resolve("0_0.bin")));
+        assertTrue(Files.exists(legacy.toPath().resolve("1_0.bin")));
+        assertTrue(Files.exists(legacy.toPath().resolve("notes.txt")));
+    }
+
+    private static ChunkSnapshot snapshot(int cx, int cy, int salt) {
+        int[] ids = new int[8 * 8];
+        for (int i = 0; i < ids.length; i++) ids[i] = (i * salt) % 5;
+        return new ChunkSnapshot(cx, cy, 8, ids);
+    }
+
+    private static byte[] legacyV1(int cx, int cy, int id) {
+        ByteBuffer buffer = ByteBuffer.allocate(16 + 64 * 4);
+        buffer.putInt(ChunkCodec.MAGIC).putInt(ChunkCodec.VERSION_1).putInt(cx).putInt(cy);
+        for (int i = 0; i < 64; i++) buffer.putInt(id);
+        return buffer.array();
+    }
+}
@@ -0,0 +1,74 @@
+package com.sprite.game.world.entities;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class BodyStoreTest {
+
+    @Test
+    void newEntitiesHaveNoStoreUntilAttached() {
+        Entity e = new Entity(10f, 20f, 1f, 2f);
+        assertNull(e.bodies);
+        assertEquals(0f, e.getVelX());
+        assertNull(e.bodies);
+
+        BodyStore store = new BodyStore(4);
+        store.attach(e);
+        assertSame(store, e.bodies);
+        assertEquals(1, store.size());
+        assertEquals(10f, store.x[e.bodySlot]);
+        assertEquals(20f, store.y[e.bodySlot]);
+    }
+
+    @Test
+    void detachParksVelocityForTheNextAttach() {
+        BodyStore a = new BodyStore(4);
+        Entity e = new Entity(0f, 0f, 1f, 2f);
+        a.attach(e);
+        e.setVelocity(3f, -4f);
+        a.detach(e);
+        assertNull(e.bodies);
+        assertEquals(0, a.size());
+        assertEquals(3f, e.getVelX());
+        assertEquals(-4f, e.getVelY());
+
+        BodyStore b = new BodyStore(4);
+        b.attach(e);
+        assertEquals(3f, b.vx[e.bodySlot]);
+        assertEquals(-4f, b.vy[e.bodySlot]);
+    }
+
+    @Test
+    void removalMovesTheLastBodyIntoTheFreedSlot() {
+        BodyStore store = new BodyStore(1);
+        Entity[] entities = new Entity[5];
+        for (int i = 0; i < entities.length; i++) {
+            entities[i] = new Entity(i, 0f, 1f, 2f);
+            store.attach(entities[i]);
+            entities[i].setVelocity(i, 0f);
+        }
+        store.detach(entities[1]);
+        assertEquals(4, store.size());
+        for (int i = 0; i < entities.length; i++) {
+            if (i == 1) continue;
+            assertSame(store, entities[i].bodies);
+            assertEquals(i, store.x[entities[i].bodySlot]);
+            assertEquals(i, entities[i].getVelX());
+        }
+    }
+
+    @Test
+    void simulatingADetachedEntityCreatesAPrivateStore() {
+        Entity e = new Entity(0f, 0f, 1f, 2f);
+        e.applyForce(1f, 0f);
+        assertNotNull(e.bodies);
+        assertEquals(1, e.bodies.size());
+        BodyStore store = new BodyStore(4);
+        store.attach(e);
+        assertEquals(1f, store.ax[e.bodySlot]);
+    }
+}
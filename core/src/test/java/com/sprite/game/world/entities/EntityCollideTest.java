@@ -0,0 +1,139 @@
+package com.sprite.game.world.entities;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessFiles;
+import com.sprite.game.world.TileView;
+import com.sprite.game.world.World;
+import com.sprite.game.world.tiles.TileChunk;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityCollideTest {
+
+    private static final String NAME = "test-entity-collide";
+    private static final int TS = 16;
+    private static final float DELTA = 1e-3f;
+
+    private World world;
+
+    @BeforeEach
+    void setUp() {
+        Gdx.files = new HeadlessFiles();
+        world = new World.Builder(NAME).tileSize(TS).chunkSize(8).build();
+        world.setSaveDirectory(null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        world.dispose();
+        Gdx.files.local("saves/" + NAME).deleteDirectory();
+    }
+
+    @Test
+    void highVelocityDoesNotTunnelThroughAOneTileWall() {
+        TileView view = map(
+                "..........#.........",
+                "..........#.........",
+                "####################");
+        Entity e = new Entity(TS, TS, 12f, 20f);
+        e.setVelocity(500f * TS, 0f);
+        e.collide(world, view);
+        e.commit();
+        assertEquals(10 * TS - 12f, e.position().x, DELTA);
+        assertEquals(TS, e.position().y, DELTA);
+        assertEquals(0f, e.getVelX());
+    }
+
+    @Test
+    void landingSlidesAlongTheFloorWithFriction() {
+        TileView view = map(
+                "................",
+                "................",
+                "................",
+                "................",
+                "################");
+        Entity e = new Entity(0f, 3 * TS, 12f, 12f);
+        e.setVelocity(8f * TS, -4f * TS);
+        e.collide(world, view);
+        e.commit();
+        // Hits the floor halfway through the motion, then slides the remaining half
+        assertEquals(TS, e.position().y, DELTA);
+        assertEquals(8f * TS, e.position().x, DELTA);
+        assertTrue(e.onGround());
+        assertEquals(0f, e.getVelY());
+        assertEquals(8f * TS * world.groundFriction(), e.getVelX(), DELTA);
+    }
+
+    @Test
+    void wallContactKeepsFalling() {
+        TileView view = map(
+                "...#",
+                "...#",
+                "...#",
+                "...#",
+                "...#",
+                "####");
+        Entity e = new Entity(0f, 4 * TS, 10f, 10f);
+        e.setVelocity(4f * TS, -2f * TS);
+        e.collide(world, view);
+        e.commit();
+        // Stops at the wall after (3 * TS - 10) / (4 * TS) of the motion and slides down the rest
+        assertEquals(3 * TS - 10f, e.position().x, DELTA);
+        assertEquals(2 * TS, e.position().y, DELTA);
+        assertEquals(0f, e.getVelX());
+        assertEquals(-2f * TS, e.getVelY(), DELTA);
+        assertFalse(e.onGround());
+    }
+
+    @Test
+    void cornerPocketStopsWithinTheSlideBudget() {
+        TileView view = map(
+                "#####",
+                "#...#",
+                "#...#",
+                "#####");
+        // Fast diagonal motion into a two-tile pocket: a wall and a floor contact exhaust the
+        // motion well inside MAX_SLIDES, leaving the box in the corner and out of every tile
+        Entity e = new Entity(TS + 2f, TS + 2f, 12f, 12f);
+        e.setVelocity(300f * TS, -300f * TS);
+        e.collide(world, view);
+        e.commit();
+        assertEquals(4 * TS - 12f, e.position().x, DELTA);
+        assertEquals(TS, e.position().y, DELTA);
+        assertEquals(0f, e.getVelX());
+        assertEquals(0f, e.getVelY());
+        assertTrue(e.onGround());
+
+        // Straight up into the ceiling, then back down: each is one contact
+        e.setVelocity(0f, 300f * TS);
+        e.collide(world, view);
+        e.commit();
+        assertEquals(3 * TS - 12f, e.position().y, DELTA);
+        assertFalse(e.onGround());
+    }
+
+    /**
+     * View of a fixed map with its bottom row at tile y 0 and its left column at tile x 0; '#'
+     * is solid, everything outside the map is air.
+     */
+    private TileView map(String... rows) {
+        int size = world.chunkSize();
+        TileView view = new TileView(size);
+        for (int r = 0; r < rows.length; r++) {
+            int ty = rows.length - 1 - r;
+            for (int tx = 0; tx < rows[r].length(); tx++) {
+                if (rows[r].charAt(tx) != '#') continue;
+                int cx = Math.floorDiv(tx, size), cy = Math.floorDiv(ty, size);
+                TileChunk chunk = view.captured(cx, cy);
+                if (chunk == null) view.put(chunk = new TileChunk(cx, cy, size));
+                chunk.set(tx - cx * size, ty - cy * size, 1);
+            }
+        }
+        return view;
+    }
+}
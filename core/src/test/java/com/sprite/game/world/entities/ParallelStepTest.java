@@ -0,0 +1,118 @@
+package com.sprite.game.world.entities;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessFiles;
+import com.sprite.game.world.World;
+import com.sprite.game.world.gen.SmoothRollingHillsGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelStepTest {
+
+    private static final int BODIES = 400;
+    private static final int TICKS = 150;
+    private static final String NAME = "test-parallel-step-";
+
+    private final List<World> worlds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Gdx.files = new HeadlessFiles();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (int i = 0; i < worlds.size(); i++) {
+            worlds.get(i).dispose();
+            Gdx.files.local("saves/" + NAME + i).deleteDirectory();
+        }
+    }
+
+    @Test
+    void parallelStepMatchesSerialStep() {
+        float[] serial = simulate(0);
+        for (int threads : new int[]{1, 2, 4, 7}) {
+            float[] parallel = simulate(threads);
+            for (int i = 0; i < serial.length; i++) {
+                assertEquals(Float.floatToRawIntBits(serial[i]), Float.floatToRawIntBits(parallel[i]),
+                        "coordinate " + i + " with " + threads + " threads");
+            }
+        }
+    }
+
+    @Test
+    void bodiesSettleOnTerrain() {
+        World world = world(2);
+        List<Entity> bodies = spawn(world, new Random(9));
+        for (int t = 0; t < 300; t++) world.tick();
+        int ts = world.tileSize();
+        for (Entity e : bodies) {
+            assertTrue(e.onGround(), "body at " + e.position());
+            // Resting on a solid tile under either edge, with air at the feet
+            float left = e.position().x + 1f, right = e.position().x + e.width() - 1f;
+            float below = e.position().y - ts / 2f, feet = e.position().y + ts / 2f;
+            assertTrue(world.isSolidAtWorld(left, below) || world.isSolidAtWorld(right, below), "body at " + e.position());
+            assertFalse(world.isSolidAtWorld(left, feet) || world.isSolidAtWorld(right, feet), "body at " + e.position());
+        }
+    }
+
+    /**
+     * Steps seeded bodies pushed by seeded forces and returns their final positions in spawn
+     * order.
+     */
+    private float[] simulate(int threads) {
+        World world = world(threads);
+        Random random = new Random(42);
+        List<Entity> bodies = spawn(world, random);
+        for (int t = 0; t < TICKS; t++) {
+            for (Entity e : bodies) {
+                if (random.nextInt(8) == 0) e.applyForce(random.nextFloat() * 40f - 20f, 0f);
+                if (random.nextInt(32) == 0) e.jump(12f);
+            }
+            world.tick();
+        }
+        float[] positions = new float[bodies.size() * 2];
+        for (int i = 0; i < bodies.size(); i++) {
+            positions[2 * i] = bodies.get(i).position().x;
+            positions[2 * i + 1] = bodies.get(i).position().y;
+        }
+        return positions;
+    }
+
+    private World world(int threads) {
+        World world = new World.Builder(NAME + worlds.size())
+                .generator(new SmoothRollingHillsGenerator())
+                .chunkCacheBudget(32L << 20)
+                .simulationThreads(threads)
+                .build();
+        world.setSaveDirectory(null);
+        worlds.add(world);
+        return world;
+    }
+
+    /**
+     * Bodies dropped from a few tiles above the surface with random velocities.
+     */
+    private static List<Entity> spawn(World world, Random random) {
+        int ts = world.tileSize();
+        List<Entity> bodies = new ArrayList<>();
+        for (int i = 0; i < BODIES; i++) {
+            int tx = random.nextInt(256) - 128;
+            int top = world.surfaceHeight(tx);
+            Entity e = new Entity(tx * ts, (top + 2 + random.nextInt(6)) * ts, ts * 0.8f, ts * 1.6f);
+            world.add(e);
+            e.setVelocity(random.nextFloat() * 60f - 30f, random.nextFloat() * 40f - 20f);
+            bodies.add(e);
+        }
+        return bodies;
+    }
+}
@@ -0,0 +1,186 @@
+package com.sprite.game.world.entities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpatialIndexTest {
+
+    private static final float CELL = 64f;
+
+    @Test
+    void randomQueriesMatchBruteForce() {
+        Random random = new Random(17);
+        SpatialIndex index = new SpatialIndex(CELL);
+        List<Entity> live = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Entity e = entity(random, 2000f);
+            index.add(e);
+            live.add(e);
+        }
+
+        for (int round = 0; round < 40; round++) {
+            // Move some entities, remove some (often from the extents) and add a few
+            for (int i = 0; i < 20 && !live.isEmpty(); i++) {
+                Entity e = live.get(random.nextInt(live.size()));
+                e.position().set(random.nextFloat() * 4000f - 2000f, random.nextFloat() * 4000f - 2000f, 0);
+                index.update(e);
+            }
+            for (int i = 0; i < 8 && !live.isEmpty(); i++) {
+                Entity e = random.nextBoolean() ? outermost(live) : live.get(random.nextInt(live.size()));
+                index.remove(e);
+                live.remove(e);
+            }
+            for (int i = 0; i < 4; i++) {
+                Entity e = entity(random, 2000f);
+                index.add(e);
+                live.add(e);
+            }
+            assertEquals(live.size(), index.size());
+
+            for (int q = 0; q < 25; q++) {
+                float x = random.nextFloat() * 5000f - 2500f, y = random.nextFloat() * 5000f - 2500f;
+                checkRange(index, live, x, y, random.nextFloat() * 400f);
+                checkOverlap(index, live, x, y, random.nextFloat() * 300f, random.nextFloat() * 300f);
+                int parity = random.nextInt(3);
+                Predicate<Entity> filter = e -> ((int) e.position().x & 3) != parity;
+                checkNearest(index, live, x, y, Float.POSITIVE_INFINITY, filter);
+                checkNearest(index, live, x, y, random.nextFloat() * 500f, filter);
+            }
+        }
+    }
+
+    @Test
+    void removalsThatEmptyEdgeCellsShrinkTheSearch() {
+        SpatialIndex index = new SpatialIndex(CELL);
+        Entity centre = entity(10f, 10f);
+        Entity east = entity(50_000f, 10f);
+        Entity west = entity(-50_000f, 10f);
+        index.add(centre);
+        index.add(east);
+        index.add(west);
+        assertSame(east, index.nearest(40_000f, 0f, Float.POSITIVE_INFINITY, e -> true));
+
+        index.remove(east);
+        index.remove(west);
+        assertSame(centre, index.nearest(40_000f, 0f, Float.POSITIVE_INFINITY, e -> true));
+        assertNull(index.nearest(40_000f, 0f, 1000f, e -> true));
+
+        index.remove(centre);
+        assertEquals(0, index.size());
+        assertNull(index.nearest(0f, 0f, Float.POSITIVE_INFINITY, e -> true));
+    }
+
+    @Test
+    void findsALoneFarAwayMatch() {
+        Random random = new Random(3);
+        SpatialIndex index = new SpatialIndex(CELL);
+        List<Entity> live = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Entity e = entity(random, 500f);
+            index.add(e);
+            live.add(e);
+        }
+        Entity far = entity(1_000_000f, -750_000f);
+        index.add(far);
+        live.add(far);
+
+        assertSame(far, index.nearest(0f, 0f, Float.POSITIVE_INFINITY, e -> e == far));
+        assertSame(far, index.nearest(999_000f, 0f, Float.POSITIVE_INFINITY, e -> true));
+        assertNull(index.nearest(0f, 0f, 100_000f, e -> e == far));
+        checkNearest(index, live, 200_000f, 200_000f, Float.POSITIVE_INFINITY, e -> true);
+    }
+
+    @Test
+    void overlapFindsWideEntitiesFromNeighbouringCells() {
+        SpatialIndex index = new SpatialIndex(CELL);
+        Entity wide = new Entity(-300f, 0f, 400f, 20f);
+        index.add(wide);
+        List<Entity> hits = new ArrayList<>();
+        index.forEachOverlapping(90f, 5f, 1f, 1f, hits::add);
+        assertEquals(List.of(wide), hits);
+        hits.clear();
+        index.forEachOverlapping(100f, 5f, 1f, 1f, hits::add);
+        assertTrue(hits.isEmpty());
+    }
+
+    private static void checkRange(SpatialIndex index, List<Entity> live, float x, float y, float radius) {
+        Set<Entity> expected = new HashSet<>();
+        for (Entity e : live) {
+            float dx = e.position().x - x, dy = e.position().y - y;
+            if (dx * dx + dy * dy <= radius * radius) expected.add(e);
+        }
+        Set<Entity> actual = new HashSet<>();
+        index.forEachInRange(x, y, radius, e -> assertTrue(actual.add(e), "visited twice"));
+        assertEquals(expected, actual);
+    }
+
+    private static void checkOverlap(SpatialIndex index, List<Entity> live, float x, float y, float width, float height) {
+        Set<Entity> expected = new HashSet<>();
+        for (Entity e : live) {
+            float ex = e.position().x, ey = e.position().y;
+            if (ex < x + width && ex + e.width() > x && ey < y + height && ey + e.height() > y) expected.add(e);
+        }
+        Set<Entity> actual = new HashSet<>();
+        index.forEachOverlapping(x, y, width, height, e -> assertTrue(actual.add(e), "visited twice"));
+        assertEquals(expected, actual);
+    }
+
+    private static void checkNearest(SpatialIndex index, List<Entity> live, float x, float y, float maxRadius,
+                                     Predicate<Entity> filter) {
+        float best2 = Float.isInfinite(maxRadius) ? Float.MAX_VALUE : maxRadius * maxRadius;
+        boolean found = false;
+        for (Entity e : live) {
+            float d2 = distance2(e, x, y);
+            if (d2 < best2 && filter.test(e)) {
+                best2 = d2;
+                found = true;
+            }
+        }
+        Entity nearest = index.nearest(x, y, maxRadius, filter);
+        if (!found) {
+            assertNull(nearest);
+            return;
+        }
+        // Ties may resolve to either entity; the distance must be the minimum
+        assertTrue(nearest != null && filter.test(nearest));
+        assertEquals(best2, distance2(nearest, x, y));
+    }
+
+    /**
+     * The live entity furthest from the origin along either axis, whose removal may empty an
+     * edge cell of the index.
+     */
+    private static Entity outermost(List<Entity> live) {
+        Entity outermost = live.get(0);
+        for (Entity e : live) {
+            if (Math.max(Math.abs(e.position().x), Math.abs(e.position().y))
+                    > Math.max(Math.abs(outermost.position().x), Math.abs(outermost.position().y))) outermost = e;
+        }
+        return outermost;
+    }
+
+    private static float distance2(Entity e, float x, float y) {
+        float dx = e.position().x - x, dy = e.position().y - y;
+        return dx * dx + dy * dy;
+    }
+
+    private static Entity entity(Random random, float extent) {
+        return new Entity(random.nextFloat() * 2 * extent - extent, random.nextFloat() * 2 * extent - extent,
+                8f + random.nextFloat() * 120f, 8f + random.nextFloat() * 120f);
+    }
+
+    private static Entity entity(float x, float y) {
+        return new Entity(x, y, 16f, 32f);
+    }
+}
@@ -0,0 +1,85 @@
+package com.sprite.game.world.gen;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The batch fBm paths must match the scalar ones bit for bit, since generators mix them
+ * freely (e.g. {@code surfaceHeight} answers from the scalar path, chunks from the batch).
+ */
+class ValueNoiseTest {
+
+    // Terrain-like parameters: every octave takes the shared lattice path
+    private static final ValueNoise TERRAIN = new ValueNoise(1337L, 4, 1.0 / 48.0, 2.0, 0.5);
+    // Octave frequencies reach 4 lattice cells per tile, so the high octaves take the per-sample fallback
+    private static final ValueNoise DETAILED = new ValueNoise(-42L, 8, 0.03125, 2.0, 0.6);
+
+    @Test
+    void batchMatchesScalarAcrossOrigin() {
+        for (ValueNoise noise : new ValueNoise[]{TERRAIN, DETAILED}) {
+            for (int x0 : new int[]{-100_000, -1000, -65, -64, -1, 0, 1, 63, 12_345}) {
+                for (int count : new int[]{1, 7, 64, 129}) {
+                    assertBatch(noise, x0, count);
+                }
+            }
+        }
+    }
+
+    @Test
+    void batchMatchesScalarOnFallbackOctaves() {
+        // Every octave above the base one has more lattice points than samples
+        ValueNoise noisy = new ValueNoise(7L, 6, 1.5, 3.0, 0.5);
+        assertBatch(noisy, -513, 32);
+        assertBatch(noisy, 0, 1);
+        assertBatch(noisy, 2_000_000, 17);
+    }
+
+    @Test
+    void batchMatchesScalarNearIntegerLimits() {
+        assertBatch(TERRAIN, Integer.MIN_VALUE, 64);
+        assertBatch(TERRAIN, Integer.MAX_VALUE - 63, 64);
+    }
+
+    @Test
+    void regionMatchesScalar() {
+        for (ValueNoise noise : new ValueNoise[]{TERRAIN, DETAILED, new ValueNoise(7L, 6, 1.5, 3.0, 0.5)}) {
+            for (int[] origin : new int[][]{{0, 0}, {-64, -64}, {-1, 31}, {100, -7}, {-100_000, 50_000}}) {
+                assertRegion(noise, origin[0], origin[1], 64, 64);
+                assertRegion(noise, origin[0], origin[1], 3, 17);
+                assertRegion(noise, origin[0], origin[1], 1, 1);
+            }
+        }
+    }
+
+    @Test
+    void emptyBatchLeavesOutputAlone() {
+        double[] out = {5.0};
+        TERRAIN.fbm(0, 0, out);
+        TERRAIN.fbm(0, 0, 0, 4, out);
+        assertEquals(5.0, out[0]);
+    }
+
+    private static void assertBatch(ValueNoise noise, int x0, int count) {
+        double[] out = new double[count];
+        noise.fbm(x0, count, out);
+        for (int i = 0; i < count; i++) {
+            double x = (double) x0 + i;
+            assertEquals(Double.doubleToRawLongBits(noise.fbm(x)), Double.doubleToRawLongBits(out[i]),
+                    "fbm(" + x + ")");
+        }
+    }
+
+    private static void assertRegion(ValueNoise noise, int x0, int y0, int width, int height) {
+        double[] out = new double[width * height];
+        noise.fbm(x0, y0, width, height, out);
+        for (int i = 0; i < width; i++) {
+            for (int j = 0; j < height; j++) {
+                double x = (double) x0 + i;
+                double y = (double) y0 + j;
+                assertEquals(Double.doubleToRawLongBits(noise.fbm(x, y)), Double.doubleToRawLongBits(out[i * height + j]),
+                        "fbm(" + x + ", " + y + ")");
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.sprite.game.world.path;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessFiles;
+import com.sprite.game.world.TileAccessor;
+import com.sprite.game.world.TileView;
+import com.sprite.game.world.World;
+import com.sprite.game.world.tiles.TileChunk;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NavGraphTest {
+
+    private static final String NAME = "test-nav-graph";
+    private static final int TS = 16;
+    private static final int CHUNK = 8;
+    private static final int WIDTH = 12 * CHUNK;
+    private static final int HEIGHT = 4 * CHUNK;
+    private static final int UNCAPPED = 1_000_000;
+
+    private World world;
+    private NavRules rules;
+
+    @BeforeEach
+    void setUp() {
+        Gdx.files = new HeadlessFiles();
+        world = new World.Builder(NAME).tileSize(TS).chunkSize(CHUNK).build();
+        world.setSaveDirectory(null);
+        rules = NavRules.of(0.5f * TS, 1.5f * TS, 2f * TS, TS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        world.dispose();
+        Gdx.files.local("saves/" + NAME).deleteDirectory();
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3, 4, 5})
+    void pathCostsMatchTileSearchOnSeededMaps(long seed) {
+        Random random = new Random(seed);
+        TileView view = terrain(random);
+        NavGraph graph = new NavGraph(world, rules);
+        TileAccessor tiles = new TileAccessor().reset(world, view);
+        TileSearch search = new TileSearch();
+        int found = 0;
+        for (int q = 0; q < 80; q++) {
+            int sx = random.nextInt(WIDTH), gx = random.nextInt(WIDTH);
+            int sy = standingY(tiles, sx), gy = standingY(tiles, gx);
+            long[] expected = search.find(tiles, rules, sx, sy, gx, gy, TileSearch.Bounds.UNBOUNDED, UNCAPPED);
+            long[] actual = graph.findPath(view, sx, sy, gx, gy);
+            String query = "seed " + seed + ": " + sx + "," + sy + " -> " + gx + "," + gy;
+            if (expected == null) {
+                assertNull(actual, query);
+                continue;
+            }
+            assertNotNull(actual, query);
+            assertValid(tiles, actual, sx, sy, gx, gy);
+            assertEquals(cost(expected), cost(actual), 1e-3f, query);
+            found++;
+        }
+        assertTrue(found >= 20, "too few reachable queries: " + found);
+    }
+
+    @Test
+    void tileEditsRebuildTheChunksThatDependOnThem() {
+        TileView view = flat();
+        NavGraph graph = new NavGraph(world, rules);
+        TileAccessor tiles = new TileAccessor().reset(world, view);
+        int sx = 2, gx = WIDTH - 3, y = 5;
+        long[] before = graph.findPath(view, sx, y, gx, y);
+        assertNotNull(before);
+        assertEquals(gx - sx, cost(before), 1e-3f);
+        long builds = graph.builds();
+
+        // Unchanged tiles: the second query reuses every chunk
+        graph.findPath(view, sx, y, gx, y);
+        assertEquals(builds, graph.builds());
+
+        // A wall in chunk 5 makes every walk across it climb over
+        int wall = 5 * CHUNK + 3;
+        for (int ty = y; ty < y + 2; ty++) set(view, wall, ty, 1);
+        long[] after = graph.findPath(view, sx, y, gx, y);
+        assertTrue(graph.builds() > builds, "no chunk was rebuilt");
+        assertNotNull(after);
+        assertValid(tiles, after, sx, y, gx, y);
+        long[] expected = new TileSearch().find(tiles, rules, sx, y, gx, y, TileSearch.Bounds.UNBOUNDED, UNCAPPED);
+        assertEquals(cost(expected), cost(after), 1e-3f);
+        assertTrue(cost(after) > cost(before));
+
+        // Replacing a chunk object with an equal modification count is also noticed
+        TileChunk old = view.captured(5, 0);
+        TileChunk replacement = old.copy();
+        replacement.set(3, y, 0);
+        replacement.set(3, y + 1, 0);
+        replacement.set(3, y + 2, 1); // the wall becomes an overhang, leaving the walk clear
+        while (replacement.modifications() < old.modifications()) {
+            replacement.set(7, 7, replacement.get(7, 7) == 0 ? 1 : 0);
+        }
+        assertEquals(old.modifications(), replacement.modifications());
+        view.put(replacement);
+        assertSame(replacement, view.captured(5, 0));
+        builds = graph.builds();
+        long[] reopened = graph.findPath(view, sx, y, gx, y);
+        assertTrue(graph.builds() > builds, "replaced chunk was not rebuilt");
+        assertEquals(gx - sx, cost(reopened), 1e-3f);
+    }
+
+    /**
+     * Every step of the path is a move the rules allow, from start to goal.
+     */
+    private void assertValid(TileAccessor tiles, long[] path, int sx, int sy, int gx, int gy) {
+        assertEquals(NavRules.cell(sx, sy), path[0]);
+        assertEquals(NavRules.cell(gx, gy), path[path.length - 1]);
+        for (int i = 1; i < path.length; i++) {
+            long from = path[i - 1], to = path[i];
+            boolean[] legal = {false};
+            rules.neighbors(tiles, NavRules.cellX(from), NavRules.cellY(from), (tx, ty) -> {
+                if (NavRules.cell(tx, ty) == to) legal[0] = true;
+            });
+            assertTrue(legal[0], "illegal move " + NavRules.cellX(from) + "," + NavRules.cellY(from)
+                    + " -> " + NavRules.cellX(to) + "," + NavRules.cellY(to));
+        }
+    }
+
+    private static float cost(long[] path) {
+        float cost = 0f;
+        for (int i = 1; i < path.length; i++) {
+            cost += NavRules.cost(NavRules.cellX(path[i - 1]), NavRules.cellY(path[i - 1]),
+                    NavRules.cellX(path[i]), NavRules.cellY(path[i]));
+        }
+        return cost;
+    }
+
+    /**
+     * Lowest cell of the column the entity can stand in: on the ground, not on a platform.
+     */
+    private int standingY(TileAccessor tiles, int x) {
+        for (int y = 1; y < HEIGHT; y++) {
+            if (rules.standable(tiles, x, y)) return y;
+        }
+        return HEIGHT;
+    }
+
+    /**
+     * Hills of random steps with shallow pits and floating platforms, solid below the surface.
+     */
+    private static TileView terrain(Random random) {
+        TileView view = new TileView(CHUNK);
+        int surface = 8;
+        for (int x = 0; x < WIDTH; x++) {
+            if (random.nextBoolean()) surface = Math.max(3, Math.min(HEIGHT - 12, surface + random.nextInt(3) - 1));
+            int top = random.nextInt(10) == 0 ? surface - 2 : surface;
+            for (int y = 0; y <= top; y++) set(view, x, y, 1);
+            if (random.nextInt(8) == 0) set(view, x, surface + 5 + random.nextInt(4), 2);
+        }
+        return view;
+    }
+
+    /**
+     * Solid ground up to y 4 across the map, so cells at y 5 can walk end to end.
+     */
+    private static TileView flat() {
+        TileView view = new TileView(CHUNK);
+        for (int x = 0; x < WIDTH; x++) {
+            for (int y = 0; y <= 4; y++) set(view, x, y, 1);
+        }
+        // Make sure every chunk the walk can touch exists, so edits go to captured chunks
+        for (int cx = 0; cx < WIDTH / CHUNK; cx++) {
+            if (view.captured(cx, 0) == null) view.put(new TileChunk(cx, 0, CHUNK));
+        }
+        return view;
+    }
+
+    private static void set(TileView view, int tx, int ty, int id) {
+        int cx = Math.floorDiv(tx, CHUNK), cy = Math.floorDiv(ty, CHUNK);
+        TileChunk chunk = view.captured(cx, cy);
+        if (chunk == null) view.put(chunk = new TileChunk(cx, cy, CHUNK));
+        chunk.set(tx - cx * CHUNK, ty - cy * CHUNK, id);
+    }
+}
@@ -0,0 +1,120 @@
+package com.sprite.game.world.tiles;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TileChunkTest {
+
+    // One word per column, a partial second word, and exactly two words per column
+    @ParameterizedTest
+    @ValueSource(ints = {8, 64, 100, 128})
+    void fillSetsEverySolidBit(int size) {
+        TileChunk chunk = new TileChunk(0, 0, size);
+        chunk.fill(3);
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                assertEquals(3, chunk.get(x, y));
+                assertTrue(chunk.solid(x, y), x + "," + y);
+                assertTrue(chunk.anySolid(x, y, x, y), x + "," + y);
+            }
+        }
+        assertTrue(chunk.anySolid(-5, -5, size + 5, size + 5));
+
+        chunk.fill(0);
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) assertFalse(chunk.solid(x, y), x + "," + y);
+        }
+        assertFalse(chunk.anySolid(0, 0, size - 1, size - 1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {8, 64, 100, 128})
+    void anySolidMatchesBruteForce(int size) {
+        Random random = new Random(size);
+        TileChunk chunk = new TileChunk(0, 0, size);
+        for (int i = 0; i < size; i++) chunk.set(random.nextInt(size), random.nextInt(size), 1 + random.nextInt(4));
+        // Tiles on both sides of the word boundaries in the last column
+        chunk.set(size - 1, Math.min(63, size - 1), 7);
+        chunk.set(size - 1, size - 1, 7);
+
+        for (int i = 0; i < 5000; i++) {
+            int minX = random.nextInt(size + 4) - 2, maxX = minX + random.nextInt(size / 2 + 1);
+            int minY = random.nextInt(size + 4) - 2, maxY = minY + random.nextInt(size);
+            assertEquals(bruteForce(chunk, minX, minY, maxX, maxY), chunk.anySolid(minX, minY, maxX, maxY),
+                    "[" + minX + "," + minY + ".." + maxX + "," + maxY + "]");
+        }
+        for (int y = 0; y < size; y++) {
+            // Single rows across the whole chunk, straddling no, one or two words
+            assertEquals(bruteForce(chunk, 0, y, size - 1, y), chunk.anySolid(0, y, size - 1, y), "row " + y);
+            assertEquals(bruteForce(chunk, 0, y, size - 1, y + 1), chunk.anySolid(0, y, size - 1, y + 1), "rows " + y);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {8, 64, 100, 128})
+    void idsRebuildSolidityAndRoundTrip(int size) {
+        Random random = new Random(31 * size);
+        int[] ids = new int[size * size];
+        for (int i = 0; i < ids.length; i++) ids[i] = random.nextInt(3) == 0 ? 0 : random.nextInt(100);
+
+        TileChunk chunk = new TileChunk(0, 0, size);
+        chunk.fill(5); // stale bits must not survive the bulk load
+        int modifications = chunk.modifications();
+        chunk.ids(ids);
+        assertTrue(chunk.modifications() > modifications);
+        assertArrayEquals(ids, chunk.ids());
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                int id = ids[x * size + y];
+                assertEquals(id, chunk.get(x, y));
+                assertEquals(id != 0, chunk.solid(x, y), x + "," + y);
+            }
+        }
+
+        TileChunk copy = chunk.copy();
+        assertArrayEquals(ids, copy.ids());
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) assertEquals(chunk.solid(x, y), copy.solid(x, y));
+        }
+    }
+
+    @Test
+    void setTracksSolidityAcrossWords() {
+        TileChunk chunk = new TileChunk(0, 0, 128);
+        chunk.set(5, 63, 1);
+        chunk.set(5, 64, 1);
+        chunk.set(5, 127, 1);
+        assertTrue(chunk.anySolid(5, 0, 5, 63));
+        assertTrue(chunk.anySolid(5, 64, 5, 64));
+        assertFalse(chunk.anySolid(5, 65, 5, 126));
+        assertFalse(chunk.anySolid(4, 0, 4, 127));
+        chunk.set(5, 64, 0);
+        assertFalse(chunk.solid(5, 64));
+        assertTrue(chunk.solid(5, 63));
+        assertTrue(chunk.solid(5, 127));
+    }
+
+    @Test
+    void idsRejectsWrongLength() {
+        TileChunk chunk = new TileChunk(0, 0, 128);
+        assertThrows(IllegalArgumentException.class, () -> chunk.ids(new int[64 * 64]));
+    }
+
+    private static boolean bruteForce(TileChunk chunk, int minX, int minY, int maxX, int maxY) {
+        for (int x = Math.max(0, minX); x <= Math.min(chunk.size() - 1, maxX); x++) {
+            for (int y = Math.max(0, minY); y <= Math.min(chunk.size() - 1, maxY); y++) {
+                if (chunk.get(x, y) != 0) return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,91 @@
+package com.sprite.server;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.sprite.game.world.PreGenerator;
+import com.sprite.game.world.SimulationClock;
+import com.sprite.game.world.World;
+import com.sprite.game.world.chunks.ChunkCache;
+import org.json.JSONObject;
+
+import java.util.Map;
+
+/**
+ * Headless host for a {@link World}: ticks it at its fixed rate, keeps the chunks around the
+ * origin streamed in from disk or the generator, and periodically logs tick statistics. Uses
+ * only the simulation half of the world, so it runs without a graphics context.
+ */
+public class DedicatedServer extends ApplicationAdapter {
+
+    private final JSONObject options;
+    private final int radius;
+    private final float reportSeconds;
+    private final long maxTicks;
+    private final Map<String, String> launchArgs;
+
+    private World world;
+    private float sinceReport = 0f;
+    private long totalTicks = 0;
+
+    public DedicatedServer(JSONObject options, Map<String, String> launchArgs) {
+        this.options = options;
+        this.radius = Math.max(0, Integer.parseInt(launchArgs.getOrDefault("radius", "4")));
+        this.reportSeconds = Float.parseFloat(launchArgs.getOrDefault("report", "10"));
+        this.maxTicks = Long.parseLong(launchArgs.getOrDefault("ticks", "0"));
+        this.launchArgs = launchArgs;
+    }
+
+    @Override
+    public void create() {
+        world = new World(options);
+        if (launchArgs.containsKey("pregen")) {
+            // Pre-generation only: fill the area on all cores, then shut down without ticking
+            PreGenerator.fromArgs(world, launchArgs).run();
+            Gdx.app.exit();
+            return;
+        }
+        world.preloadSquare(0, 0, radius);
+        Gdx.app.log("Server", "Loaded world '" + options.getString("name") + "' at "
+                + world.clock().tickRate() + " ticks/s, streaming " + (2 * radius + 1) + "x" + (2 * radius + 1) + " chunks");
+    }
+
+    @Override
+    public void render() {
+        if (launchArgs.containsKey("pregen")) return;
+        float delta = Gdx.graphics.getDeltaTime();
+        totalTicks += world.update(delta);
+
+        // Keep the streamed area requested and let everything else age out of the cache
+        world.preloadSquare(0, 0, radius);
+        world.trimChunks(-radius, -radius, radius, radius);
+
+        sinceReport += delta;
+        if (reportSeconds > 0 && sinceReport >= reportSeconds) {
+            report(sinceReport);
+            sinceReport = 0f;
+        }
+        if (maxTicks > 0 && totalTicks >= maxTicks) Gdx.app.exit();
+    }
+
+    private void report(float seconds) {
+        SimulationClock.Stats stats = world.clock().stats();
+        ChunkCache cache = world.chunkCache();
+        Gdx.app.log("Server", String.format(
+                "%.1f ticks/s, tick avg %.3f ms max %.3f ms, %d dropped | %d entities | chunks %d cached, %d pending, %d loads, %d evictions",
+                stats.ticks() / seconds, stats.avgTickMs(), stats.maxTickMs(), stats.droppedTicks(),
+                world.entities.size(), cache.size(), world.pendingChunks(), cache.loads(), cache.evictions()));
+        world.clock().resetStats();
+    }
+
+    @Override
+    public void dispose() {
+        if (world == null) return;
+        if (launchArgs.containsKey("pregen")) {
+            world.dispose();
+            return;
+        }
+        report(Math.max(sinceReport, 1e-3f));
+        world.dispose();
+        Gdx.app.log("Server", "Stopped after " + totalTicks + " ticks");
+    }
+}
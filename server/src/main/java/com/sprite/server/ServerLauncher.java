@@ -1,8 +1,64 @@
 package com.sprite.server;
 
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
 /** Launches the server application. */
 public class ServerLauncher {
+
+    public static Map<String, String> LAUNCH_ARGS = new HashMap<>();
+
     public static void main(String[] args) {
-        // TODO Implement server application.
+        LAUNCH_ARGS.put("world", "test"); // loads saves/<world>/options.json
+        LAUNCH_ARGS.put("radius", "4"); // chunks kept streamed in around the origin
+        LAUNCH_ARGS.put("report", "10"); // seconds between tick statistics
+        LAUNCH_ARGS.put("ticks", "0"); // stop after this many ticks; 0 runs until killed
+        // --pregen=<radius> | <cx>,<cy>,<radius> | <minX>,<minY>,<maxX>,<maxY> | resume
+        // pre-generates that area of the world on all cores (--threads=N to limit) and exits
+
+        for(String arg : args){
+            if(arg.startsWith("--") && arg.contains("=")){
+                String[] split = arg.split("=");
+                String label = split[0].substring(2);
+                String value = split[1];
+                LAUNCH_ARGS.put(label, value);
+            }
+        }
+
+        JSONObject options = readOptions(LAUNCH_ARGS.get("world"));
+        if (options == null) {
+            System.err.println("No world named '" + LAUNCH_ARGS.get("world") + "' in saves/");
+            System.exit(1);
+            return;
+        }
+        createApplication(options, LAUNCH_ARGS);
+    }
+
+    private static HeadlessApplication createApplication(JSONObject options, Map<String, String> launchArgs) {
+        HeadlessApplicationConfiguration configuration = new HeadlessApplicationConfiguration();
+        // Wake up about once per tick; the world's clock decides how many ticks are actually run
+        configuration.updatesPerSecond = (int) Math.ceil(options.optFloat("tickRate", 60f));
+        return new HeadlessApplication(new DedicatedServer(options, launchArgs), configuration);
+    }
+
+    /**
+     * Reads the world options before the backend starts, resolving saves/ like Gdx.files.local.
+     */
+    private static JSONObject readOptions(String world) {
+        Path path = Path.of("saves", world, "options.json");
+        if (!Files.isRegularFile(path)) return null;
+        try {
+            return new JSONObject(Files.readString(path, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            return null;
+        }
     }
-}
\ No newline at end of file
+}